@@ -1,12 +1,22 @@
 package info.gregbiegel;
 
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+import javax.management.JMException;
+
+import info.gregbiegel.cli.*;
 import info.gregbiegel.model.*;
+import info.gregbiegel.server.ScheduleHttpServer;
 import info.gregbiegel.service.*;
 import info.gregbiegel.service.binpack.BinPackType;
 import info.gregbiegel.service.exception.ConferenceSchedulerException;
 import info.gregbiegel.service.exception.FileParserException;
+import info.gregbiegel.service.metrics.SchedulingMetricsRegistry;
+import info.gregbiegel.service.render.*;
 
 /**
  * The Main class provides an entry point to the application.
@@ -14,19 +24,82 @@ import info.gregbiegel.service.exception.FileParserException;
  */
 public class Main {
 
+    /**
+     * Command line option to read talks from standard input and stream the program to standard out,
+     * optionally followed by the format of the program
+     */
+    private static final String STREAM_OPTION = "--stream";
+
+    /**
+     * Command line option to convert a talk data file to a binary talk catalog
+     */
+    private static final String CONVERT_OPTION = "--convert";
+
+    /**
+     * Command line option to read the layout of each track from a properties file, which
+     * may precede any of the other options
+     */
+    private static final String SESSIONS_OPTION = "--sessions";
+
+    /**
+     * Command line option to schedule many input files without prompting, followed by the
+     * options described in {@link BatchOptions}
+     */
+    private static final String BATCH_OPTION = "--batch";
+
+    /**
+     * Command line option to run an HTTP scheduling service, optionally followed by the port
+     */
+    private static final String SERVE_OPTION = "--serve";
+
+    private static final int DEFAULT_PORT = 8080;
+
     private IConferenceService conferenceService;
 
+    /**
+     * The layout of the sessions of each track of the conference
+     */
+    private TrackTemplate trackTemplate = TrackTemplate.getDefault();
+
     public Main() {
     }
 
     public static void main(String[] args) {
         Main main = new Main();
+        if (args.length > 1 && SESSIONS_OPTION.equals(args[0])) {
+            if (!main.loadTrackTemplate(args[1]))
+                return;
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        if (args.length > 0 && STREAM_OPTION.equals(args[0])) {
+            main.streamAndScheduleConference(System.in, System.out, 
+                    ScheduleFormat.getForName(args.length > 1 ? args[1] : ScheduleFormat.TEXT.getName()));
+            return;
+        }
+        if (args.length > 0 && BATCH_OPTION.equals(args[0])) {
+            main.batchScheduleConferences(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && SERVE_OPTION.equals(args[0])) {
+            main.serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+            return;
+        }
+        if (args.length > 2 && CONVERT_OPTION.equals(args[0])) {
+            main.convertTalkDataFile(args[1], args[2]);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
         System.out.print("Please enter the input filename: ");
         String filename = scanner.nextLine();
         System.out.print("Select scheduling method\n ");
         System.out.print("1. Next fit\n ");
         System.out.print("2. First fit\n ");
+        System.out.print("3. Indexed first fit\n ");
+        System.out.print("4. First fit decreasing\n ");
+        System.out.print("5. Best fit decreasing\n ");
+        System.out.print("6. Branch and bound (optimal)\n ");
+        System.out.print("7. Portfolio (all methods in parallel)\n ");
+        System.out.print("8. Histogram (very large inputs)\n ");
         System.out.print("Press <Enter> for default method ");
         String method = scanner.nextLine();
         BinPackType binPackType = BinPackType.NEXT_FIT;
@@ -51,13 +124,124 @@ public class Main {
         conferenceService = new ConferenceServiceImpl(binPackType);
         try {
             Conference conference = conferenceService.scheduleConference(
-                    conferenceService.readTalkDataFromFile(fileName), 
-                    Arrays.asList(new MorningSession(), new AfternoonSession()));
-            System.out.println(conference);
+                    conferenceService.readTalkDataFromFile(fileName), trackTemplate.createSessions());
+            new TextScheduleRenderer(new BufferedWriter(new OutputStreamWriter(System.out))).render(conference);
+        } catch (IOException e) {
+            System.err.println("Failed to write conference program: " + e.getMessage());
         } catch (FileParserException | ConferenceSchedulerException e) {
             System.err.println("Failed to read and parse file: " + e.getMessage());
             //e.printStackTrace();
         }
     }
 
+    /**
+     * Reads conference events from an input stream and schedules them using the next fit
+     * algorithm, writing each track of the conference program to the output stream as soon
+     * as it has been scheduled.
+     * 
+     * @param input the stream to read events from
+     * @param output the stream to write the conference program to
+     * @param format the format to write the conference program in
+     */
+    public void streamAndScheduleConference(final InputStream input, final PrintStream output, 
+            final ScheduleFormat format) {
+        conferenceService = new ConferenceServiceImpl(BinPackType.NEXT_FIT);
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            conferenceService.scheduleConference(input, writer, trackTemplate.createSessions(), format);
+        } catch (FileParserException | ConferenceSchedulerException e) {
+            System.err.println("Failed to read and parse input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converts a conference events input file to a binary talk catalog, which can be used
+     * in place of the input file and is loaded without parsing.
+     * 
+     * @param fileName the full path and name of the input file
+     * @param catalogFileName the full path and name of the talk catalog to write
+     */
+    public void convertTalkDataFile(final String fileName, final String catalogFileName) {
+        conferenceService = new ConferenceServiceImpl();
+        try {
+            int noOfTalks = conferenceService.convertTalkDataFile(fileName, catalogFileName);
+            System.out.println("Wrote " + noOfTalks + " talks to " + catalogFileName);
+        } catch (FileParserException e) {
+            System.err.println("Failed to convert file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the layout of each track of the conference from a properties file, in the form
+     * described by {@link TrackTemplate}
+     * 
+     * @param fileName the full path and name of the properties file
+     * @return true if the layout was read
+     */
+    public boolean loadTrackTemplate(final String fileName) {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            trackTemplate = TrackTemplate.fromProperties(properties);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to read sessions file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Schedules many input files in this JVM without prompting, writing the program of each
+     * to its own file and a summary of the throughput to standard out.
+     * 
+     * @param args the batch options and input files
+     */
+    public void batchScheduleConferences(final String[] args) {
+        registerMetrics();
+        try {
+            BatchSummary summary = new BatchScheduler(BatchOptions.parse(args), trackTemplate).run(System.err);
+            System.out.println(summary);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: " + BATCH_OPTION + " [" + BatchOptions.ALGORITHM_OPTION + " id|name] [" 
+                    + BatchOptions.THREADS_OPTION + " n] [" + BatchOptions.FORMAT_OPTION + " text|json|csv|ics] [" 
+                    + BatchOptions.OUTPUT_OPTION + " directory] input...");
+        } catch (IOException e) {
+            System.err.println("Failed to run batch: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs an HTTP service that schedules the talk lists posted to it, until the JVM is stopped
+     * 
+     * @param port the port to listen on
+     */
+    public void serve(final int port) {
+        registerMetrics();
+        try {
+            ScheduleHttpServer server = new ScheduleHttpServer(new InetSocketAddress(port), trackTemplate,
+                    ScheduleHttpServer.DEFAULT_MAX_CONCURRENT_REQUESTS, ScheduleHttpServer.DEFAULT_TIMEOUT_MILLIS);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            server.start();
+            System.out.println("Scheduling talk lists posted to http://localhost:" + server.getPort() 
+                    + ScheduleHttpServer.SCHEDULE_PATH);
+        } catch (IOException e) {
+            System.err.println("Failed to start server: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exposes the scheduling metrics of every algorithm through the platform MBean server,
+     * so that long running schedulers can be monitored with JMX
+     */
+    private void registerMetrics() {
+        try {
+            SchedulingMetricsRegistry.getDefault().register(ManagementFactory.getPlatformMBeanServer());
+        } catch (JMException e) {
+            System.err.println("Failed to register scheduling metrics: " + e.getMessage());
+        }
+    }
+
 }
@@ -0,0 +1,150 @@
+package info.gregbiegel.cli;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+import info.gregbiegel.service.binpack.BinPackType;
+import info.gregbiegel.service.render.ScheduleFormat;
+
+/**
+ * The BatchOptions class holds the command line options of a batch run, which schedules
+ * many input files in one JVM. The options are
+ * <pre>
+ * [--algorithm id|name] [--threads n] [--format text|json|csv|ics] [--output directory] input...
+ * </pre>
+ * where each input is a file name or a glob such as {@code data/*.txt} or {@code data/**.txt}.
+ *
+ */
+public class BatchOptions {
+
+    public static final String ALGORITHM_OPTION = "--algorithm";
+    public static final String THREADS_OPTION = "--threads";
+    public static final String FORMAT_OPTION = "--format";
+    public static final String OUTPUT_OPTION = "--output";
+
+    /**
+     * The characters that mark an input as a glob rather than a file name
+     */
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private BinPackType binPackType = BinPackType.NEXT_FIT;
+    private int noOfThreads = Runtime.getRuntime().availableProcessors();
+    private ScheduleFormat format = ScheduleFormat.TEXT;
+    private Path outputDirectory = Paths.get(".");
+    private final List<Path> inputs = new ArrayList<>();
+
+    /**
+     * Parses the options of a batch run
+     *
+     * @param args the command line arguments that follow the batch option
+     * @return the options
+     * @throws IllegalArgumentException if an option is invalid, or no input file is found
+     * @throws IOException if there is a problem expanding a glob
+     */
+    public static BatchOptions parse(final String[] args) throws IOException {
+        BatchOptions options = new BatchOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (ALGORITHM_OPTION.equals(arg)) {
+                options.binPackType = BinPackType.getForName(getValue(args, ++i, arg));
+            } else if (THREADS_OPTION.equals(arg)) {
+                try {
+                    options.noOfThreads = Integer.parseInt(getValue(args, ++i, arg));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("The number of threads must be a number");
+                }
+                if (options.noOfThreads <= 0)
+                    throw new IllegalArgumentException("The number of threads must be positive");
+            } else if (FORMAT_OPTION.equals(arg)) {
+                options.format = ScheduleFormat.getForName(getValue(args, ++i, arg));
+            } else if (OUTPUT_OPTION.equals(arg)) {
+                options.outputDirectory = Paths.get(getValue(args, ++i, arg));
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            } else {
+                options.addInputs(arg);
+            }
+        }
+        if (options.inputs.isEmpty())
+            throw new IllegalArgumentException("No input files found");
+        options.checkOutputFilesAreDistinct();
+        return options;
+    }
+
+    public BinPackType getBinPackType() {
+        return binPackType;
+    }
+
+    public int getNoOfThreads() {
+        return noOfThreads;
+    }
+
+    public ScheduleFormat getFormat() {
+        return format;
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public List<Path> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Gets the file the program of an input is written to, which is named after the input
+     *
+     * @param input the input file
+     * @return the output file
+     */
+    public Path getOutputFile(final Path input) {
+        String name = input.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        return outputDirectory.resolve((extension > 0 ? name.substring(0, extension) : name) 
+                + "-program." + format.getFileExtension());
+    }
+
+    private static String getValue(final String[] args, final int index, final String option) {
+        if (index >= args.length)
+            throw new IllegalArgumentException("No value given for " + option);
+        return args[index];
+    }
+
+    /**
+     * Adds an input file, or every file matching an input glob in name order
+     */
+    private void addInputs(final String input) throws IOException {
+        int globStart = -1;
+        for (int i = 0; i < input.length() && globStart < 0; i++)
+            if (GLOB_CHARACTERS.indexOf(input.charAt(i)) >= 0)
+                globStart = i;
+        if (globStart < 0) {
+            inputs.add(Paths.get(input));
+            return;
+        }
+        // The directory to search is the part of the glob before the first glob character
+        int separator = Math.max(input.lastIndexOf('/', globStart), input.lastIndexOf('\\', globStart));
+        Path directory = Paths.get(separator < 0 ? "." : input.substring(0, separator + 1));
+        String pattern = input.substring(separator + 1);
+        PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + pattern);
+        int maxDepth = pattern.contains("**") || pattern.contains("/") ? Integer.MAX_VALUE : 1;
+        try (Stream<Path> files = Files.walk(directory, maxDepth)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> matcher.matches(directory.relativize(file)))
+                    .sorted()
+                    .forEach(inputs::add);
+        }
+    }
+
+    private void checkOutputFilesAreDistinct() {
+        Map<Path, Path> inputsByOutput = new HashMap<>();
+        for (Path input : inputs) {
+            Path previous = inputsByOutput.put(getOutputFile(input), input);
+            if (previous != null)
+                throw new IllegalArgumentException("Inputs " + previous + " and " + input 
+                        + " would both be written to " + getOutputFile(input));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package info.gregbiegel.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.ConferenceServiceImpl;
+import info.gregbiegel.service.IConferenceService;
+import info.gregbiegel.service.exception.ConferenceSchedulerException;
+import info.gregbiegel.service.exception.FileParserException;
+
+/**
+ * Schedules many input files in one JVM, on a fixed number of threads, writing the
+ * program of each input to its own file in the output directory. Each thread has its own
+ * conference service, so the bin packers are never shared between threads. An input that
+ * cannot be read or scheduled is reported and does not stop the other inputs.
+ *
+ */
+public class BatchScheduler {
+
+    private final BatchOptions options;
+    private final TrackTemplate trackTemplate;
+
+    private final ThreadLocal<IConferenceService> conferenceServices;
+
+    /**
+     * Instantiates a new object
+     *
+     * @param options the options of the batch run
+     * @param trackTemplate the layout of each track of every conference
+     */
+    public BatchScheduler(final BatchOptions options, final TrackTemplate trackTemplate) {
+        this.options = options;
+        this.trackTemplate = trackTemplate;
+        conferenceServices = ThreadLocal.withInitial(() -> new ConferenceServiceImpl(options.getBinPackType()));
+    }
+
+    /**
+     * Schedules every input
+     *
+     * @param errors the stream that inputs which fail are reported to
+     * @return a summary of the run
+     * @throws IOException if the output directory cannot be created
+     * @throws InterruptedException if the thread is interrupted while waiting for the inputs
+     */
+    public BatchSummary run(final PrintStream errors) throws IOException, InterruptedException {
+        Files.createDirectories(options.getOutputDirectory());
+        long startTime = System.nanoTime();
+        AtomicLong noOfTalks = new AtomicLong();
+        AtomicLong noOfTracks = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(options.getNoOfThreads());
+        List<Future<?>> results = new ArrayList<>(options.getInputs().size());
+        try {
+            for (Path input : options.getInputs()) {
+                results.add(executor.submit(() -> {
+                    Conference conference = schedule(input);
+                    noOfTracks.addAndGet(conference.getTracks().size());
+                    noOfTalks.addAndGet(countTalks(conference));
+                    return null;
+                }));
+            }
+            int noOfFailures = 0;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    noOfFailures++;
+                    errors.println("Failed to schedule " + options.getInputs().get(i) + ": " 
+                            + e.getCause().getMessage());
+                }
+            }
+            return new BatchSummary(results.size() - noOfFailures, noOfFailures, noOfTalks.get(), 
+                    noOfTracks.get(), System.nanoTime() - startTime);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedules one input and writes its program
+     */
+    private Conference schedule(final Path input) 
+            throws FileParserException, ConferenceSchedulerException, IOException {
+        IConferenceService conferenceService = conferenceServices.get();
+        Conference conference = conferenceService.scheduleConference(
+                conferenceService.readTalkDataFromFile(input.toString()), trackTemplate.createSessions());
+        try (Writer writer = Files.newBufferedWriter(options.getOutputFile(input), StandardCharsets.UTF_8)) {
+            options.getFormat().createRenderer(writer).render(conference);
+        }
+        return conference;
+    }
+
+    private static int countTalks(final Conference conference) {
+        int noOfTalks = 0;
+        for (Track track : conference.getTracks())
+            for (Iterator<Session> sessionIter = track.getSessions(); sessionIter.hasNext(); )
+                for (Iterator<ScheduledEvent> eventIter = sessionIter.next().getScheduledEvents(); eventIter.hasNext(); )
+                    if (!(eventIter.next() instanceof ScheduledBreak))
+                        noOfTalks++;
+        return noOfTalks;
+    }
+}
@@ -0,0 +1,54 @@
+package info.gregbiegel.cli;
+
+import java.util.Locale;
+
+/**
+ * The BatchSummary class holds the outcome of a batch run and the throughput it achieved.
+ *
+ */
+public class BatchSummary {
+
+    private final int noOfScheduledInputs;
+    private final int noOfFailedInputs;
+    private final long noOfTalks;
+    private final long noOfTracks;
+    private final long elapsedNanos;
+
+    public BatchSummary(final int noOfScheduledInputs, final int noOfFailedInputs, final long noOfTalks,
+            final long noOfTracks, final long elapsedNanos) {
+        this.noOfScheduledInputs = noOfScheduledInputs;
+        this.noOfFailedInputs = noOfFailedInputs;
+        this.noOfTalks = noOfTalks;
+        this.noOfTracks = noOfTracks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getNoOfScheduledInputs() {
+        return noOfScheduledInputs;
+    }
+
+    public int getNoOfFailedInputs() {
+        return noOfFailedInputs;
+    }
+
+    public long getNoOfTalks() {
+        return noOfTalks;
+    }
+
+    public long getNoOfTracks() {
+        return noOfTracks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        return String.format(Locale.ROOT, 
+                "Scheduled %d of %d inputs (%d talks, %d tracks) in %.3fs: %.1f inputs/s, %.0f talks/s",
+                noOfScheduledInputs, noOfScheduledInputs + noOfFailedInputs, noOfTalks, noOfTracks, seconds,
+                noOfScheduledInputs / seconds, noOfTalks / seconds);
+    }
+}
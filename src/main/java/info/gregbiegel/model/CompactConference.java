@@ -0,0 +1,129 @@
+package info.gregbiegel.model;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Supplier;
+
+import info.gregbiegel.service.exception.ScheduleException;
+
+/**
+ * The CompactConference class represents a scheduled conference in a compact form, in
+ * which each track is a {@link CompactTrack} holding the ids and start minutes of its
+ * talks in arrays, and the details of the talks are held once in an {@link EventCatalog}.
+ *
+ */
+public class CompactConference {
+
+    private final EventCatalog catalog;
+    private final TrackTemplate template;
+    private final List<CompactTrack> tracks = new ArrayList<>();
+
+    /**
+     * Instantiates a new object
+     *
+     * @param catalog the catalog holding the talks to be scheduled
+     * @param sessions the sessions of each track, which supply the start time and
+     *  maximum duration of each session
+     */
+    public CompactConference(final EventCatalog catalog, final List<Session> sessions) {
+        this(catalog, TrackTemplate.of(sessions));
+    }
+
+    /**
+     * Instantiates a new object
+     *
+     * @param catalog the catalog holding the talks to be scheduled
+     * @param template the layout of the sessions of each track
+     */
+    public CompactConference(final EventCatalog catalog, final TrackTemplate template) {
+        this.catalog = catalog;
+        this.template = template;
+    }
+
+    public EventCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Adds a new, empty track to the conference
+     *
+     * @return the track that was added
+     */
+    public CompactTrack addTrack() {
+        CompactTrack track = new CompactTrack(catalog, template);
+        tracks.add(track);
+        return track;
+    }
+
+    public TrackTemplate getTemplate() {
+        return template;
+    }
+
+    public CompactTrack getTrack(final int index) {
+        return tracks.get(index);
+    }
+
+    public int getNoOfTracks() {
+        return tracks.size();
+    }
+
+    /**
+     * Creates a conference holding an object for every scheduled event, with tracks created
+     * from the template of the conference
+     *
+     * @return a conference with the same schedule
+     * @throws ScheduleException if a talk does not fit into its session
+     */
+    public Conference toConference() throws ScheduleException {
+        return toConference(template::createTrack);
+    }
+
+    /**
+     * Creates a conference holding an object for every scheduled event, for callers that
+     * work with the {@link Conference} model
+     *
+     * @param trackFactory creates each empty track of the conference
+     * @return a conference with the same schedule
+     * @throws ScheduleException if a talk does not fit into the sessions created by the factory
+     */
+    public Conference toConference(final Supplier<Track> trackFactory) throws ScheduleException {
+        Conference conference = new Conference();
+        for (CompactTrack compactTrack : tracks) {
+            Track track = trackFactory.get();
+            int index = 0;
+            for (int sessionNo = 0; sessionNo < compactTrack.getNoOfSessions(); sessionNo++) {
+                for (int i = 0; i < compactTrack.getNoOfEvents(sessionNo); i++)
+                    track.getSession(sessionNo).scheduleEventInSession(
+                            catalog.getEvent(compactTrack.getEventId(index++)), false);
+            }
+            track.updateBreaks();
+            conference.addTrack(track);
+        }
+        return conference;
+    }
+
+    /**
+     * Visits every scheduled event of the conference in program order, without creating
+     * an object for each event
+     * 
+     * @param visitor the visitor to pass the events to
+     * @throws IOException if the visitor fails to write an event
+     */
+    public void accept(final IScheduleVisitor visitor) throws IOException {
+        visitor.startConference();
+        int trackNo = 1;
+        for (CompactTrack track : tracks)
+            track.accept(trackNo++, visitor);
+        visitor.endConference();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        output.append(Conference.HEADER);
+        int trackNo = 1;
+        for (CompactTrack track : tracks)
+            output.append("Track " + trackNo++ + ":\n" + track + "\n");
+        return output.toString();
+    }
+}
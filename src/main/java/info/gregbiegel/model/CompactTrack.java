@@ -0,0 +1,221 @@
+package info.gregbiegel.model;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The CompactTrack class represents a track within a {@link CompactConference}. Rather
+ * than holding an object for each scheduled talk, the track holds the id of each talk
+ * and the minute of the day it starts at in parallel arrays, with the talks of each
+ * session following those of the session before. Talks are appended to the end of a
+ * session in constant time, and the lunch and networking breaks are not stored at all,
+ * as their placement follows from the break slots of the template and the talks in the 
+ * final session of the track.
+ * <p>
+ * Scheduled event objects are only created when the sessions of the track are iterated.
+ *
+ */
+public class CompactTrack {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final EventCatalog catalog;
+    private final TrackTemplate template;
+
+    private int noOfEvents;
+    private int[] eventIds = new int[INITIAL_CAPACITY];
+    private short[] startMinutes = new short[INITIAL_CAPACITY];
+
+    /**
+     * The index of the first talk of each session, and after the final session, the number of talks
+     */
+    private final int[] sessionFirstEvent;
+
+    /**
+     * The minute of the day that the talks of each session end at
+     */
+    private final int[] sessionEndMinutes;
+
+    /**
+     * The session that talks are currently being appended to
+     */
+    private int currentSession;
+
+    CompactTrack(final EventCatalog catalog, final TrackTemplate template) {
+        this.catalog = catalog;
+        this.template = template;
+        sessionFirstEvent = new int[template.getNoOfSessions() + 1];
+        sessionEndMinutes = template.getSessionStartMinutes();
+    }
+
+    public int getNoOfSessions() {
+        return template.getNoOfSessions();
+    }
+
+    public int getNoOfEvents() {
+        return noOfEvents;
+    }
+
+    /**
+     * Gets the number of talks scheduled within a session
+     *
+     * @param sessionNo the session number within the track
+     * @return the number of talks in the session
+     */
+    public int getNoOfEvents(final int sessionNo) {
+        return sessionFirstEvent[sessionNo + 1] - sessionFirstEvent[sessionNo];
+    }
+
+    public int getEventId(final int index) {
+        return eventIds[index];
+    }
+
+    public int getStartMinuteOfDay(final int index) {
+        return startMinutes[index];
+    }
+
+    /**
+     * Gets the time left in a session after its last talk
+     *
+     * @param sessionNo the session number within the track
+     * @return the number of minutes remaining in the session
+     */
+    public int getRemainingMinutes(final int sessionNo) {
+        return template.getSessionStartMinute(sessionNo) + template.getMaximumDurationInMinutes(sessionNo) 
+                - sessionEndMinutes[sessionNo];
+    }
+
+    /**
+     * Appends a talk to the end of a session, starting when the previous talk in the
+     * session ends. Talks must be appended session by session, so once a talk has been
+     * appended to a session no more can be appended to the sessions before it.
+     *
+     * @param sessionNo the session number within the track
+     * @param eventId the id of the talk in the event catalog
+     * @return true if there was enough time remaining in the session for the talk
+     */
+    public boolean append(final int sessionNo, final int eventId) {
+        if (sessionNo < currentSession)
+            throw new IllegalStateException("Talks have already been appended to a later session");
+        int durationInMinutes = catalog.getDurationInMinutes(eventId);
+        if (getRemainingMinutes(sessionNo) < durationInMinutes)
+            return false;
+        currentSession = sessionNo;
+        if (noOfEvents == eventIds.length) {
+            eventIds = Arrays.copyOf(eventIds, noOfEvents * 2);
+            startMinutes = Arrays.copyOf(startMinutes, noOfEvents * 2);
+        }
+        eventIds[noOfEvents] = eventId;
+        startMinutes[noOfEvents++] = (short) sessionEndMinutes[sessionNo];
+        sessionEndMinutes[sessionNo] += durationInMinutes;
+        for (int session = sessionNo + 1; session < sessionFirstEvent.length; session++)
+            sessionFirstEvent[session] = noOfEvents;
+        return true;
+    }
+
+    /**
+     * Returns true if the track has lunch and networking breaks, which are only scheduled
+     * when the final session of the track contains talks
+     *
+     * @return true if the track has breaks
+     */
+    public boolean hasBreaks() {
+        return getNoOfEvents(template.getBreakSessionNo()) > 0;
+    }
+
+    /**
+     * Creates the events scheduled within a session, in order of their start time. As in
+     * a {@link Track}, each break is part of the session its slot is placed in.
+     *
+     * @param sessionNo the session number within the track
+     * @return an iterator over the scheduled events of the session
+     */
+    public Iterator<ScheduledEvent> getScheduledEvents(final int sessionNo) {
+        List<ScheduledBreak> breaks = getBreaks(sessionNo);
+        int first = sessionFirstEvent[sessionNo];
+        int last = sessionFirstEvent[sessionNo + 1];
+        return new Iterator<ScheduledEvent>() {
+            private int next = first;
+            private int nextBreak = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < last || nextBreak < breaks.size();
+            }
+
+            @Override
+            public ScheduledEvent next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                if (nextBreak < breaks.size() && (next == last
+                        || startMinutes[next] >= breaks.get(nextBreak).getStartMinuteOfDay()))
+                    return breaks.get(nextBreak++);
+                int eventId = eventIds[next];
+                return new ScheduledTalk(eventId, catalog.getTitle(eventId), catalog.getDurationInMinutes(eventId),
+                        MinuteOfDayLabels.toLocalTime(startMinutes[next++]));
+            }
+        };
+    }
+
+    /**
+     * Visits the events of the track in order of their start time, without creating an
+     * object for each talk
+     * 
+     * @param trackNo the number of the track within the conference
+     * @param visitor the visitor to pass the events to
+     * @throws IOException if the visitor fails to write an event
+     */
+    public void accept(final int trackNo, final IScheduleVisitor visitor) throws IOException {
+        visitor.startTrack(trackNo);
+        for (int sessionNo = 0; sessionNo < getNoOfSessions(); sessionNo++) {
+            visitor.startSession(sessionNo);
+            List<ScheduledBreak> breaks = getBreaks(sessionNo);
+            int nextBreak = 0;
+            for (int next = sessionFirstEvent[sessionNo]; next < sessionFirstEvent[sessionNo + 1]; next++) {
+                for (; nextBreak < breaks.size() && startMinutes[next] >= breaks.get(nextBreak).getStartMinuteOfDay(); 
+                        nextBreak++)
+                    visitBreak(breaks.get(nextBreak), visitor);
+                int eventId = eventIds[next];
+                visitor.visitTalk(eventId, catalog.getTitle(eventId), catalog.getDurationInMinutes(eventId), 
+                        startMinutes[next]);
+            }
+            for (; nextBreak < breaks.size(); nextBreak++)
+                visitBreak(breaks.get(nextBreak), visitor);
+        }
+        visitor.endTrack(trackNo);
+    }
+
+    private static void visitBreak(final ScheduledBreak scheduledBreak, final IScheduleVisitor visitor) 
+            throws IOException {
+        visitor.visitBreak(scheduledBreak.getId(), scheduledBreak.getTitle(), scheduledBreak.getDurationInMinutes(),
+                scheduledBreak.getStartMinuteOfDay());
+    }
+
+    /**
+     * Gets the breaks of a session, in order of their start time. As in a {@link Track},
+     * the breaks are only added when the final session contains talks.
+     */
+    private List<ScheduledBreak> getBreaks(final int sessionNo) {
+        if (!hasBreaks())
+            return Collections.emptyList();
+        boolean lunch = template.hasLunchBreak() && sessionNo == template.getLunchSessionNo();
+        int breakSessionNo = template.getBreakSessionNo();
+        if (sessionNo != breakSessionNo)
+            return lunch ? Collections.<ScheduledBreak>singletonList(template.getLunchBreak()) 
+                    : Collections.<ScheduledBreak>emptyList();
+        NetworkingBreak networkingBreak = template.getNetworkingBreak(sessionEndMinutes[breakSessionNo]);
+        return lunch ? Arrays.asList(template.getLunchBreak(), networkingBreak) 
+                : Collections.<ScheduledBreak>singletonList(networkingBreak);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        for (int sessionNo = 0; sessionNo < getNoOfSessions(); sessionNo++) {
+            for (Iterator<ScheduledEvent> eventIter = getScheduledEvents(sessionNo); eventIter.hasNext(); ) {
+                output.append(eventIter.next() + "\n");
+            }
+        }
+        return output.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package info.gregbiegel.model;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -8,11 +9,22 @@ import java.util.*;
  */
 public class Conference {
 
+    /**
+     * The heading printed before the tracks of the conference
+     */
+    public static final String HEADER = "Conference\n----------\n";
+
     /**
      * The list of tracks associated with the conference
      */
     private final List<Track> tracks;
 
+    /**
+     * Locates sessions for talks added to or removed from the conference, which is built 
+     * when the first talk is added or removed and kept up to date from then on
+     */
+    private ConferenceIndex index;
+
     public Conference() {
         this.tracks = new ArrayList<Track>();
     }
@@ -24,6 +36,8 @@ public class Conference {
      */
     public void addTrack(final Track track) {
         tracks.add(track);
+        if (index != null)
+            index.addTrack(track);
     }
 
     /**
@@ -35,18 +49,85 @@ public class Conference {
         return tracks;
     }
 
+    /**
+     * Schedules an event in the first track that has a session with enough time remaining.
+     * Only the track the event is added to is changed, and the session is found without 
+     * searching the other tracks. Once talks are added or removed through the conference,
+     * its tracks should only be changed through the conference.
+     * 
+     * @param event the event to schedule
+     * @return the track the event was added to, or null if no session has enough time remaining
+     */
+    public Track addEvent(final Event event) {
+        ConferenceIndex index = getIndex();
+        int session = index.findSession(event.getDurationInMinutes());
+        if (session < 0)
+            return null;
+        Track track = index.getTrack(session);
+        if (!track.addEvent(index.getSessionNo(session), event))
+            return null;
+        index.added(event.getId(), session);
+        return track;
+    }
+
+    /**
+     * Removes a talk from the conference. Only the track that contained the talk is changed,
+     * and the talk is found without searching the other tracks.
+     * 
+     * @param eventId the id of the talk to remove
+     * @return the track the talk was removed from, or null if the talk was not found
+     */
+    public Track removeEvent(final int eventId) {
+        ConferenceIndex index = getIndex();
+        int session = index.getSession(eventId);
+        if (session < 0)
+            return null;
+        Track track = index.getTrack(session);
+        if (!track.removeEvent(index.getSessionNo(session), eventId))
+            return null;
+        index.removed(eventId, session);
+        return track;
+    }
+
+    private ConferenceIndex getIndex() {
+        if (index == null)
+            index = new ConferenceIndex(tracks);
+        return index;
+    }
+
+    /**
+     * Visits every scheduled event of the conference in program order
+     * 
+     * @param visitor the visitor to pass the events to
+     * @throws IOException if the visitor fails to write an event
+     */
+    public void accept(final IScheduleVisitor visitor) throws IOException {
+        visitor.startConference();
+        int trackNo = 1;
+        for (Track track : tracks)
+            track.accept(trackNo++, visitor);
+        visitor.endConference();
+    }
+
     @Override
     public String toString() {
-        StringBuffer output = new StringBuffer();
-        output.append("Conference\n");
-        output.append("----------\n");
+        StringBuilder output = new StringBuilder();
+        output.append(HEADER);
         int trackNo = 1;
         for (Iterator<Track> trackIter = tracks.iterator(); trackIter.hasNext();) {
-            Track track = trackIter.next();
-            output.append("Track " + trackNo++ + ":\n");
-            output.append(track.toString());
-            output.append("\n");
+            output.append(formatTrack(trackNo++, trackIter.next()));
         }
         return output.toString();
     }
+
+    /**
+     * Formats a single track of the conference as it appears in the conference program
+     * 
+     * @param trackNo the number of the track, starting from 1
+     * @param track the track to format
+     * @return the track, formatted for output
+     */
+    public static String formatTrack(final int trackNo, final Track track) {
+        return "Track " + trackNo + ":\n" + track.toString() + "\n";
+    }
 }
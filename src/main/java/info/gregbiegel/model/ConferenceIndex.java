@@ -0,0 +1,126 @@
+package info.gregbiegel.model;
+
+import java.util.*;
+
+/**
+ * The ConferenceIndex class locates the sessions of a {@link Conference} for talks that are
+ * added to or removed from it after it has been scheduled. Every session is numbered in
+ * program order, and the time remaining in each session is kept in a max-residual segment
+ * tree, so the first session with enough time for a talk is found in O(log n). The session
+ * of every talk is kept in a map, so a talk is removed without searching the tracks.
+ *
+ */
+class ConferenceIndex {
+
+    /**
+     * Remaining time used for leaves that do not hold a session, so that they can never
+     * be selected by a search
+     */
+    private static final int NO_SESSION = Integer.MIN_VALUE;
+
+    private final List<Track> trackBySession = new ArrayList<>();
+    private final List<Integer> sessionNoBySession = new ArrayList<>();
+    private final Map<Integer, Integer> sessionByEventId = new HashMap<>();
+
+    private int leafOffset = 1;
+    private int[] maxRemaining = { NO_SESSION, NO_SESSION };
+
+    ConferenceIndex(final List<Track> tracks) {
+        for (Track track : tracks)
+            addTrack(track);
+    }
+
+    /**
+     * Adds the sessions of a track after those of the tracks already indexed
+     */
+    void addTrack(final Track track) {
+        for (int sessionNo = 0; sessionNo < track.getNoOfSessions(); sessionNo++) {
+            int session = trackBySession.size();
+            trackBySession.add(track);
+            sessionNoBySession.add(sessionNo);
+            if (session == leafOffset)
+                grow();
+            Iterator<ScheduledEvent> eventIter = track.getSession(sessionNo).getScheduledEvents();
+            while (eventIter.hasNext()) {
+                ScheduledEvent event = eventIter.next();
+                if (!(event instanceof ScheduledBreak))
+                    sessionByEventId.put(event.getId(), session);
+            }
+            update(session);
+        }
+    }
+
+    /**
+     * Gets the first session, in program order, with at least the given time remaining
+     *
+     * @return the number of the session, or -1 if no session has enough time remaining
+     */
+    int findSession(final int durationInMinutes) {
+        if (maxRemaining[1] < durationInMinutes)
+            return -1;
+        int node = 1;
+        while (node < leafOffset) {
+            node <<= 1;
+            if (maxRemaining[node] < durationInMinutes)
+                node++;
+        }
+        return node - leafOffset;
+    }
+
+    /**
+     * Gets the session a talk is scheduled in
+     *
+     * @return the number of the session, or -1 if the talk is not scheduled
+     */
+    int getSession(final int eventId) {
+        Integer session = sessionByEventId.get(eventId);
+        return session == null ? -1 : session;
+    }
+
+    Track getTrack(final int session) {
+        return trackBySession.get(session);
+    }
+
+    int getSessionNo(final int session) {
+        return sessionNoBySession.get(session);
+    }
+
+    /**
+     * Records that a talk has been added to a session
+     */
+    void added(final int eventId, final int session) {
+        sessionByEventId.put(eventId, session);
+        update(session);
+    }
+
+    /**
+     * Records that a talk has been removed from its session
+     */
+    void removed(final int eventId, final int session) {
+        sessionByEventId.remove(eventId);
+        update(session);
+    }
+
+    /**
+     * Updates the time remaining in a session, and the maximum of each range above it
+     */
+    private void update(final int session) {
+        int node = leafOffset + session;
+        maxRemaining[node] = getTrack(session).getSession(getSessionNo(session)).getRemainingMinutes();
+        for (node >>= 1; node > 0; node >>= 1)
+            maxRemaining[node] = Math.max(maxRemaining[2 * node], maxRemaining[2 * node + 1]);
+    }
+
+    /**
+     * Doubles the number of leaves, moving each existing leaf to the new bottom level
+     */
+    private void grow() {
+        int[] leaves = Arrays.copyOfRange(maxRemaining, leafOffset, 2 * leafOffset);
+        leafOffset <<= 1;
+        maxRemaining = new int[2 * leafOffset];
+        Arrays.fill(maxRemaining, NO_SESSION);
+        System.arraycopy(leaves, 0, maxRemaining, leafOffset, leaves.length);
+        for (int node = leafOffset - 1; node > 0; node--)
+            maxRemaining[node] = Math.max(maxRemaining[2 * node], maxRemaining[2 * node + 1]);
+    }
+}
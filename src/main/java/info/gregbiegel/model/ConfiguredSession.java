@@ -0,0 +1,61 @@
+package info.gregbiegel.model;
+
+import java.time.LocalTime;
+
+/**
+ * The ConfiguredSession class is an extension of the Session base class whose start time
+ * and duration are given when it is created rather than fixed by the class, so that the
+ * sessions of a {@link TrackTemplate} can be laid out without a class for each session.
+ *
+ */
+public class ConfiguredSession extends Session {
+
+    private final int minimumDurationInMinutes;
+    private final int maximumDurationInMinutes;
+
+    /**
+     * The template that created the session, or null
+     */
+    private final TrackTemplate template;
+
+    public ConfiguredSession(final LocalTime startTime, final int minimumDurationInMinutes,
+            final int maximumDurationInMinutes) {
+        this(startTime, minimumDurationInMinutes, maximumDurationInMinutes, null);
+    }
+
+    ConfiguredSession(final LocalTime startTime, final int minimumDurationInMinutes,
+            final int maximumDurationInMinutes, final TrackTemplate template) {
+        super(startTime);
+        this.minimumDurationInMinutes = minimumDurationInMinutes;
+        this.maximumDurationInMinutes = maximumDurationInMinutes;
+        this.template = template;
+    }
+
+    TrackTemplate getTemplate() {
+        return template;
+    }
+
+    /*
+     * @see info.gregbiegel.model.Session#getTrackTemplate()
+     */
+    @Override
+    TrackTemplate getTrackTemplate() {
+        return template != null ? template : super.getTrackTemplate();
+    }
+
+    /*
+     * @see info.gregbiegel.model.Session#getMinimumDurationInMinutes()
+     */
+    @Override
+    public int getMinimumDurationInMinutes() {
+        return minimumDurationInMinutes;
+    }
+
+    /*
+     * @see info.gregbiegel.model.Session#getMaximumDurationInMinutes()
+     */
+    @Override
+    public int getMaximumDurationInMinutes() {
+        return maximumDurationInMinutes;
+    }
+}
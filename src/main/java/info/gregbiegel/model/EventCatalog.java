@@ -0,0 +1,201 @@
+package info.gregbiegel.model;
+
+import java.util.Arrays;
+
+/**
+ * The EventCatalog class holds the talks of a conference in a compact, array based form.
+ * Talks are given dense ids in the order they are added, starting from
+ * {@link #FIRST_TALK_ID} as ids 0 and 1 are reserved for the lunch and networking breaks,
+ * so a talk is found by id with a single array access. Durations are held in an int
+ * array, and each distinct title is held once in a string table that is indexed by an
+ * open-addressing hash table. Talks with a title that is already in the catalog are kept,
+ * sharing the existing title, and their ids are reported as duplicates.
+ *
+ */
+public class EventCatalog {
+
+    /**
+     * The id of the first talk added to a catalog
+     */
+    public static final int FIRST_TALK_ID = 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int noOfTalks;
+
+    /**
+     * The duration of each talk, indexed by id less {@link #FIRST_TALK_ID}
+     */
+    private int[] durations = new int[INITIAL_CAPACITY];
+
+    /**
+     * The position of the title of each talk in the string table, indexed by id less {@link #FIRST_TALK_ID}
+     */
+    private int[] titleRefs = new int[INITIAL_CAPACITY];
+
+    private int noOfTitles;
+    private String[] titles = new String[INITIAL_CAPACITY];
+
+    /**
+     * The id of the first talk with each title, indexed by position in the string table
+     */
+    private int[] firstIdOfTitle = new int[INITIAL_CAPACITY];
+
+    /**
+     * Open-addressing hash table of titles with linear probing, holding the position of each
+     * title in the string table plus one, or zero for an empty slot
+     */
+    private int[] titleIndex = new int[2 * INITIAL_CAPACITY];
+
+    private int noOfDuplicates;
+    private int[] duplicateIds = new int[0];
+
+    /**
+     * Adds a talk to the catalog
+     *
+     * @param title the title of the talk
+     * @param durationInMinutes the duration of the talk
+     * @return the id assigned to the talk
+     */
+    public int add(final String title, final int durationInMinutes) {
+        int id = FIRST_TALK_ID + noOfTalks;
+        int slot = findSlot(title);
+        int titleRef = titleIndex[slot] - 1;
+        if (titleRef < 0) {
+            titleRef = addTitle(title, id, slot);
+        } else {
+            if (noOfDuplicates == duplicateIds.length)
+                duplicateIds = Arrays.copyOf(duplicateIds, Math.max(INITIAL_CAPACITY, noOfDuplicates * 2));
+            duplicateIds[noOfDuplicates++] = id;
+        }
+        if (noOfTalks == durations.length) {
+            durations = Arrays.copyOf(durations, noOfTalks * 2);
+            titleRefs = Arrays.copyOf(titleRefs, noOfTalks * 2);
+        }
+        durations[noOfTalks] = durationInMinutes;
+        titleRefs[noOfTalks++] = titleRef;
+        return id;
+    }
+
+    public int getNoOfTalks() {
+        return noOfTalks;
+    }
+
+    /**
+     * Gets the number of distinct titles in the catalog
+     *
+     * @return the number of titles in the string table
+     */
+    public int getNoOfTitles() {
+        return noOfTitles;
+    }
+
+    /**
+     * Determines if there is a talk with an id in the catalog
+     *
+     * @param id the id of the talk
+     * @return true if the catalog holds a talk with the id
+     */
+    public boolean contains(final int id) {
+        return id >= FIRST_TALK_ID && id < FIRST_TALK_ID + noOfTalks;
+    }
+
+    public int getDurationInMinutes(final int id) {
+        return durations[indexOf(id)];
+    }
+
+    public String getTitle(final int id) {
+        return titles[titleRefs[indexOf(id)]];
+    }
+
+    /**
+     * Finds the first talk added with a title
+     *
+     * @param title the title of the talk
+     * @return the id of the talk, or -1 if there is no talk with the title
+     */
+    public int findId(final String title) {
+        int titleRef = titleIndex[findSlot(title)] - 1;
+        return titleRef < 0 ? -1 : firstIdOfTitle[titleRef];
+    }
+
+    /**
+     * Gets the ids of the talks that were added with a title that was already in the catalog
+     *
+     * @return the ids of the duplicate talks, in the order they were added
+     */
+    public int[] getDuplicateIds() {
+        return Arrays.copyOf(duplicateIds, noOfDuplicates);
+    }
+
+    /**
+     * Gets the duration of every talk, in the form taken by the bin packers. The duration
+     * of the talk with an id is at the index of the id less {@link #FIRST_TALK_ID}.
+     *
+     * @return the duration of each talk
+     */
+    public int[] getDurations() {
+        return Arrays.copyOf(durations, noOfTalks);
+    }
+
+    /**
+     * Creates an event object for a talk
+     *
+     * @param id the id of the talk
+     * @return an event holding the details of the talk
+     */
+    public Event getEvent(final int id) {
+        return new Event(id, getTitle(id), getDurationInMinutes(id));
+    }
+
+    /**
+     * Creates an event object for every talk in the catalog
+     *
+     * @return the events, in id order
+     */
+    public Event[] toEvents() {
+        Event[] events = new Event[noOfTalks];
+        for (int i = 0; i < noOfTalks; i++)
+            events[i] = new Event(FIRST_TALK_ID + i, titles[titleRefs[i]], durations[i]);
+        return events;
+    }
+
+    private int indexOf(final int id) {
+        if (!contains(id))
+            throw new IllegalArgumentException("There is no event with id " + id);
+        return id - FIRST_TALK_ID;
+    }
+
+    /**
+     * Gets the slot in the title index that holds a title, or the empty slot where it
+     * would be inserted
+     */
+    private int findSlot(final String title) {
+        int mask = titleIndex.length - 1;
+        int hash = title.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (titleIndex[slot] != 0 && !titles[titleIndex[slot] - 1].equals(title))
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Adds a title to the string table, growing the index once it is half full
+     */
+    private int addTitle(final String title, final int id, final int slot) {
+        if (noOfTitles == titles.length) {
+            titles = Arrays.copyOf(titles, noOfTitles * 2);
+            firstIdOfTitle = Arrays.copyOf(firstIdOfTitle, noOfTitles * 2);
+        }
+        int titleRef = noOfTitles++;
+        titles[titleRef] = title;
+        firstIdOfTitle[titleRef] = id;
+        titleIndex[slot] = titleRef + 1;
+        if (2 * noOfTitles > titleIndex.length) {
+            titleIndex = new int[titleIndex.length * 2];
+            for (int ref = 0; ref < noOfTitles; ref++)
+                titleIndex[findSlot(titles[ref])] = ref + 1;
+        }
+        return titleRef;
+    }
+}
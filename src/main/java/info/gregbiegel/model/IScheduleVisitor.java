@@ -0,0 +1,64 @@
+package info.gregbiegel.model;
+
+import java.io.IOException;
+
+/**
+ * Interface for visiting the scheduled events of a conference in program order:- track
+ * by track, session by session, and within each session in order of start time. Both the {@link Conference}
+ * and the {@link CompactConference} can be visited without building any intermediate
+ * representation of the program.
+ *
+ */
+public interface IScheduleVisitor {
+
+    /**
+     * Called once, before any track is visited
+     */
+    public void startConference() throws IOException;
+
+    /**
+     * Called before the events of a track are visited
+     *
+     * @param trackNo the number of the track, starting from 1
+     */
+    public void startTrack(int trackNo) throws IOException;
+
+    /**
+     * Called before the events of each session of a track are visited
+     *
+     * @param sessionNo the session number within the track, starting from 0
+     */
+    public void startSession(int sessionNo) throws IOException;
+
+    /**
+     * Called for each talk in the track
+     *
+     * @param eventId the id of the talk
+     * @param title the title of the talk
+     * @param durationInMinutes the duration of the talk
+     * @param startMinuteOfDay the minute of the day the talk starts at
+     */
+    public void visitTalk(int eventId, String title, int durationInMinutes, int startMinuteOfDay) throws IOException;
+
+    /**
+     * Called for each break in the track
+     *
+     * @param eventId the id of the break
+     * @param title the title of the break
+     * @param durationInMinutes the duration of the break
+     * @param startMinuteOfDay the minute of the day the break starts at
+     */
+    public void visitBreak(int eventId, String title, int durationInMinutes, int startMinuteOfDay) throws IOException;
+
+    /**
+     * Called after the events of a track have been visited
+     *
+     * @param trackNo the number of the track, starting from 1
+     */
+    public void endTrack(int trackNo) throws IOException;
+
+    /**
+     * Called once, after every track has been visited
+     */
+    public void endConference() throws IOException;
+}
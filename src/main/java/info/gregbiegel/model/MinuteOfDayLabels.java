@@ -0,0 +1,75 @@
+package info.gregbiegel.model;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The MinuteOfDayLabels class holds precomputed labels for each of the 1440 minutes of
+ * the day, so that times in the conference program are looked up rather than formatted
+ * each time they are output.
+ *
+ */
+public final class MinuteOfDayLabels {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Formatter for the time of an event in the conference program, e.g. 09:00AM
+     */
+    public static final DateTimeFormatter PROGRAM_FORMATTER = DateTimeFormatter.ofPattern("hh:mma");
+
+    private static final String[] PROGRAM_LABELS = new String[MINUTES_PER_DAY];
+    private static final String[] ISO_LABELS = new String[MINUTES_PER_DAY];
+
+    static {
+        DateTimeFormatter isoFormatter = DateTimeFormatter.ofPattern("HH:mm");
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            LocalTime time = toLocalTime(minute);
+            PROGRAM_LABELS[minute] = PROGRAM_FORMATTER.format(time);
+            ISO_LABELS[minute] = isoFormatter.format(time);
+        }
+    }
+
+    private MinuteOfDayLabels() {
+    }
+
+    /**
+     * Gets the label of a minute as it appears in the conference program, e.g. 01:30PM
+     *
+     * @param minuteOfDay the minute of the day, from 0 to 1439
+     * @return the label for the minute
+     */
+    public static String getProgramLabel(final int minuteOfDay) {
+        return PROGRAM_LABELS[minuteOfDay];
+    }
+
+    /**
+     * Gets the label of a minute in 24 hour ISO-8601 form, e.g. 13:30
+     *
+     * @param minuteOfDay the minute of the day, from 0 to 1439
+     * @return the label for the minute
+     */
+    public static String getIsoLabel(final int minuteOfDay) {
+        return ISO_LABELS[minuteOfDay];
+    }
+
+    /**
+     * Gets the minute of the day of a time
+     *
+     * @param time the time
+     * @return the number of whole minutes since midnight
+     */
+    public static int toMinuteOfDay(final LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Gets the time at the start of a minute of the day
+     *
+     * @param minuteOfDay the minute of the day, from 0 to 1439
+     * @return the time
+     */
+    public static LocalTime toLocalTime(final int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
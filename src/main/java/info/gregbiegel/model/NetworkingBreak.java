@@ -4,19 +4,29 @@ import java.time.LocalTime;
 
 /**
  * The NetworkingBreak class represents a scheduled networking event. The event
- * is defined as not being able to start before 4pm, and not being able to start 
- * after 5pm, and is defined as being 60 minutes long.
+ * is defined as being 60 minutes long, and by default as not being able to start 
+ * before 4pm, and not being able to start after 5pm.
  *
  */
 public class NetworkingBreak extends ScheduledBreak {
 
     private static final String NETWORKING_EVENT_TITLE = "Networking Event";
-    private static final int NETWORKING_DURATION_MINUTES = 60;
+    public static final int DURATION_IN_MINUTES = 60;
     public static final LocalTime EARLIEST_START_TIME = LocalTime.of(16, 0);
     public static final LocalTime LATEST_START_TIME = LocalTime.of(17, 0);
 
+    private final LocalTime earliestStartTime;
+    private final LocalTime latestStartTime;
+
     public NetworkingBreak(final LocalTime startTime) {
-        super(1, NETWORKING_EVENT_TITLE, NETWORKING_DURATION_MINUTES, startTime);
+        this(startTime, EARLIEST_START_TIME, LATEST_START_TIME);
+    }
+
+    public NetworkingBreak(final LocalTime startTime, final LocalTime earliestStartTime, 
+            final LocalTime latestStartTime) {
+        super(1, NETWORKING_EVENT_TITLE, DURATION_IN_MINUTES, startTime);
+        this.earliestStartTime = earliestStartTime;
+        this.latestStartTime = latestStartTime;
     }
 
     /*
@@ -24,7 +34,7 @@ public class NetworkingBreak extends ScheduledBreak {
      */
     @Override
     public LocalTime getEarliestStartTime() {
-        return EARLIEST_START_TIME;
+        return earliestStartTime;
     }
 
     /*
@@ -32,7 +42,7 @@ public class NetworkingBreak extends ScheduledBreak {
      */
     @Override
     public LocalTime getLatestStartTime() {
-        return LATEST_START_TIME;
+        return latestStartTime;
     }
 
 }
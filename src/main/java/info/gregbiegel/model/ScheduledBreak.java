@@ -29,7 +29,7 @@ public abstract class ScheduledBreak extends ScheduledEvent {
 
     @Override
     public String toString() {
-        return timeFormatter.format(startTime) + " " + getTitle();
+        return MinuteOfDayLabels.getProgramLabel(getStartMinuteOfDay()) + " " + getTitle();
     }
 
 }
@@ -1,7 +1,6 @@
 package info.gregbiegel.model;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * The ScheduledEvent abstract base class represents any scheduled event within a 
@@ -10,11 +9,6 @@ import java.time.format.DateTimeFormatter;
  */
 public abstract class ScheduledEvent extends Event implements Comparable<ScheduledEvent> {
 
-    /**
-     * Formatter used to format time when printing it to a string
-     */
-    protected final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("hh:mma");
-
     /**
      * The time this event is scheduled to start
      */
@@ -29,6 +23,10 @@ public abstract class ScheduledEvent extends Event implements Comparable<Schedul
         return startTime;
     }
 
+    public int getStartMinuteOfDay() {
+        return MinuteOfDayLabels.toMinuteOfDay(startTime);
+    }
+
     @Override
     public int compareTo(ScheduledEvent other) {
         return getStartTime().compareTo(other.getStartTime());
@@ -36,7 +34,8 @@ public abstract class ScheduledEvent extends Event implements Comparable<Schedul
 
     @Override
     public String toString() {
-        return timeFormatter.format(startTime) + " " + getTitle() + " " + getDurationInMinutes() + "m";
+        return MinuteOfDayLabels.getProgramLabel(getStartMinuteOfDay()) + " " + getTitle() + " " 
+                + getDurationInMinutes() + "m";
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
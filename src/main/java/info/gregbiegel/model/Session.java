@@ -1,5 +1,6 @@
 package info.gregbiegel.model;
 
+import java.time.Duration;
 import java.time.LocalTime;
 import java.util.*;
 
@@ -17,7 +18,7 @@ public abstract class Session {
     /**
      * A set of events that have been scheduled within the session
      */
-    private final SortedSet<ScheduledEvent> scheduledEvents = new TreeSet<ScheduledEvent>();
+    private final TreeSet<ScheduledEvent> scheduledEvents = new TreeSet<ScheduledEvent>();
     /**
      * The time at which the session is scheduled to start
      */
@@ -44,19 +45,13 @@ public abstract class Session {
      * to be the time of the last scheduled event within the session, plus the 
      * duration of the last scheduled event within the session. If the event to be 
      * scheduled is the last event of the day, additional events for lunch and
-     * networking are added to the session.
+     * networking are added to the session, as described in {@link #scheduleBreaks(TrackTemplate)}.
      * 
      * @param event the event to be scheduled within the session
      * @param isFinalEvent flag indicating whether this is the last event of the day
      */
     public void scheduleEventInSession(final Event event, final boolean isFinalEvent) throws ScheduleException {
-        LocalTime eventStartTime;
-        if (scheduledEvents.size() > 0) {
-            ScheduledEvent lastEvent = scheduledEvents.last();
-            eventStartTime = lastEvent.getStartTime().plusMinutes(lastEvent.getDurationInMinutes());
-        } else {
-            eventStartTime = getStartTime();
-        }
+        LocalTime eventStartTime = getScheduledTalksEndTime();
 
         if (isEnoughTimeForEvent(eventStartTime, event.getDurationInMinutes())) {
             scheduledEvents.add(new ScheduledTalk(event, eventStartTime));
@@ -67,15 +62,121 @@ public abstract class Session {
         //Add the break events only once all talks have been scheduled 
         //since the start time of the break is dependent on the track schedule
         if (isFinalEvent) {
-            LocalTime lastEventEndTime = scheduledEvents.last().getStartTime()
-                    .plusMinutes(scheduledEvents.last().getDurationInMinutes());
-            if (lastEventEndTime.isBefore(NetworkingBreak.EARLIEST_START_TIME)) {
-                scheduledEvents.add(new NetworkingBreak(NetworkingBreak.EARLIEST_START_TIME));
+            scheduleBreaks(getTrackTemplate());
+        }
+    }
+
+    /**
+     * Adds the lunch and networking breaks of a track layout to the session, for a session
+     * that is the final session of its track. The networking event starts at the earliest 
+     * permitted time if the talks in the session finish before then, otherwise it starts at
+     * the latest permitted time. Tracks place their breaks in the slots of their own template
+     * with {@link Track#updateBreaks()}, which should be preferred.
+     * 
+     * @param template the layout of the track the session belongs to
+     */
+    public void scheduleBreaks(final TrackTemplate template) {
+        addBreak(template.getNetworkingBreak(MinuteOfDayLabels.toMinuteOfDay(getScheduledTalksEndTime())));
+        if (template.hasLunchBreak())
+            addBreak(template.getLunchBreak());
+    }
+
+    /**
+     * Gets the layout of the track the session belongs to, whose breaks are added after
+     * the final event of the day
+     * 
+     * @return the template, which is the default layout unless the session was created by another
+     */
+    TrackTemplate getTrackTemplate() {
+        return TrackTemplate.getDefault();
+    }
+
+    /**
+     * Adds a break to the session, at the time it has been scheduled for
+     * 
+     * @param scheduledBreak the break to add
+     */
+    public void addBreak(final ScheduledBreak scheduledBreak) {
+        scheduledEvents.add(scheduledBreak);
+    }
+
+    /**
+     * Removes any breaks that have been added to the session
+     */
+    public void removeBreaks() {
+        scheduledEvents.removeIf(event -> event instanceof ScheduledBreak);
+    }
+
+    /**
+     * Returns true if at least one talk has been scheduled within the session
+     * 
+     * @return true if the session contains a talk
+     */
+    public boolean hasScheduledTalks() {
+        for (ScheduledEvent event : scheduledEvents)
+            if (!(event instanceof ScheduledBreak))
+                return true;
+        return false;
+    }
+
+    /**
+     * Gets the time at which the last talk in the session finishes, ignoring any breaks
+     * that have been added to the session. If no talks have been scheduled this is the 
+     * start time of the session.
+     * 
+     * @return the time at which the next talk in the session could start
+     */
+    public LocalTime getScheduledTalksEndTime() {
+        for (Iterator<ScheduledEvent> eventIter = scheduledEvents.descendingIterator(); 
+                eventIter.hasNext(); ) {
+            ScheduledEvent event = eventIter.next();
+            if (!(event instanceof ScheduledBreak))
+                return event.getStartTime().plusMinutes(event.getDurationInMinutes());
+        }
+        return getStartTime();
+    }
+
+    /**
+     * Gets the time left in the session after the last scheduled talk
+     * 
+     * @return the number of minutes remaining in the session
+     */
+    public int getRemainingMinutes() {
+        return getMaximumDurationInMinutes() 
+                - (int) Duration.between(getStartTime(), getScheduledTalksEndTime()).toMinutes();
+    }
+
+    /**
+     * Removes a talk from the session, and moves each of the talks that followed it 
+     * forward so that the session has no gaps.
+     * 
+     * @param eventId the id of the talk to remove
+     * @return true if the talk was found and removed
+     */
+    public boolean removeEvent(final int eventId) {
+        ScheduledEvent removed = null;
+        for (ScheduledEvent event : scheduledEvents) {
+            if (event.getId() == eventId && !(event instanceof ScheduledBreak)) {
+                removed = event;
+                break;
+            }
+        }
+        if (removed == null)
+            return false;
+        List<ScheduledEvent> following = new ArrayList<>(scheduledEvents.tailSet(removed));
+        scheduledEvents.removeAll(following);
+        LocalTime eventStartTime = removed.getStartTime();
+        for (ScheduledEvent event : following) {
+            if (event == removed)
+                continue;
+            if (event instanceof ScheduledBreak) {
+                scheduledEvents.add(event);
             } else {
-                scheduledEvents.add(new NetworkingBreak(NetworkingBreak.LATEST_START_TIME));
+                scheduledEvents.add(new ScheduledTalk(event, eventStartTime));
+                eventStartTime = eventStartTime.plusMinutes(event.getDurationInMinutes());
             }
-            scheduledEvents.add(new LunchBreak());
         }
+        return true;
     }
 
     /**
@@ -106,7 +207,7 @@ public abstract class Session {
 
     @Override
     public String toString() {
-        StringBuffer output = new StringBuffer();
+        StringBuilder output = new StringBuilder();
         for (Iterator<ScheduledEvent> eventIter = getScheduledEvents(); eventIter.hasNext(); ) {
             Event event = eventIter.next();
             output.append(event + "\n");
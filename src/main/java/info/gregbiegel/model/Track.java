@@ -1,8 +1,11 @@
 package info.gregbiegel.model;
 
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 
+import info.gregbiegel.service.exception.ScheduleException;
+
 /**
  * The Track class represents an individual track within a conference 
  *
@@ -14,10 +17,20 @@ public class Track {
      */
     private List<Session> sessions;
 
+    /**
+     * The layout of the track, which places its breaks, or null until it is first needed
+     */
+    private TrackTemplate template;
+
     public Track(final List<Session> sessions) {
         this.sessions = sessions;
     }
 
+    public Track(final List<Session> sessions, final TrackTemplate template) {
+        this.sessions = sessions;
+        this.template = template;
+    }
+
     public Session getSession(int index) {
         return sessions.get(index);
     }
@@ -28,11 +41,125 @@ public class Track {
 
     public void addSession(final Session session) {
         sessions.add(session);
+        template = null;
+    }
+
+    public int getNoOfSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Schedules an event in the first session of the track that has enough time remaining
+     * after its last talk, and then updates the breaks of the track.
+     * 
+     * @param event the event to schedule
+     * @return true if a session with enough time was found and the event scheduled
+     */
+    public boolean addEvent(final Event event) {
+        for (int sessionNo = 0; sessionNo < sessions.size(); sessionNo++)
+            if (sessions.get(sessionNo).getRemainingMinutes() >= event.getDurationInMinutes())
+                return addEvent(sessionNo, event);
+        return false;
+    }
+
+    /**
+     * Schedules an event after the last talk of a session, and then updates the breaks of
+     * the track.
+     * 
+     * @param sessionNo the session number within the track
+     * @param event the event to schedule
+     * @return true if the session had enough time remaining and the event was scheduled
+     */
+    public boolean addEvent(final int sessionNo, final Event event) {
+        Session session = sessions.get(sessionNo);
+        // Breaks are cleared first so that they cannot clash with the new talk
+        session.removeBreaks();
+        try {
+            session.scheduleEventInSession(event, false);
+        } catch (ScheduleException e) {
+            updateBreaks();
+            return false;
+        }
+        updateBreaks();
+        return true;
+    }
+
+    /**
+     * Removes a talk from the track, closing the gap it leaves in its session, and then
+     * updates the breaks of the track.
+     * 
+     * @param eventId the id of the talk to remove
+     * @return true if the talk was found in the track and removed
+     */
+    public boolean removeEvent(final int eventId) {
+        for (int sessionNo = 0; sessionNo < sessions.size(); sessionNo++)
+            if (removeEvent(sessionNo, eventId))
+                return true;
+        return false;
+    }
+
+    /**
+     * Removes a talk from a session of the track, closing the gap it leaves, and then 
+     * updates the breaks of the track.
+     * 
+     * @param sessionNo the session number within the track
+     * @param eventId the id of the talk to remove
+     * @return true if the talk was found in the session and removed
+     */
+    public boolean removeEvent(final int sessionNo, final int eventId) {
+        if (!sessions.get(sessionNo).removeEvent(eventId))
+            return false;
+        updateBreaks();
+        return true;
+    }
+
+    /**
+     * Recalculates the placement of the lunch and networking breaks in the slots of the
+     * track template. As when the track is first scheduled, the breaks are only added when 
+     * the final session of the track contains talks.
+     */
+    public void updateBreaks() {
+        for (Session session : sessions)
+            session.removeBreaks();
+        if (template == null)
+            template = TrackTemplate.of(sessions);
+        Session finalSession = sessions.get(template.getBreakSessionNo());
+        if (!finalSession.hasScheduledTalks())
+            return;
+        if (template.hasLunchBreak())
+            sessions.get(template.getLunchSessionNo()).addBreak(template.getLunchBreak());
+        finalSession.addBreak(template.getNetworkingBreak(
+                MinuteOfDayLabels.toMinuteOfDay(finalSession.getScheduledTalksEndTime())));
+    }
+
+    /**
+     * Visits the events of the track in order of their start time
+     * 
+     * @param trackNo the number of the track within the conference
+     * @param visitor the visitor to pass the events to
+     * @throws IOException if the visitor fails to write an event
+     */
+    public void accept(final int trackNo, final IScheduleVisitor visitor) throws IOException {
+        visitor.startTrack(trackNo);
+        int sessionNo = 0;
+        for (Session session : sessions) {
+            visitor.startSession(sessionNo++);
+            for (Iterator<ScheduledEvent> eventIter = session.getScheduledEvents(); eventIter.hasNext(); ) {
+                ScheduledEvent event = eventIter.next();
+                if (event instanceof ScheduledBreak)
+                    visitor.visitBreak(event.getId(), event.getTitle(), event.getDurationInMinutes(), 
+                            event.getStartMinuteOfDay());
+                else
+                    visitor.visitTalk(event.getId(), event.getTitle(), event.getDurationInMinutes(), 
+                            event.getStartMinuteOfDay());
+            }
+        }
+        visitor.endTrack(trackNo);
     }
 
     @Override
     public String toString() {
-        StringBuffer output = new StringBuffer();
+        StringBuilder output = new StringBuilder();
         for (Iterator<Session> sessionIter = getSessions(); sessionIter.hasNext(); ) {
             output.append(sessionIter.next().toString());
         }
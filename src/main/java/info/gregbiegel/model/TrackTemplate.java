@@ -0,0 +1,382 @@
+package info.gregbiegel.model;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * The TrackTemplate class describes the layout of every track of a conference: the start
+ * time, minimum and maximum duration of each session, and the slots of the lunch and
+ * networking breaks. The layout is compiled once into the arrays used by the bin packers
+ * and the compact model, and tracks are created from it as they are needed, so that the
+ * sessions tracks are packed into and the sessions they are materialised with always agree.
+ * <p>
+ * Lunch is a fixed slot that must fall between sessions, and is placed in the session that
+ * follows it. Unless it is given, lunch starts at the end of the first gap between sessions
+ * that is long enough to hold it, and a layout without such a gap has no lunch. The
+ * networking event follows the final session, starting at its earliest start time if the
+ * talks end before then and at its latest start time otherwise, which must not be before
+ * the end of the final session. By default it may start from 4pm, and at the latest at 5pm
+ * or the end of the final session if that is later.
+ * <p>
+ * A template can be compiled from a list of sessions, or read from properties of the form
+ * <pre>
+ * sessions=morning,afternoon
+ * morning.start=09:00
+ * morning.maximumDuration=180
+ * afternoon.start=13:00
+ * afternoon.minimumDuration=180
+ * afternoon.maximumDuration=240
+ * </pre>
+ * where the minimum duration of a session defaults to its maximum duration. The breaks
+ * may be placed with
+ * <pre>
+ * lunch.start=12:00
+ * networking.earliestStart=16:00
+ * networking.latestStart=17:00
+ * </pre>
+ * and a lunch start of {@code none} leaves lunch out of the program.
+ *
+ */
+public class TrackTemplate {
+
+    /**
+     * The property listing the names of the sessions of a track, in order
+     */
+    public static final String SESSIONS_PROPERTY = "sessions";
+
+    /**
+     * The property holding the start time of lunch, or {@link #NO_LUNCH}
+     */
+    public static final String LUNCH_START_PROPERTY = "lunch.start";
+
+    /**
+     * The property holding the earliest start time of the networking event
+     */
+    public static final String NETWORKING_EARLIEST_START_PROPERTY = "networking.earliestStart";
+
+    /**
+     * The property holding the latest start time of the networking event
+     */
+    public static final String NETWORKING_LATEST_START_PROPERTY = "networking.latestStart";
+
+    /**
+     * The value of the lunch start property for a program without lunch
+     */
+    public static final String NO_LUNCH = "none";
+
+    private static final TrackTemplate DEFAULT = new TrackTemplate(
+            Arrays.asList(new MorningSession(), new AfternoonSession()));
+
+    private final LocalTime[] startTimes;
+    private final int[] startMinutes;
+    private final int[] minimumDurations;
+    private final int[] maximumDurations;
+    private final int maximumDurationInMinutes;
+
+    /**
+     * The lunch break, or null if the program has no lunch
+     */
+    private final LunchBreak lunchBreak;
+    private final int lunchSessionNo;
+    private final NetworkingBreak earlyNetworkingBreak;
+    private final NetworkingBreak lateNetworkingBreak;
+
+    /**
+     * Compiles a template from the sessions of a track, with the default break slots
+     *
+     * @param sessions the sessions of each track, which supply the start time, minimum and
+     *  maximum duration of each session
+     */
+    public TrackTemplate(final List<Session> sessions) {
+        this(sessions, getDefaultLunchStartTime(sessions), NetworkingBreak.EARLIEST_START_TIME,
+                getDefaultNetworkingLatestStartTime(sessions));
+    }
+
+    /**
+     * Compiles a template from the sessions of a track and the slots of its breaks
+     *
+     * @param sessions the sessions of each track, which supply the start time, minimum and
+     *  maximum duration of each session
+     * @param lunchStartTime the time lunch starts, or null if the program has no lunch
+     * @param networkingEarliestStartTime the earliest time the networking event may start
+     * @param networkingLatestStartTime the latest time the networking event may start
+     * @throws IllegalArgumentException if a session does not fit within a day, lunch overlaps
+     *  a session or the networking event, or the networking event could overlap the final session
+     */
+    public TrackTemplate(final List<Session> sessions, final LocalTime lunchStartTime,
+            final LocalTime networkingEarliestStartTime, final LocalTime networkingLatestStartTime) {
+        if (sessions == null || sessions.isEmpty())
+            throw new IllegalArgumentException("A track must have at least one session");
+        int noOfSessions = sessions.size();
+        startTimes = new LocalTime[noOfSessions];
+        startMinutes = new int[noOfSessions];
+        minimumDurations = new int[noOfSessions];
+        maximumDurations = new int[noOfSessions];
+        int maximum = 0;
+        for (int sessionNo = 0; sessionNo < noOfSessions; sessionNo++) {
+            Session session = sessions.get(sessionNo);
+            startTimes[sessionNo] = session.getStartTime();
+            startMinutes[sessionNo] = MinuteOfDayLabels.toMinuteOfDay(session.getStartTime());
+            minimumDurations[sessionNo] = session.getMinimumDurationInMinutes();
+            maximumDurations[sessionNo] = session.getMaximumDurationInMinutes();
+            if (maximumDurations[sessionNo] <= 0 || minimumDurations[sessionNo] > maximumDurations[sessionNo]
+                    || startMinutes[sessionNo] + maximumDurations[sessionNo] > MinuteOfDayLabels.MINUTES_PER_DAY)
+                throw new IllegalArgumentException("Session " + sessionNo + " does not fit within a day");
+            maximum = Math.max(maximum, maximumDurations[sessionNo]);
+        }
+        maximumDurationInMinutes = maximum;
+
+        int finalSessionNo = noOfSessions - 1;
+        int networkingEarliest = MinuteOfDayLabels.toMinuteOfDay(networkingEarliestStartTime);
+        int networkingLatest = MinuteOfDayLabels.toMinuteOfDay(networkingLatestStartTime);
+        // A final session that ends at midnight is followed by networking at the last minute of the day
+        if (networkingEarliest > networkingLatest 
+                || networkingLatest < Math.min(getSessionEndMinute(finalSessionNo), MinuteOfDayLabels.MINUTES_PER_DAY - 1))
+            throw new IllegalArgumentException("The latest start of the networking event must not be before "
+                    + "its earliest start or the end of the final session");
+        earlyNetworkingBreak = new NetworkingBreak(networkingEarliestStartTime, networkingEarliestStartTime,
+                networkingLatestStartTime);
+        lateNetworkingBreak = new NetworkingBreak(networkingLatestStartTime, networkingEarliestStartTime,
+                networkingLatestStartTime);
+
+        if (lunchStartTime == null) {
+            lunchBreak = null;
+            lunchSessionNo = finalSessionNo;
+        } else {
+            int lunchStart = MinuteOfDayLabels.toMinuteOfDay(lunchStartTime);
+            int lunchEnd = lunchStart + LunchBreak.DURATION_IN_MINUTES;
+            if (lunchEnd > networkingEarliest)
+                throw new IllegalArgumentException("Lunch must end before the networking event can start");
+            int sessionAfterLunch = finalSessionNo;
+            for (int sessionNo = finalSessionNo; sessionNo >= 0; sessionNo--) {
+                if (lunchStart < getSessionEndMinute(sessionNo) && lunchEnd > startMinutes[sessionNo])
+                    throw new IllegalArgumentException("Lunch overlaps session " + sessionNo);
+                if (startMinutes[sessionNo] >= lunchEnd)
+                    sessionAfterLunch = sessionNo;
+            }
+            lunchBreak = new LunchBreak(lunchStartTime);
+            lunchSessionNo = sessionAfterLunch;
+        }
+    }
+
+    /**
+     * Gets the template that the sessions were created from, or compiles a template with
+     * the default break slots if they were not all created by {@link #createSessions()} of
+     * the same template. Callers that are given the sessions of a track use this, so that
+     * the break slots of a template are kept.
+     *
+     * @param sessions the sessions of each track
+     * @return the template of the sessions
+     */
+    public static TrackTemplate of(final List<Session> sessions) {
+        if (sessions != null && !sessions.isEmpty() && sessions.get(0) instanceof ConfiguredSession) {
+            TrackTemplate template = ((ConfiguredSession) sessions.get(0)).getTemplate();
+            boolean sameTemplate = template != null && template.getNoOfSessions() == sessions.size();
+            for (int sessionNo = 1; sameTemplate && sessionNo < sessions.size(); sessionNo++)
+                sameTemplate = sessions.get(sessionNo) instanceof ConfiguredSession
+                        && ((ConfiguredSession) sessions.get(sessionNo)).getTemplate() == template;
+            if (sameTemplate)
+                return template;
+        }
+        return new TrackTemplate(sessions);
+    }
+
+    /**
+     * Gets the start of the first gap between sessions that can hold lunch, and ends
+     * before the networking event can start
+     */
+    private static LocalTime getDefaultLunchStartTime(final List<Session> sessions) {
+        if (sessions == null)
+            return null;
+        int networkingEarliest = MinuteOfDayLabels.toMinuteOfDay(NetworkingBreak.EARLIEST_START_TIME);
+        for (int sessionNo = 0; sessionNo + 1 < sessions.size(); sessionNo++) {
+            Session session = sessions.get(sessionNo);
+            int gapStart = MinuteOfDayLabels.toMinuteOfDay(session.getStartTime()) 
+                    + session.getMaximumDurationInMinutes();
+            int gapEnd = MinuteOfDayLabels.toMinuteOfDay(sessions.get(sessionNo + 1).getStartTime());
+            if (gapEnd - gapStart >= LunchBreak.DURATION_IN_MINUTES 
+                    && gapStart + LunchBreak.DURATION_IN_MINUTES <= networkingEarliest)
+                return MinuteOfDayLabels.toLocalTime(gapStart);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the later of the default latest start of the networking event and the end of
+     * the final session
+     */
+    private static LocalTime getDefaultNetworkingLatestStartTime(final List<Session> sessions) {
+        if (sessions == null || sessions.isEmpty())
+            return NetworkingBreak.LATEST_START_TIME;
+        Session finalSession = sessions.get(sessions.size() - 1);
+        int finalSessionEnd = MinuteOfDayLabels.toMinuteOfDay(finalSession.getStartTime()) 
+                + finalSession.getMaximumDurationInMinutes();
+        int latest = Math.max(MinuteOfDayLabels.toMinuteOfDay(NetworkingBreak.LATEST_START_TIME), finalSessionEnd);
+        return MinuteOfDayLabels.toLocalTime(Math.min(latest, MinuteOfDayLabels.MINUTES_PER_DAY - 1));
+    }
+
+    private int getSessionEndMinute(final int sessionNo) {
+        return startMinutes[sessionNo] + maximumDurations[sessionNo];
+    }
+
+    /**
+     * Gets the template of a track made up of a morning and an afternoon session
+     *
+     * @return the default template
+     */
+    public static TrackTemplate getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Compiles a template from properties in the form described above
+     *
+     * @param properties the properties describing the sessions of a track
+     * @return the template
+     * @throws IllegalArgumentException if a session is missing or has an invalid value
+     */
+    public static TrackTemplate fromProperties(final Properties properties) {
+        String sessionNames = properties.getProperty(SESSIONS_PROPERTY);
+        if (sessionNames == null || sessionNames.trim().isEmpty())
+            throw new IllegalArgumentException("No " + SESSIONS_PROPERTY + " property in track template");
+        List<Session> sessions = new ArrayList<>();
+        for (String name : sessionNames.split(",")) {
+            name = name.trim();
+            String start = properties.getProperty(name + ".start");
+            String maximum = properties.getProperty(name + ".maximumDuration");
+            if (start == null || maximum == null)
+                throw new IllegalArgumentException("Session " + name + " has no start or maximumDuration property");
+            try {
+                int maximumDuration = Integer.parseInt(maximum.trim());
+                int minimumDuration = Integer.parseInt(properties.getProperty(name + ".minimumDuration", maximum).trim());
+                sessions.add(new ConfiguredSession(LocalTime.parse(start.trim()), minimumDuration, maximumDuration));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Session " + name + " has an invalid start or duration", e);
+            }
+        }
+        String lunchStart = properties.getProperty(LUNCH_START_PROPERTY);
+        String networkingEarliestStart = properties.getProperty(NETWORKING_EARLIEST_START_PROPERTY);
+        String networkingLatestStart = properties.getProperty(NETWORKING_LATEST_START_PROPERTY);
+        try {
+            return new TrackTemplate(sessions,
+                    lunchStart == null ? getDefaultLunchStartTime(sessions) 
+                            : NO_LUNCH.equalsIgnoreCase(lunchStart.trim()) ? null : LocalTime.parse(lunchStart.trim()),
+                    networkingEarliestStart == null ? NetworkingBreak.EARLIEST_START_TIME 
+                            : LocalTime.parse(networkingEarliestStart.trim()),
+                    networkingLatestStart == null ? getDefaultNetworkingLatestStartTime(sessions) 
+                            : LocalTime.parse(networkingLatestStart.trim()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("A break has an invalid start time", e);
+        }
+    }
+
+    /**
+     * Creates a new, empty track with a session for each session of the template
+     *
+     * @return the track
+     */
+    public Track createTrack() {
+        return new Track(createSessions(), this);
+    }
+
+    /**
+     * Creates a new, empty session for each session of the template
+     *
+     * @return the sessions, in order
+     */
+    public List<Session> createSessions() {
+        List<Session> sessions = new ArrayList<>(startTimes.length);
+        for (int sessionNo = 0; sessionNo < startTimes.length; sessionNo++)
+            sessions.add(new ConfiguredSession(startTimes[sessionNo], minimumDurations[sessionNo], 
+                    maximumDurations[sessionNo], this));
+        return sessions;
+    }
+
+    public int getNoOfSessions() {
+        return startTimes.length;
+    }
+
+    /**
+     * Gets the maximum duration of each session, which forms the pattern of bin sizes used
+     * when packing events into sessions
+     *
+     * @return the maximum duration of each session in minutes
+     */
+    public int[] getBinPattern() {
+        return maximumDurations.clone();
+    }
+
+    /**
+     * Gets the minute of the day each session starts at
+     *
+     * @return the start minute of each session
+     */
+    public int[] getSessionStartMinutes() {
+        return startMinutes.clone();
+    }
+
+    public int getSessionStartMinute(final int sessionNo) {
+        return startMinutes[sessionNo];
+    }
+
+    public int getMinimumDurationInMinutes(final int sessionNo) {
+        return minimumDurations[sessionNo];
+    }
+
+    public int getMaximumDurationInMinutes(final int sessionNo) {
+        return maximumDurations[sessionNo];
+    }
+
+    /**
+     * Gets the duration of the longest session, which is the longest talk that can be scheduled
+     *
+     * @return the maximum duration of any session in minutes
+     */
+    public int getMaximumDurationInMinutes() {
+        return maximumDurationInMinutes;
+    }
+
+    /**
+     * Gets the session the networking event is placed in, which is the final session of the
+     * track. A track only has breaks once this session contains talks.
+     *
+     * @return the session number of the networking event
+     */
+    public int getBreakSessionNo() {
+        return startTimes.length - 1;
+    }
+
+    public boolean hasLunchBreak() {
+        return lunchBreak != null;
+    }
+
+    /**
+     * Gets the lunch break, which starts at the same time in every track
+     *
+     * @return the lunch break, or null if the program has no lunch
+     */
+    public LunchBreak getLunchBreak() {
+        return lunchBreak;
+    }
+
+    /**
+     * Gets the session lunch is placed in, which is the first session after lunch
+     *
+     * @return the session number of the lunch break
+     */
+    public int getLunchSessionNo() {
+        return lunchSessionNo;
+    }
+
+    /**
+     * Gets the networking event of a track, which starts at its earliest start time if the
+     * talks of the final session end before then, and at its latest start time otherwise
+     *
+     * @param talksEndMinute the minute of the day that the talks of the final session end at
+     * @return the networking event
+     */
+    public NetworkingBreak getNetworkingBreak(final int talksEndMinute) {
+        return talksEndMinute < earlyNetworkingBreak.getStartMinuteOfDay() ? earlyNetworkingBreak : lateNetworkingBreak;
+    }
+}
@@ -0,0 +1,214 @@
+package info.gregbiegel.server;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.ConferenceServiceImpl;
+import info.gregbiegel.service.IConferenceService;
+import info.gregbiegel.service.binpack.BinPackType;
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.exception.ConferenceSchedulerException;
+import info.gregbiegel.service.exception.FileParserException;
+import info.gregbiegel.service.render.ScheduleFormat;
+
+/**
+ * An HTTP service that schedules conferences, built on the HTTP server of the JDK. A talk
+ * list in the format read by {@link IConferenceService#readTalkDataFromFile(String)} is
+ * posted to {@value #SCHEDULE_PATH}, and the conference program is written back in the
+ * response. The query parameters {@code algorithm}, the id or name of a {@link BinPackType},
+ * and {@code format}, the name of a {@link ScheduleFormat}, select how each request is
+ * scheduled and rendered, and a request naming an unknown algorithm or format is refused
+ * with 400. The talk list is parsed by the task that schedules it, within the timeout.
+ * <p>
+ * Requests run on virtual threads when the JVM supports them, and otherwise on a bounded
+ * pool of platform threads. At most a fixed number of conferences are scheduled at once,
+ * and requests beyond that are refused with 503 rather than queued. A request whose
+ * conference is not scheduled within the timeout is answered with 504, and its scheduling
+ * is cancelled, so that the abandoned packing stops and releases its slot.
+ *
+ */
+public class ScheduleHttpServer {
+
+    private static final Logger LOG = Logger.getLogger(ScheduleHttpServer.class.getName());
+
+    /**
+     * The path that talk lists are posted to
+     */
+    public static final String SCHEDULE_PATH = "/schedule";
+
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 64;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+    private final HttpServer server;
+    private final TrackTemplate trackTemplate;
+    private final Semaphore schedulingPermits;
+    private final long timeoutMillis;
+    private final ExecutorService requestExecutor;
+    private final ExecutorService schedulingExecutor;
+    private final boolean usingVirtualThreads;
+
+    /**
+     * Instantiates a new server, which does not accept requests until it is started
+     *
+     * @param address the address to listen on, with port 0 for any free port
+     * @param trackTemplate the layout of each track of every conference
+     * @param maxConcurrentRequests the number of conferences that may be scheduled at once
+     * @param timeoutMillis the time allowed to schedule each conference
+     * @throws IOException if the server cannot listen on the address
+     */
+    public ScheduleHttpServer(final InetSocketAddress address, final TrackTemplate trackTemplate,
+            final int maxConcurrentRequests, final long timeoutMillis) throws IOException {
+        if (maxConcurrentRequests <= 0)
+            throw new IllegalArgumentException("The number of concurrent requests must be positive");
+        this.trackTemplate = trackTemplate;
+        this.timeoutMillis = timeoutMillis;
+        schedulingPermits = new Semaphore(maxConcurrentRequests);
+        ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+        usingVirtualThreads = virtualThreadExecutor != null;
+        if (usingVirtualThreads) {
+            requestExecutor = virtualThreadExecutor;
+            schedulingExecutor = createVirtualThreadExecutor();
+        } else {
+            // Twice as many request threads as scheduling slots, so that refused requests are answered promptly
+            requestExecutor = Executors.newFixedThreadPool(2 * maxConcurrentRequests);
+            schedulingExecutor = Executors.newFixedThreadPool(maxConcurrentRequests);
+        }
+        server = HttpServer.create(address, 0);
+        server.createContext(SCHEDULE_PATH, this::handleSchedule);
+        server.setExecutor(requestExecutor);
+    }
+
+    public void start() {
+        server.start();
+        LOG.info("Listening on port " + getPort() + (usingVirtualThreads ? " using virtual threads" : ""));
+    }
+
+    /**
+     * Stops the server, waiting for requests in progress to finish
+     *
+     * @param delaySeconds the longest time to wait for requests in progress
+     */
+    public void stop(final int delaySeconds) {
+        server.stop(delaySeconds);
+        requestExecutor.shutdownNow();
+        schedulingExecutor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return usingVirtualThreads;
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread for each task, which is looked up
+     * reflectively so that the server also runs on JVMs without virtual threads
+     *
+     * @return the executor, or null if virtual threads are not available
+     */
+    static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void handleSchedule(final HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "Talk lists must be posted");
+                return;
+            }
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            BinPackType binPackType;
+            ScheduleFormat format;
+            try {
+                binPackType = parameters.containsKey("algorithm") 
+                        ? BinPackType.getForName(parameters.get("algorithm")) : BinPackType.NEXT_FIT;
+                format = parameters.containsKey("format") 
+                        ? ScheduleFormat.getForNameStrict(parameters.get("format")) : ScheduleFormat.TEXT;
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            if (!schedulingPermits.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Too many requests are being scheduled");
+                return;
+            }
+            CompletableFuture<Conference> result;
+            try {
+                // The body is read by the scheduling task, so that the timeout covers parsing it
+                IConferenceService conferenceService = new ConferenceServiceImpl(binPackType, schedulingExecutor);
+                result = conferenceService.scheduleConferenceAsync(exchange.getRequestBody(), 
+                        trackTemplate.createSessions(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis), 
+                        new CancellationToken());
+            } catch (RuntimeException e) {
+                schedulingPermits.release();
+                throw e;
+            }
+            result.whenComplete((conference, failure) -> schedulingPermits.release());
+            Conference conference = result.get();
+
+            exchange.getResponseHeaders().set("Content-Type", format.getContentType() + "; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), 
+                    StandardCharsets.UTF_8))) {
+                format.createRenderer(writer).render(conference);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FileParserException)
+                sendError(exchange, 400, e.getCause().getMessage() 
+                        + (e.getCause().getCause() != null ? ": " + e.getCause().getCause().getMessage() : ""));
+            else if (e.getCause() instanceof TimeoutException)
+                sendError(exchange, 504, "The conference was not scheduled within " + timeoutMillis + "ms");
+            else if (e.getCause() instanceof ConferenceSchedulerException)
+                sendError(exchange, 422, e.getCause().getMessage());
+            else
+                sendError(exchange, 500, "Failed to schedule the conference");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "The server is stopping");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sendError(final HttpExchange exchange, final int statusCode, final String message)
+            throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(final String query) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null)
+            return parameters;
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0)
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), "UTF-8"),
+                        URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+        }
+        return parameters;
+    }
+}
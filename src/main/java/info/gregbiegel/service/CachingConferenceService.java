@@ -0,0 +1,515 @@
+package info.gregbiegel.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.binpack.BinPackType;
+import info.gregbiegel.service.binpack.FeasibilityReport;
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.exception.*;
+import info.gregbiegel.service.render.ScheduleFormat;
+import info.gregbiegel.service.snapshot.*;
+
+/**
+ * The CachingConferenceService class is a decorator around another conference service,
+ * which caches the conferences it schedules so that the same talks are not scheduled
+ * against the same sessions more than once.
+ * <p>
+ * Results are addressed by their content: the key is a SHA-256 hash of the id, title and
+ * duration of every talk taken in a canonical order, the bin packing algorithm of the
+ * delegate, and the start time and maximum duration of every session. Each result is held as a
+ * {@link ScheduleSnapshot}, in memory up to a bounded total size with the least recently
+ * used results evicted first, and optionally in a directory on disk, from which results
+ * are memory-mapped on a miss in memory. A new conference is created from the snapshot
+ * for every caller, so a caller that changes its conference does not change the cache.
+ * <p>
+ * Concurrent requests for the same key are coalesced, so that the conference is only
+ * scheduled once and the other requests wait for its result. Asynchronous requests are
+ * answered from the cache when they hit, but are not coalesced on a miss, so that one
+ * caller cancelling its request never cancels the request of another.
+ *
+ */
+public class CachingConferenceService implements IConferenceService {
+
+    private static final Logger LOG = Logger.getLogger(CachingConferenceService.class.getName());
+    private static final String SNAPSHOT_SUFFIX = ".snp";
+
+    /**
+     * Orders talks canonically, so that the key does not depend on the order of the input
+     */
+    private static final Comparator<Event> CANONICAL_ORDER = Comparator.comparing(Event::getTitle)
+            .thenComparingInt(Event::getDurationInMinutes)
+            .thenComparingInt(Event::getId);
+
+    /**
+     * Schedules a conference on a cache miss
+     */
+    private interface IScheduler {
+        Conference schedule() throws ConferenceSchedulerException;
+    }
+
+    private final IConferenceService delegate;
+    private final BinPackType binPackType;
+    private final long maximumSizeInBytes;
+    private final Path cacheDirectory;
+
+    /**
+     * The results held in memory, in order of last access
+     */
+    private final LinkedHashMap<String, ScheduleSnapshot> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;
+
+    /**
+     * The result of each conference that is being scheduled, which identical requests wait for
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<ScheduleSnapshot>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong diskHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Instantiates a new object that caches results in memory only
+     *
+     * @param delegate the service that schedules conferences on a miss, whose bin packing
+     *  algorithm is part of the key of every result
+     * @param maximumSizeInBytes the total size of the results held in memory
+     */
+    public CachingConferenceService(final ConferenceServiceImpl delegate, final long maximumSizeInBytes) {
+        this(delegate, maximumSizeInBytes, null);
+    }
+
+    /**
+     * Instantiates a new object that caches results in memory and on disk
+     *
+     * @param delegate the service that schedules conferences on a miss, whose bin packing
+     *  algorithm is part of the key of every result
+     * @param maximumSizeInBytes the total size of the results held in memory
+     * @param cacheDirectory the directory results are written to, or null to cache in memory only
+     */
+    public CachingConferenceService(final ConferenceServiceImpl delegate, final long maximumSizeInBytes,
+            final Path cacheDirectory) {
+        this.delegate = delegate;
+        this.binPackType = delegate.getBinPackType();
+        this.maximumSizeInBytes = maximumSizeInBytes;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getDiskHitCount() {
+        return diskHitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Gets the total size of the results held in memory
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConference(java.util.
+     * Set, java.util.List)
+     */
+    @Override
+    public Conference scheduleConference(final Set<Event> events, final List<Session> sessions)
+            throws ConferenceSchedulerException {
+        if (events == null || events.size() == 0 || sessions == null || sessions.size() == 0)
+            return delegate.scheduleConference(events, sessions);
+        String key = getKey(events.toArray(new Event[events.size()]), sessions);
+        return toConference(getOrSchedule(key, () -> delegate.scheduleConference(events, sessions)), sessions);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConference(info.gregbiegel.
+     * model.EventCatalog, java.util.List)
+     */
+    @Override
+    public Conference scheduleConference(final EventCatalog catalog, final List<Session> sessions)
+            throws ConferenceSchedulerException {
+        if (catalog == null || catalog.getNoOfTalks() == 0 || sessions == null || sessions.size() == 0)
+            return delegate.scheduleConference(catalog, sessions);
+        String key = getKey(catalog.toEvents(), sessions);
+        return toConference(getOrSchedule(key, () -> delegate.scheduleConference(catalog, sessions)), sessions);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConferenceAsync(java.util.
+     * Set, java.util.List, long, info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public CompletableFuture<Conference> scheduleConferenceAsync(final Set<Event> events, final List<Session> sessions,
+            final long deadlineNanos, final CancellationToken cancellationToken) {
+        if (events == null || events.size() == 0 || sessions == null || sessions.size() == 0)
+            return delegate.scheduleConferenceAsync(events, sessions, deadlineNanos, cancellationToken);
+        String key = getKey(events.toArray(new Event[events.size()]), sessions);
+        ScheduleSnapshot snapshot = get(key);
+        if (snapshot != null) {
+            hitCount.incrementAndGet();
+        } else if ((snapshot = readFromDisk(key)) != null) {
+            diskHitCount.incrementAndGet();
+            put(key, snapshot);
+        }
+        if (snapshot != null) {
+            CompletableFuture<Conference> result = new CompletableFuture<>();
+            try {
+                result.complete(toConference(snapshot, sessions));
+            } catch (ConferenceSchedulerException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+
+        missCount.incrementAndGet();
+        CompletableFuture<Conference> scheduled = 
+                delegate.scheduleConferenceAsync(events, sessions, deadlineNanos, cancellationToken);
+        CompletableFuture<Conference> result = scheduled.thenApply(conference -> {
+            ScheduleSnapshot scheduledSnapshot = ScheduleSnapshotWriter.snapshot(conference);
+            put(key, scheduledSnapshot);
+            writeToDisk(key, scheduledSnapshot);
+            return conference;
+        });
+        // A dependent future does not pass its cancellation back, so it is passed on here to stop the scheduling
+        result.whenComplete((conference, failure) -> {
+            if (result.isCancelled())
+                scheduled.cancel(false);
+        });
+        return result;
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConferenceAsync(java.lang.
+     * String, java.util.List, long, info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public CompletableFuture<Conference> scheduleConferenceAsync(final String fileName, final List<Session> sessions,
+            final long deadlineNanos, final CancellationToken cancellationToken) {
+        // The key depends on the talks, which are only known once the file has been read
+        return delegate.scheduleConferenceAsync(fileName, sessions, deadlineNanos, cancellationToken);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConferenceAsync(java.io.
+     * InputStream, java.util.List, long, info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public CompletableFuture<Conference> scheduleConferenceAsync(final InputStream input, 
+            final List<Session> sessions, final long deadlineNanos, final CancellationToken cancellationToken) {
+        // The key depends on the talks, which are only known once the stream has been read
+        return delegate.scheduleConferenceAsync(input, sessions, deadlineNanos, cancellationToken);
+    }
+
+    /**
+     * Creates a new conference from a cached result, so that callers never share a conference
+     */
+    private static Conference toConference(final ScheduleSnapshot snapshot, final List<Session> sessions) 
+            throws ConferenceSchedulerException {
+        try {
+            return snapshot.toConference(TrackTemplate.of(sessions)::createTrack);
+        } catch (ScheduleException e) {
+            throw new ConferenceSchedulerException(e);
+        }
+    }
+
+    /**
+     * Gets the result for a key from memory or disk, or schedules the conference if there is
+     * no result yet. Only one caller schedules the conference for a key at a time.
+     */
+    private ScheduleSnapshot getOrSchedule(final String key, final IScheduler scheduler)
+            throws ConferenceSchedulerException {
+        ScheduleSnapshot snapshot = get(key);
+        if (snapshot != null) {
+            hitCount.incrementAndGet();
+            return snapshot;
+        }
+        CompletableFuture<ScheduleSnapshot> result = new CompletableFuture<>();
+        CompletableFuture<ScheduleSnapshot> existing = inFlight.putIfAbsent(key, result);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            return join(existing);
+        }
+        try {
+            snapshot = get(key); // It may have been added after the first check
+            if (snapshot != null) {
+                hitCount.incrementAndGet();
+            } else if ((snapshot = readFromDisk(key)) != null) {
+                diskHitCount.incrementAndGet();
+                put(key, snapshot);
+            } else {
+                missCount.incrementAndGet();
+                snapshot = ScheduleSnapshotWriter.snapshot(scheduler.schedule());
+                put(key, snapshot);
+                writeToDisk(key, snapshot);
+            }
+            result.complete(snapshot);
+            return snapshot;
+        } catch (ConferenceSchedulerException | RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private static ScheduleSnapshot join(final CompletableFuture<ScheduleSnapshot> result)
+            throws ConferenceSchedulerException {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ConferenceSchedulerException)
+                throw (ConferenceSchedulerException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private synchronized ScheduleSnapshot get(final String key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Adds a result to memory, evicting the least recently used results until the total
+     * size is within the bound
+     */
+    private synchronized void put(final String key, final ScheduleSnapshot snapshot) {
+        ScheduleSnapshot previous = cache.put(key, snapshot);
+        if (previous != null)
+            sizeInBytes -= previous.getSizeInBytes();
+        sizeInBytes += snapshot.getSizeInBytes();
+        for (Iterator<ScheduleSnapshot> eldest = cache.values().iterator();
+                sizeInBytes > maximumSizeInBytes && eldest.hasNext(); ) {
+            sizeInBytes -= eldest.next().getSizeInBytes();
+            eldest.remove();
+        }
+    }
+
+    private ScheduleSnapshot readFromDisk(final String key) {
+        if (cacheDirectory == null)
+            return null;
+        Path file = cacheDirectory.resolve(key + SNAPSHOT_SUFFIX);
+        if (!Files.isRegularFile(file))
+            return null;
+        try {
+            return ScheduleSnapshot.open(file);
+        } catch (IOException e) {
+            LOG.warning("Ignoring unreadable cached schedule " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(final String key, final ScheduleSnapshot snapshot) {
+        if (cacheDirectory == null)
+            return;
+        try {
+            // Write to a temporary file first so that readers never map a partial snapshot
+            Path file = Files.createTempFile(Files.createDirectories(cacheDirectory), key, SNAPSHOT_SUFFIX);
+            snapshot.writeTo(file);
+            Files.move(file, cacheDirectory.resolve(key + SNAPSHOT_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warning("Could not write cached schedule " + key + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Computes the content address of a request
+     */
+    private String getKey(final Event[] events, final List<Session> sessions) {
+        Event[] canonicalEvents = events.clone();
+        Arrays.sort(canonicalEvents, CANONICAL_ORDER);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update(binPackType.name().getBytes(StandardCharsets.UTF_8));
+        updateInt(digest, sessions.size());
+        for (Session session : sessions) {
+            updateInt(digest, MinuteOfDayLabels.toMinuteOfDay(session.getStartTime()));
+            updateInt(digest, session.getMaximumDurationInMinutes());
+        }
+        // The breaks are part of the cached program, so their slots are part of the key
+        TrackTemplate template = TrackTemplate.of(sessions);
+        NetworkingBreak networkingBreak = template.getNetworkingBreak(0);
+        updateInt(digest, template.hasLunchBreak() ? template.getLunchBreak().getStartMinuteOfDay() : -1);
+        updateInt(digest, MinuteOfDayLabels.toMinuteOfDay(networkingBreak.getEarliestStartTime()));
+        updateInt(digest, MinuteOfDayLabels.toMinuteOfDay(networkingBreak.getLatestStartTime()));
+        updateInt(digest, canonicalEvents.length);
+        for (Event event : canonicalEvents) {
+            byte[] title = event.getTitle().getBytes(StandardCharsets.UTF_8);
+            updateInt(digest, event.getId());
+            updateInt(digest, event.getDurationInMinutes());
+            updateInt(digest, title.length);
+            digest.update(title);
+        }
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest())
+            key.append(String.format("%02x", b));
+        return key.toString();
+    }
+
+    private static void updateInt(final MessageDigest digest, final int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#readTalkDataFromFile(java.lang
+     * .String)
+     */
+    @Override
+    public Set<Event> readTalkDataFromFile(final String fileName) throws FileParserException {
+        return delegate.readTalkDataFromFile(fileName);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#readTalkData(java.io.InputStream)
+     */
+    @Override
+    public Set<Event> readTalkData(final InputStream input) throws FileParserException {
+        return delegate.readTalkData(input);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#readEventCatalogFromFile(java.lang
+     * .String)
+     */
+    @Override
+    public EventCatalog readEventCatalogFromFile(final String fileName) throws FileParserException {
+        return delegate.readEventCatalogFromFile(fileName);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#convertTalkDataFile(java.lang
+     * .String, java.lang.String)
+     */
+    @Override
+    public int convertTalkDataFile(final String fileName, final String catalogFileName) throws FileParserException {
+        return delegate.convertTalkDataFile(fileName, catalogFileName);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#writeSnapshot(info.gregbiegel
+     * .model.Conference, java.lang.String)
+     */
+    @Override
+    public void writeSnapshot(final Conference conference, final String fileName) throws FileParserException {
+        delegate.writeSnapshot(conference, fileName);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#readSnapshot(java.lang.String)
+     */
+    @Override
+    public ScheduleSnapshot readSnapshot(final String fileName) throws FileParserException {
+        return delegate.readSnapshot(fileName);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleCompactConference(info.gregbiegel.
+     * model.EventCatalog, java.util.List)
+     */
+    @Override
+    public CompactConference scheduleCompactConference(final EventCatalog catalog, final List<Session> sessions)
+            throws ConferenceSchedulerException {
+        return delegate.scheduleCompactConference(catalog, sessions);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConference(java.io.
+     * InputStream, java.io.Writer, java.util.List)
+     */
+    @Override
+    public int scheduleConference(final InputStream input, final Writer output, final List<Session> sessions)
+            throws FileParserException, ConferenceSchedulerException {
+        return delegate.scheduleConference(input, output, sessions);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConference(java.io.
+     * InputStream, java.io.Writer, java.util.List, info.gregbiegel.service.render.ScheduleFormat)
+     */
+    @Override
+    public int scheduleConference(final InputStream input, final Writer output, final List<Session> sessions,
+            final ScheduleFormat format) throws FileParserException, ConferenceSchedulerException {
+        return delegate.scheduleConference(input, output, sessions, format);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#analyzeEvents(java.util.
+     * Set, java.util.List)
+     */
+    @Override
+    public FeasibilityReport analyzeEvents(final Set<Event> events, final List<Session> sessions)
+            throws ConferenceSchedulerException {
+        return delegate.analyzeEvents(events, sessions);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#addTalk(info.gregbiegel.model.
+     * Conference, info.gregbiegel.model.Event)
+     */
+    @Override
+    public Track addTalk(final Conference conference, final Event event) throws ConferenceSchedulerException {
+        return delegate.addTalk(conference, event);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#removeTalk(info.gregbiegel.model.
+     * Conference, int)
+     */
+    @Override
+    public Track removeTalk(final Conference conference, final int eventId) throws ConferenceSchedulerException {
+        return delegate.removeTalk(conference, eventId);
+    }
+}
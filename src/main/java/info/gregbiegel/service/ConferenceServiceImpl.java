@@ -1,16 +1,24 @@
 package info.gregbiegel.service;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.function.Consumer;
+import java.util.concurrent.*;
 import java.util.logging.Logger;
-import java.util.stream.Stream;
 
 import info.gregbiegel.model.*;
 import info.gregbiegel.service.binpack.*;
+import info.gregbiegel.service.catalog.*;
+import info.gregbiegel.service.concurrent.CancellationToken;
 import info.gregbiegel.service.exception.*;
+import info.gregbiegel.service.jfr.*;
+import info.gregbiegel.service.metrics.*;
+import info.gregbiegel.service.parser.*;
+import info.gregbiegel.service.render.*;
+import info.gregbiegel.service.snapshot.*;
 
 public class ConferenceServiceImpl implements IConferenceService {
 
@@ -19,6 +27,34 @@ public class ConferenceServiceImpl implements IConferenceService {
     private static final String TIME_SUFFIX = "min";
     private static final int LIGHTNING_TALK_TIME = 5;
 
+    /**
+     * The size of input file above which the file is read on all cores
+     */
+    private static final long PARALLEL_READ_THRESHOLD = 32 << 20;
+
+    /**
+     * The number of talks read from a talk catalog between polls of the cancellation token, less one
+     */
+    private static final int CANCELLATION_CHECK_MASK = 0xFFF;
+
+    /**
+     * Completes the futures of asynchronous requests whose deadline expires before their
+     * work reaches its next poll of the cancellation token
+     */
+    private static final ScheduledExecutorService DEADLINE_TIMER = createDeadlineTimer();
+
+    /**
+     * Schedules a conference for an asynchronous request, polling the cancellation token
+     */
+    private interface ICancellableTask {
+        Conference run(CancellationToken cancellationToken) throws FileParserException, ConferenceSchedulerException;
+    }
+
+    /**
+     * The bin packing algorithm selected at instantiation
+     */
+    private final BinPackType binPackType;
+
     /**
      * A reference to a specific implementation of the bin packer factory
      * interface
@@ -30,19 +66,53 @@ public class ConferenceServiceImpl implements IConferenceService {
      */
     private final IBinPacker binPacker;
 
+    /**
+     * The packing workspace of each thread that schedules compact conferences, whose scratch
+     * arrays are reused by every packing on the thread
+     */
+    private final ThreadLocal<PackingWorkspace> packingWorkspaces = ThreadLocal.withInitial(PackingWorkspace::new);
+
+    /**
+     * Creates the tracks of a conference from the packed sessions
+     */
+    private final ParallelTrackMaterializer trackMaterializer = new ParallelTrackMaterializer();
+
+    /**
+     * Runs the asynchronous requests
+     */
+    private final Executor asyncExecutor;
+
+    /**
+     * Records the phases of scheduling with the bin packing algorithm
+     */
+    private final SchedulingMetrics metrics;
+
     /**
      * Instantiates a new object, using the default bin packing algorithm (next
      * fit)
      */
     public ConferenceServiceImpl() {
-        binPackerFactory = new NextFitBinPackerFactory();
-        binPacker = binPackerFactory.createBinPacker();
+        this(BinPackType.NEXT_FIT);
     }
 
     /**
-     * Instantiates a new object using the selected bin packing algorithm
+     * Instantiates a new object using the selected bin packing algorithm, which runs
+     * asynchronous requests on the common fork/join pool
      */
     public ConferenceServiceImpl(final BinPackType binPackType) {
+        this(binPackType, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a new object using the selected bin packing algorithm
+     * 
+     * @param binPackType the bin packing algorithm
+     * @param asyncExecutor the executor that asynchronous requests are run on
+     */
+    public ConferenceServiceImpl(final BinPackType binPackType, final Executor asyncExecutor) {
+        this.binPackType = binPackType;
+        this.asyncExecutor = asyncExecutor;
+        this.metrics = SchedulingMetricsRegistry.getDefault().getMetrics(binPackType);
         LOG.fine("Instantiated with bin pack algorithm " + binPackType);
         switch (binPackType) {
         case NEXT_FIT:
@@ -51,12 +121,34 @@ public class ConferenceServiceImpl implements IConferenceService {
         case FIRST_FIT:
             binPackerFactory = new FirstFitBinPackerFactory();
             break;
+        case INDEXED_FIRST_FIT:
+            binPackerFactory = new IndexedFirstFitBinPackerFactory();
+            break;
+        case FIRST_FIT_DECREASING:
+            binPackerFactory = new FirstFitDecreasingBinPackerFactory();
+            break;
+        case BEST_FIT_DECREASING:
+            binPackerFactory = new BestFitDecreasingBinPackerFactory();
+            break;
+        case BRANCH_AND_BOUND:
+            binPackerFactory = new BranchAndBoundBinPackerFactory();
+            break;
+        case PORTFOLIO:
+            binPackerFactory = new PortfolioBinPackerFactory();
+            break;
+        case HISTOGRAM:
+            binPackerFactory = new HistogramBinPackerFactory();
+            break;
         default:
             binPackerFactory = new NextFitBinPackerFactory();
         }
         binPacker = binPackerFactory.createBinPacker();
     }
 
+    public BinPackType getBinPackType() {
+        return binPackType;
+    }
+
     /*
      * @see
      * info.gregbiegel.service.IConferenceService#readTalkDataFromFile(java.lang
@@ -64,23 +156,158 @@ public class ConferenceServiceImpl implements IConferenceService {
      */
     @Override
     public Set<Event> readTalkDataFromFile(final String fileName) throws FileParserException {
+        return readTalkDataFromFile(fileName, new CancellationToken());
+    }
+
+    private Set<Event> readTalkDataFromFile(final String fileName, final CancellationToken cancellationToken)
+            throws FileParserException {
         LOG.fine("Reading input file " + fileName);
+        long start = System.nanoTime();
         Set<Event> result = new HashSet<>();
-        try (Stream<String> stream = Files.lines(Paths.get(fileName))) {
-            stream.forEach(new Consumer<String>() {
-                int id = 2; // Id 0 and 1 are reserved for break events
-                public void accept(String line) {
-                    LOG.fine("Read line " + line);
-                    if (!isStringBlankOrNull(line))
-                        result.add(parseTalkString(id++, line));
-                }
-            });
+        try {
+            readTalkData(Paths.get(fileName), 
+                    (id, title, durationInMinutes) -> result.add(new Event(id, title, durationInMinutes)),
+                    cancellationToken);
         } catch (IOException | EventParserException e) {
             throw new FileParserException("Error reading event data from file", e);
         }
+        metrics.recordParse(result.size(), System.nanoTime() - start);
+        return result;
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#readTalkData(java.io.InputStream)
+     */
+    @Override
+    public Set<Event> readTalkData(final InputStream input) throws FileParserException {
+        return readTalkData(input, new CancellationToken());
+    }
+
+    private Set<Event> readTalkData(final InputStream input, final CancellationToken cancellationToken)
+            throws FileParserException {
+        long start = System.nanoTime();
+        ParseEvent parseEvent = FlightRecorderSupport.AVAILABLE ? new ParseEvent() : null;
+        Set<Event> result = new HashSet<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        int id = 2; // Id 0 and 1 are reserved for break events
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                cancellationToken.throwIfCancelled();
+                if (!isStringBlankOrNull(line))
+                    result.add(parseTalkString(id++, line));
+            }
+        } catch (IOException | EventParserException e) {
+            throw new FileParserException("Error reading event data from stream", e);
+        }
+        if (parseEvent != null)
+            parseEvent.commit(-1, 1, result.size());
+        metrics.recordParse(result.size(), System.nanoTime() - start);
         return result;
     }
 
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#readEventCatalogFromFile(java.lang
+     * .String)
+     */
+    @Override
+    public EventCatalog readEventCatalogFromFile(final String fileName) throws FileParserException {
+        LOG.fine("Reading input file " + fileName + " into an event catalog");
+        long start = System.nanoTime();
+        EventCatalog catalog = new EventCatalog();
+        try {
+            readTalkData(Paths.get(fileName), (id, title, durationInMinutes) -> catalog.add(title, durationInMinutes),
+                    new CancellationToken());
+        } catch (IOException | EventParserException e) {
+            throw new FileParserException("Error reading event data from file", e);
+        }
+        metrics.recordParse(catalog.getNoOfTalks(), System.nanoTime() - start);
+        int[] duplicateIds = catalog.getDuplicateIds();
+        if (duplicateIds.length > 0)
+            LOG.warning(duplicateIds.length + " events have the same title as an earlier event, the first is event " 
+                    + duplicateIds[0] + " '" + catalog.getTitle(duplicateIds[0]) + "'");
+        return catalog;
+    }
+
+    /**
+     * Reads the talks in a talk data file, or a talk catalog, passing each to a handler
+     * in the order that they appear in the file, until the cancellation token is cancelled
+     */
+    private void readTalkData(final Path file, final ITalkHandler handler, final CancellationToken cancellationToken)
+            throws IOException {
+        TalkFileReadEvent readEvent = FlightRecorderSupport.AVAILABLE ? new TalkFileReadEvent() : null;
+        long size = Files.size(file);
+        // Id 0 and 1 are reserved for break events
+        if (TalkCatalog.isTalkCatalog(file)) {
+            TalkCatalog catalog = TalkCatalog.open(file);
+            for (int i = 0; i < catalog.getNoOfTalks(); i++) {
+                if ((i & CANCELLATION_CHECK_MASK) == 0)
+                    cancellationToken.throwIfCancelled();
+                handler.onTalk(catalog.getId(i), catalog.getTitle(i), catalog.getDurationInMinutes(i));
+            }
+            if (readEvent != null)
+                readEvent.commit(file.toString(), size, "catalog", catalog.getNoOfTalks());
+        } else if (size >= PARALLEL_READ_THRESHOLD) {
+            List<Event> events = new ParallelTalkFileReader().read(file, 2, cancellationToken);
+            for (Event event : events)
+                handler.onTalk(event.getId(), event.getTitle(), event.getDurationInMinutes());
+            if (readEvent != null)
+                readEvent.commit(file.toString(), size, "parallel", events.size());
+        } else {
+            int nextId = new MappedTalkFileParser(MappedTalkFileParser.DEFAULT_WINDOW_SIZE, cancellationToken)
+                    .parse(file, 2, handler);
+            if (readEvent != null)
+                readEvent.commit(file.toString(), size, "mapped", nextId - 2);
+        }
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#convertTalkDataFile(java.lang
+     * .String, java.lang.String)
+     */
+    @Override
+    public int convertTalkDataFile(final String fileName, final String catalogFileName) throws FileParserException {
+        LOG.fine("Converting input file " + fileName + " to talk catalog " + catalogFileName);
+        try {
+            // Id 0 and 1 are reserved for break events
+            return TalkCatalogWriter.convert(Paths.get(fileName), Paths.get(catalogFileName), 2);
+        } catch (IOException | EventParserException e) {
+            throw new FileParserException("Error converting event data file", e);
+        }
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#writeSnapshot(info.gregbiegel
+     * .model.Conference, java.lang.String)
+     */
+    @Override
+    public void writeSnapshot(final Conference conference, final String fileName) throws FileParserException {
+        LOG.fine("Writing schedule snapshot " + fileName);
+        try {
+            ScheduleSnapshotWriter.write(Paths.get(fileName), conference);
+        } catch (IOException e) {
+            throw new FileParserException("Error writing schedule snapshot", e);
+        }
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#readSnapshot(java.lang.String)
+     */
+    @Override
+    public ScheduleSnapshot readSnapshot(final String fileName) throws FileParserException {
+        LOG.fine("Reading schedule snapshot " + fileName);
+        try {
+            return ScheduleSnapshot.open(Paths.get(fileName));
+        } catch (IOException e) {
+            throw new FileParserException("Error reading schedule snapshot", e);
+        }
+    }
+
     /*
      * @see
      * info.gregbiegel.service.IConferenceService#scheduleConference(java.util.
@@ -89,44 +316,377 @@ public class ConferenceServiceImpl implements IConferenceService {
     @Override
     public Conference scheduleConference(final Set<Event> events, final List<Session> sessions)
             throws ConferenceSchedulerException {
+        return scheduleConference(events, sessions, new CancellationToken());
+    }
+
+    private Conference scheduleConference(final Set<Event> events, final List<Session> sessions,
+            final CancellationToken cancellationToken) throws ConferenceSchedulerException {
         if (events == null || events.size() == 0 || sessions == null || sessions.size() == 0)
             throw new ConferenceSchedulerException("No events or no sessions provided to scheduler");
-        if (!areEventsSchedulable(events, sessions)) 
+        TrackTemplate template = TrackTemplate.of(sessions);
+        FeasibilityReport report = FeasibilityAnalyzer.analyze(events, template.getBinPattern());
+        if (!report.isFeasible()) 
             throw new ConferenceSchedulerException("There is an event that is longer than the available sessions");
 
-        Conference conference = new Conference();
-        int[] sessionPattern = new int[sessions.size()];
-        int sessionPatternIndex = 0;
+        return scheduleEvents(events.toArray(new Event[events.size()]), template, report, cancellationToken);
+    }
 
-        for (Iterator<Session> sessionIter = sessions.iterator(); sessionIter.hasNext();)
-            sessionPattern[sessionPatternIndex++] = sessionIter.next().getMaximumDurationInMinutes();
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConferenceAsync(java.util.
+     * Set, java.util.List, long, info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public CompletableFuture<Conference> scheduleConferenceAsync(final Set<Event> events, final List<Session> sessions,
+            final long deadlineNanos, final CancellationToken cancellationToken) {
+        return runAsync(deadlineNanos, cancellationToken, token -> scheduleConference(events, sessions, token));
+    }
 
-        Event[] eventArray = events.toArray(new Event[events.size()]);
-        List<List<Event>> bins = binPacker.pack(eventArray, sessionPattern);
-        int sessionNo = 0;
-        Track track = new Track(Arrays.asList(new MorningSession(), new AfternoonSession()));
-        LOG.fine("Added new track to the conference " + track.toString());
-        conference.addTrack(track);
-        for (List<Event> bin : bins) {
-            if (sessionNo == sessions.size()) { // Start a new track
-                sessionNo = 0;
-                track = new Track(Arrays.asList(new MorningSession(), new AfternoonSession()));
-                conference.addTrack(track);
-                LOG.fine("Added new track to the conference " + track.toString());
-            }
-            for (int currentEventIdx = 0; currentEventIdx < bin.size(); currentEventIdx++) {
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConferenceAsync(java.lang.
+     * String, java.util.List, long, info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public CompletableFuture<Conference> scheduleConferenceAsync(final String fileName, final List<Session> sessions,
+            final long deadlineNanos, final CancellationToken cancellationToken) {
+        return runAsync(deadlineNanos, cancellationToken, 
+                token -> scheduleConference(readTalkDataFromFile(fileName, token), sessions, token));
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConferenceAsync(java.io.
+     * InputStream, java.util.List, long, info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public CompletableFuture<Conference> scheduleConferenceAsync(final InputStream input, 
+            final List<Session> sessions, final long deadlineNanos, final CancellationToken cancellationToken) {
+        return runAsync(deadlineNanos, cancellationToken, 
+                token -> scheduleConference(readTalkData(input, token), sessions, token));
+    }
+
+    /**
+     * Runs a task on the executor for asynchronous requests. The task polls a token that is
+     * cancelled when the caller cancels its token or the returned future, or when the
+     * deadline expires, in which case the future is completed with a timeout straight away
+     * rather than when the task next polls the token.
+     */
+    private CompletableFuture<Conference> runAsync(final long deadlineNanos, final CancellationToken cancellationToken,
+            final ICancellableTask task) {
+        CancellationToken token = cancellationToken.withDeadline(deadlineNanos);
+        CompletableFuture<Conference> result = new CompletableFuture<>();
+        ScheduledFuture<?> deadline = DEADLINE_TIMER.schedule(() -> completeCancelled(result, token),
+                deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        result.whenComplete((conference, failure) -> {
+            deadline.cancel(false);
+            token.cancel(); // Stops the task if the future was cancelled or timed out
+        });
+        try {
+            asyncExecutor.execute(() -> {
                 try {
-                    track.getSession(sessionNo).scheduleEventInSession(bin.get(currentEventIdx),
-                            isFinalTrackEvent(sessionNo, sessionPattern.length, bin.size(), currentEventIdx));
-                } catch (ScheduleException e) {
-                    throw new ConferenceSchedulerException(e);
+                    token.throwIfCancelled();
+                    result.complete(task.run(token));
+                } catch (CancellationException e) {
+                    completeCancelled(result, token);
+                } catch (FileParserException | ConferenceSchedulerException | RuntimeException e) {
+                    result.completeExceptionally(e);
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Completes the future of a request whose token has been cancelled, with a timeout if
+     * it was cancelled by its deadline
+     */
+    private static void completeCancelled(final CompletableFuture<Conference> result, final CancellationToken token) {
+        if (token.isDeadlineExpired())
+            result.completeExceptionally(new TimeoutException("The conference was not scheduled before its deadline"));
+        else
+            result.cancel(false);
+    }
+
+    private static ScheduledExecutorService createDeadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "conference-deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConference(info.gregbiegel.
+     * model.EventCatalog, java.util.List)
+     */
+    @Override
+    public Conference scheduleConference(final EventCatalog catalog, final List<Session> sessions)
+            throws ConferenceSchedulerException {
+        if (catalog == null || catalog.getNoOfTalks() == 0 || sessions == null || sessions.size() == 0)
+            throw new ConferenceSchedulerException("No events or no sessions provided to scheduler");
+        TrackTemplate template = TrackTemplate.of(sessions);
+        Event[] events = catalog.toEvents();
+        FeasibilityReport report = FeasibilityAnalyzer.analyze(events, template.getBinPattern());
+        if (!report.isFeasible()) 
+            throw new ConferenceSchedulerException("There is an event that is longer than the available sessions");
+        return scheduleEvents(events, template, report, new CancellationToken());
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleCompactConference(info.gregbiegel.
+     * model.EventCatalog, java.util.List)
+     */
+    @Override
+    public CompactConference scheduleCompactConference(final EventCatalog catalog, final List<Session> sessions)
+            throws ConferenceSchedulerException {
+        if (catalog == null || catalog.getNoOfTalks() == 0 || sessions == null || sessions.size() == 0)
+            throw new ConferenceSchedulerException("No events or no sessions provided to scheduler");
+        TrackTemplate template = TrackTemplate.of(sessions);
+        int[] sessionPattern = template.getBinPattern();
+        int[] durations = catalog.getDurations();
+        for (int duration : durations)
+            if (duration > template.getMaximumDurationInMinutes())
+                throw new ConferenceSchedulerException("There is an event that is longer than the available sessions");
+
+        // Group the talks by session, in the order they were placed
+        int[] sessionFirstTalk;
+        int[] talksBySession = new int[durations.length];
+        long start = System.nanoTime();
+        PackEvent packEvent = FlightRecorderSupport.AVAILABLE ? new PackEvent() : null;
+        if (binPacker instanceof IPrimitiveBinPacker) {
+            PackingWorkspace workspace = packingWorkspaces.get();
+            workspace.setCancellationToken(null);
+            int noOfBins = ((IPrimitiveBinPacker) binPacker).pack(durations, durations.length, sessionPattern, workspace);
+            if (packEvent != null)
+                packEvent.commit(metrics.getAlgorithm(), durations.length, noOfBins);
+            metrics.recordPacking(System.nanoTime() - start, workspace, sessionPattern);
+            sessionFirstTalk = new int[noOfBins + 1];
+            int[] binIndexPerItem = workspace.getBinIndexPerItem();
+            for (int talk = 0; talk < durations.length; talk++)
+                sessionFirstTalk[binIndexPerItem[talk] + 1]++;
+            for (int bin = 0; bin < noOfBins; bin++)
+                sessionFirstTalk[bin + 1] += sessionFirstTalk[bin];
+            int[] cursor = Arrays.copyOf(sessionFirstTalk, noOfBins);
+            for (int position = 0; position < durations.length; position++) {
+                int talk = workspace.getPlacedItem(position);
+                talksBySession[cursor[binIndexPerItem[talk]]++] = talk;
+            }
+        } else {
+            List<List<Event>> bins = binPacker.pack(catalog.toEvents(), sessionPattern);
+            if (packEvent != null)
+                packEvent.commit(metrics.getAlgorithm(), durations.length, bins.size());
+            long packNanos = System.nanoTime() - start;
+            sessionFirstTalk = new int[bins.size() + 1];
+            int[] usedMinutesPerSession = new int[bins.size()];
+            int position = 0;
+            for (int bin = 0; bin < bins.size(); bin++) {
+                for (Event event : bins.get(bin)) {
+                    talksBySession[position++] = event.getId() - EventCatalog.FIRST_TALK_ID;
+                    usedMinutesPerSession[bin] += event.getDurationInMinutes();
+                }
+                sessionFirstTalk[bin + 1] = position;
             }
-            sessionNo++;
+            metrics.recordPacking(packNanos, usedMinutesPerSession, sessionPattern);
+        }
+
+        start = System.nanoTime();
+        MaterializeEvent materializeEvent = FlightRecorderSupport.AVAILABLE ? new MaterializeEvent() : null;
+        CompactConference conference = new CompactConference(catalog, template);
+        CompactTrack track = null;
+        for (int bin = 0; bin < sessionFirstTalk.length - 1; bin++) {
+            int sessionNo = bin % sessionPattern.length;
+            if (sessionNo == 0)
+                track = conference.addTrack();
+            for (int position = sessionFirstTalk[bin]; position < sessionFirstTalk[bin + 1]; position++)
+                if (!track.append(sessionNo, talksBySession[position] + EventCatalog.FIRST_TALK_ID))
+                    throw new ConferenceSchedulerException("Insufficient remaining time in session to add event");
         }
+        if (materializeEvent != null)
+            materializeEvent.commit(sessionFirstTalk.length - 1, conference.getNoOfTracks(), true);
+        metrics.recordMaterialize(System.nanoTime() - start, conference.getNoOfTracks());
         return conference;
     }
 
+    /**
+     * Packs events into sessions and assigns the sessions to tracks, in the order of
+     * the session pattern. The tracks are materialized in parallel, unless the packing is cancelled.
+     */
+    private Conference scheduleEvents(final Event[] eventArray, final TrackTemplate template, 
+            final FeasibilityReport report, final CancellationToken cancellationToken) 
+            throws ConferenceSchedulerException {
+        int[] sessionPattern = template.getBinPattern();
+        long start = System.nanoTime();
+        PackEvent packEvent = FlightRecorderSupport.AVAILABLE ? new PackEvent() : null;
+        List<List<Event>> bins = binPacker.pack(eventArray, sessionPattern, cancellationToken);
+        cancellationToken.throwIfCancelled();
+        if (packEvent != null)
+            packEvent.commit(metrics.getAlgorithm(), eventArray.length, bins.size());
+        long packNanos = System.nanoTime() - start;
+        LOG.fine("Packed events into " + bins.size() + " sessions, lower bound is " + report.getBinLowerBound());
+        try {
+            start = System.nanoTime();
+            Conference conference = trackMaterializer.materialize(bins, template);
+            metrics.recordMaterialize(System.nanoTime() - start, conference);
+            // The fill of each bin is read from its session, once the talks have been scheduled into it
+            metrics.recordPacking(packNanos, bins.size(), conference, sessionPattern);
+            return conference;
+        } catch (ScheduleException e) {
+            throw new ConferenceSchedulerException(e);
+        }
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConference(java.io.
+     * InputStream, java.io.Writer, java.util.List)
+     */
+    @Override
+    public int scheduleConference(final InputStream input, final Writer output, final List<Session> sessions)
+            throws FileParserException, ConferenceSchedulerException {
+        return scheduleConference(input, output, sessions, ScheduleFormat.TEXT);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#scheduleConference(java.io.
+     * InputStream, java.io.Writer, java.util.List, info.gregbiegel.service.render.ScheduleFormat)
+     */
+    @Override
+    public int scheduleConference(final InputStream input, final Writer output, final List<Session> sessions,
+            final ScheduleFormat format) throws FileParserException, ConferenceSchedulerException {
+        if (sessions == null || sessions.size() == 0)
+            throw new ConferenceSchedulerException("No events or no sessions provided to scheduler");
+        TrackTemplate template = TrackTemplate.of(sessions);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        int id = 2; // Id 0 and 1 are reserved for break events
+        int trackNo = 0;
+        int sessionNo = 0;
+        Track track = template.createTrack();
+        try {
+            // The first talk is read before anything is written, so that empty input writes no program
+            Event event = readNextTalk(reader, id++);
+            if (event == null)
+                throw new ConferenceSchedulerException("No events or no sessions provided to scheduler");
+            AbstractScheduleRenderer renderer = format.createRenderer(output);
+            renderer.startConference();
+            for (; event != null; event = readNextTalk(reader, id++)) {
+                if (event.getDurationInMinutes() > template.getMaximumDurationInMinutes())
+                    throw new ConferenceSchedulerException("There is an event that is longer than the available sessions");
+                // Next fit: once an event does not fit, its session is closed for good, and once 
+                // the final session of a track is closed the track is complete and can be written
+                while (track.getSession(sessionNo).getRemainingMinutes() < event.getDurationInMinutes()) {
+                    if (++sessionNo == track.getNoOfSessions()) {
+                        writeTrack(renderer, output, ++trackNo, track);
+                        track = template.createTrack();
+                        sessionNo = 0;
+                    }
+                }
+                track.getSession(sessionNo).scheduleEventInSession(event, false);
+            }
+            writeTrack(renderer, output, ++trackNo, track);
+            renderer.endConference();
+            output.flush();
+        } catch (IOException | EventParserException e) {
+            throw new FileParserException("Error reading event data from stream", e);
+        } catch (ScheduleException e) {
+            throw new ConferenceSchedulerException(e);
+        }
+        return trackNo;
+    }
+
+    /**
+     * Reads and parses the next talk from a stream, skipping blank lines
+     *
+     * @return the talk, or null at the end of the stream
+     */
+    private Event readNextTalk(final BufferedReader reader, final int id) throws IOException, EventParserException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!isStringBlankOrNull(line))
+                return parseTalkString(id, line);
+        }
+        return null;
+    }
+
+    /**
+     * Completes a track by adding its breaks, and writes it to the output
+     */
+    private void writeTrack(final AbstractScheduleRenderer renderer, final Writer output, final int trackNo, 
+            final Track track) throws IOException {
+        track.updateBreaks();
+        track.accept(trackNo, renderer);
+        output.flush();
+        LOG.fine("Wrote track " + trackNo);
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#analyzeEvents(java.util.
+     * Set, java.util.List)
+     */
+    @Override
+    public FeasibilityReport analyzeEvents(final Set<Event> events, final List<Session> sessions)
+            throws ConferenceSchedulerException {
+        if (events == null || sessions == null || sessions.size() == 0)
+            throw new ConferenceSchedulerException("No events or no sessions provided to scheduler");
+        return FeasibilityAnalyzer.analyze(events, getSessionPattern(sessions));
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#addTalk(info.gregbiegel.model.
+     * Conference, info.gregbiegel.model.Event)
+     */
+    @Override
+    public Track addTalk(final Conference conference, final Event event) throws ConferenceSchedulerException {
+        if (conference == null || event == null)
+            throw new ConferenceSchedulerException("No conference or no event provided to scheduler");
+        Track track = conference.addEvent(event);
+        if (track == null)
+            throw new ConferenceSchedulerException("There is no session with enough time remaining for the event");
+        LOG.fine("Added event " + event.getId() + " to an existing track");
+        return track;
+    }
+
+    /*
+     * @see
+     * info.gregbiegel.service.IConferenceService#removeTalk(info.gregbiegel.model.
+     * Conference, int)
+     */
+    @Override
+    public Track removeTalk(final Conference conference, final int eventId) throws ConferenceSchedulerException {
+        if (conference == null)
+            throw new ConferenceSchedulerException("No conference provided to scheduler");
+        Track track = conference.removeEvent(eventId);
+        if (track == null)
+            throw new ConferenceSchedulerException("The event is not scheduled in the conference");
+        LOG.fine("Removed event " + eventId + " from its track");
+        return track;
+    }
+
+    /**
+     * Gets the maximum duration of each of the sessions in a track, which forms the 
+     * pattern of bin sizes used when packing events into sessions
+     * 
+     * @param sessions the sessions that make up a track
+     * @return the maximum duration of each session in minutes
+     */
+    protected int[] getSessionPattern(final List<Session> sessions) {
+        int[] sessionPattern = new int[sessions.size()];
+        int sessionPatternIndex = 0;
+        for (Iterator<Session> sessionIter = sessions.iterator(); sessionIter.hasNext();)
+            sessionPattern[sessionPatternIndex++] = sessionIter.next().getMaximumDurationInMinutes();
+        return sessionPattern;
+    }
+
     /**
      * Parses a line from the input file, creating an event object representing
      * the event
@@ -140,7 +700,6 @@ public class ConferenceServiceImpl implements IConferenceService {
      *             if there is a problem parsing the input string
      */
     protected Event parseTalkString(final int id, final String talkString) throws EventParserException {
-        LOG.fine("Parsing " + talkString);
         if (talkString.trim().length() < 4) {
             throw new EventParserException("Event description could not be parsed");
         }
@@ -206,16 +765,8 @@ public class ConferenceServiceImpl implements IConferenceService {
      * @return true if no one event is longer than the available session times
      */
     protected boolean areEventsSchedulable(final Set<Event> events, final List<Session> sessions) {
-        for (Event e : events) {
-            boolean foundLargeEnoughSession = false;
-            for (Session s : sessions) {
-                if (s.getMaximumDurationInMinutes() >= e.getDurationInMinutes()) {
-                    foundLargeEnoughSession = true;
-                }
-            }
-            if (!foundLargeEnoughSession)
-                return false;
-        }
-        return true;
+        if (sessions.isEmpty())
+            return events.isEmpty();
+        return FeasibilityAnalyzer.analyze(events, getSessionPattern(sessions)).isFeasible();
     }
 }
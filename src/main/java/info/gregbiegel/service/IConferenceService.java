@@ -1,11 +1,18 @@
 package info.gregbiegel.service;
 
+import java.io.InputStream;
+import java.io.Writer;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import info.gregbiegel.model.*;
+import info.gregbiegel.service.binpack.FeasibilityReport;
+import info.gregbiegel.service.concurrent.CancellationToken;
 import info.gregbiegel.service.exception.ConferenceSchedulerException;
 import info.gregbiegel.service.exception.FileParserException;
+import info.gregbiegel.service.render.ScheduleFormat;
+import info.gregbiegel.service.snapshot.ScheduleSnapshot;
 
 /**
  * The IConferenceService interface exposes a service interface that provides operations
@@ -25,6 +32,9 @@ public interface IConferenceService {
      * 
      * If there is a single line in the input file that cannot be parsed, parsing and processing
      * of the whole input file is abandoned so that an incomplete conference is not scheduled.
+     * <p>
+     * The file may instead be a talk catalog written by {@link #convertTalkDataFile(String, String)},
+     * which is detected automatically and loaded without parsing.
      * 
      * @param fileName the name of the file to read from the filesystem
      * @return a set of event objects that represent the records in the input file
@@ -32,10 +42,69 @@ public interface IConferenceService {
      */
     public Set<Event> readTalkDataFromFile(final String fileName) throws FileParserException;
 
+    /**
+     * Reads records that represent talks at a conference from a stream, in the format
+     * described in {@link #readTalkDataFromFile(String)}, e.g. from the body of a request.
+     * The stream is read to the end but is not closed.
+     * 
+     * @param input the stream to read talks from, encoded in UTF-8
+     * @return a set of event objects that represent the records in the stream
+     * @throws FileParserException if there is a problem reading the stream or a record cannot be parsed
+     */
+    public Set<Event> readTalkData(final InputStream input) throws FileParserException;
+
+    /**
+     * Reads a file containing records that represent talks at a conference into an event
+     * catalog, which holds the talks in a compact form. The file is read as described in
+     * {@link #readTalkDataFromFile(String)}, except that talks with the same title are all
+     * kept, and are reported by {@link EventCatalog#getDuplicateIds()}.
+     * 
+     * @param fileName the name of the file to read from the filesystem
+     * @return a catalog of the talks in the input file, with ids in the order they appear
+     * @throws FileParserException if there is a problem reading the input file
+     */
+    public EventCatalog readEventCatalogFromFile(final String fileName) throws FileParserException;
+
+    /**
+     * Converts a file containing records that represent talks at a conference, in the format
+     * described in {@link #readTalkDataFromFile(String)}, to a binary talk catalog. Reading
+     * the catalog produces the same events as reading the original file, without the cost
+     * of parsing it each time.
+     * 
+     * @param fileName the name of the file to convert
+     * @param catalogFileName the name of the talk catalog file to write
+     * @return the number of talks written to the catalog
+     * @throws FileParserException if there is a problem reading the input file or writing the catalog
+     */
+    public int convertTalkDataFile(final String fileName, final String catalogFileName) throws FileParserException;
+
+    /**
+     * Writes a scheduled conference to a binary snapshot file, holding the tracks, sessions
+     * and events of the conference along with the start time of each event, so that the
+     * schedule can be reloaded later without scheduling the talks again.
+     * 
+     * @param conference the scheduled conference
+     * @param fileName the name of the snapshot file to write
+     * @throws FileParserException if there is a problem writing the snapshot
+     */
+    public void writeSnapshot(final Conference conference, final String fileName) throws FileParserException;
+
+    /**
+     * Reads a snapshot written by {@link #writeSnapshot(Conference, String)}. The snapshot
+     * file is memory-mapped, and the schedule it holds can be rendered straight from the
+     * file or converted back to a {@link Conference}.
+     * 
+     * @param fileName the name of the snapshot file to read
+     * @return a view of the snapshot
+     * @throws FileParserException if there is a problem reading the file, or it is not a schedule snapshot
+     */
+    public ScheduleSnapshot readSnapshot(final String fileName) throws FileParserException;
+
     /**
      * Schedules a set of events at a conference into a group of sessions across one or more tracks.
      * Scheduling is performed using the bin packing algorithm defined at instantiation of an implementation
      * of this interface.
+     * Every track is laid out as the given sessions, which are compiled into a {@link TrackTemplate}.
      * 
      * @param events the set of events to be scheduled
      * @param sessions a list of objects that represent the available 
@@ -45,4 +114,163 @@ public interface IConferenceService {
      */
     public Conference scheduleConference(final Set<Event> events, 
             final List<Session> sessions) throws ConferenceSchedulerException;
+
+    /**
+     * Schedules a set of events into a conference, as described in {@link #scheduleConference(Set, List)},
+     * without blocking the caller. Packing polls a cancellation token, so once the returned
+     * future is cancelled, the caller cancels the token or the deadline expires, the packing
+     * stops within a few thousand items and frees its thread.
+     * <p>
+     * The future completes exceptionally with a {@link java.util.concurrent.TimeoutException}
+     * if the deadline expires before the conference is scheduled, is cancelled if the token
+     * is cancelled first, and otherwise completes exceptionally with the 
+     * {@link ConferenceSchedulerException} if the events cannot be scheduled.
+     * 
+     * @param events the set of events to be scheduled
+     * @param sessions a list of objects that represent the available 
+     *  types of session. e.g {MorningSession, AfternoonSession}
+     * @param deadlineNanos the value of {@link System#nanoTime()} by which the conference must be scheduled
+     * @param cancellationToken a token the caller may cancel to abandon the request
+     * @return a future that completes with the scheduled conference
+     */
+    public CompletableFuture<Conference> scheduleConferenceAsync(final Set<Event> events, 
+            final List<Session> sessions, final long deadlineNanos, final CancellationToken cancellationToken);
+
+    /**
+     * Reads a file of talks, as described in {@link #readTalkDataFromFile(String)}, and
+     * schedules them into a conference without blocking the caller, as described in
+     * {@link #scheduleConferenceAsync(Set, List, long, CancellationToken)}. Parsing polls the
+     * cancellation token as well as packing, and the future completes exceptionally with
+     * the {@link FileParserException} if the file cannot be read.
+     * 
+     * @param fileName the name of the file to read from the filesystem
+     * @param sessions a list of objects that represent the available 
+     *  types of session. e.g {MorningSession, AfternoonSession}
+     * @param deadlineNanos the value of {@link System#nanoTime()} by which the conference must be scheduled
+     * @param cancellationToken a token the caller may cancel to abandon the request
+     * @return a future that completes with the scheduled conference
+     */
+    public CompletableFuture<Conference> scheduleConferenceAsync(final String fileName, 
+            final List<Session> sessions, final long deadlineNanos, final CancellationToken cancellationToken);
+
+    /**
+     * Reads talks from a stream, as described in {@link #readTalkData(InputStream)}, and
+     * schedules them into a conference without blocking the caller, as described in
+     * {@link #scheduleConferenceAsync(Set, List, long, CancellationToken)}. The stream is read
+     * by the task that schedules the conference, so the deadline covers reading it as well,
+     * and the future completes exceptionally with the {@link FileParserException} if the
+     * stream cannot be read.
+     * 
+     * @param input the stream to read talks from, encoded in UTF-8, which is not closed
+     * @param sessions a list of objects that represent the available 
+     *  types of session. e.g {MorningSession, AfternoonSession}
+     * @param deadlineNanos the value of {@link System#nanoTime()} by which the conference must be scheduled
+     * @param cancellationToken a token the caller may cancel to abandon the request
+     * @return a future that completes with the scheduled conference
+     */
+    public CompletableFuture<Conference> scheduleConferenceAsync(final InputStream input, 
+            final List<Session> sessions, final long deadlineNanos, final CancellationToken cancellationToken);
+
+    /**
+     * Schedules the talks in an event catalog into a conference, as described in
+     * {@link #scheduleConference(Set, List)}. Talks are packed in id order.
+     * 
+     * @param catalog the catalog of events to be scheduled
+     * @param sessions a list of objects that represent the available 
+     *  types of session. e.g {MorningSession, AfternoonSession}
+     * @return an object representing a conference with all the events scheduled into tracks and sessions
+     * @throws ConferenceSchedulerException if there is a problem scheduling the conference
+     */
+    public Conference scheduleConference(final EventCatalog catalog, 
+            final List<Session> sessions) throws ConferenceSchedulerException;
+
+    /**
+     * Schedules the talks in an event catalog into a compact conference, which holds the
+     * id and start minute of each scheduled talk in arrays rather than as objects. The
+     * schedule is the same as that produced by {@link #scheduleConference(EventCatalog, List)}.
+     * 
+     * @param catalog the catalog of events to be scheduled
+     * @param sessions a list of objects that represent the available 
+     *  types of session. e.g {MorningSession, AfternoonSession}
+     * @return a compact representation of the scheduled conference
+     * @throws ConferenceSchedulerException if there is a problem scheduling the conference
+     */
+    public CompactConference scheduleCompactConference(final EventCatalog catalog, 
+            final List<Session> sessions) throws ConferenceSchedulerException;
+
+    /**
+     * Reads talks from an input stream and schedules them as they are read, writing each
+     * track of the conference program to the output as soon as it is complete. Talks are 
+     * scheduled using the next fit algorithm, in which a session is closed once a talk does
+     * not fit into it, so a track is final once its last session is closed. Memory use is 
+     * bounded by a single open track, regardless of the size of the input. The input data 
+     * must follow the format described in {@link #readTalkDataFromFile(String)}.
+     * 
+     * @param input the stream to read talks from, e.g. standard input
+     * @param output the writer the conference program is written to
+     * @param sessions a list of objects that represent the available 
+     *  types of session. e.g {MorningSession, AfternoonSession}
+     * @return the number of tracks written
+     * @throws FileParserException if there is a problem reading the input stream
+     * @throws ConferenceSchedulerException if there is a problem scheduling the conference
+     */
+    public int scheduleConference(final InputStream input, final Writer output, 
+            final List<Session> sessions) throws FileParserException, ConferenceSchedulerException;
+
+    /**
+     * Reads talks from an input stream and schedules them as they are read, as described in
+     * {@link #scheduleConference(InputStream, Writer, List)}, writing the conference program
+     * to the output in the given format.
+     * 
+     * @param input the stream to read talks from, e.g. standard input
+     * @param output the writer the conference program is written to
+     * @param sessions a list of objects that represent the available 
+     *  types of session. e.g {MorningSession, AfternoonSession}
+     * @param format the format to write the conference program in
+     * @return the number of tracks written
+     * @throws FileParserException if there is a problem reading the input stream
+     * @throws ConferenceSchedulerException if there is a problem scheduling the conference
+     */
+    public int scheduleConference(final InputStream input, final Writer output, 
+            final List<Session> sessions, final ScheduleFormat format) 
+            throws FileParserException, ConferenceSchedulerException;
+
+    /**
+     * Analyses a set of events against the available sessions without scheduling them. The
+     * analysis makes a single pass over the events, and reports whether they can be scheduled
+     * at all along with lower bounds on the number of sessions and tracks that any schedule
+     * must use, so that the quality of a schedule can be judged against them.
+     * 
+     * @param events the set of events to be analysed
+     * @param sessions a list of objects that represent the available 
+     *  types of session. e.g {MorningSession, AfternoonSession}
+     * @return a report on the feasibility of scheduling the events
+     * @throws ConferenceSchedulerException if no sessions are provided
+     */
+    public FeasibilityReport analyzeEvents(final Set<Event> events, 
+            final List<Session> sessions) throws ConferenceSchedulerException;
+
+    /**
+     * Adds a talk to a conference that has already been scheduled, without rescheduling
+     * the rest of the conference. The talk is placed after the last talk of the first
+     * session with enough time remaining, and the breaks of that track are recalculated.
+     * 
+     * @param conference the scheduled conference
+     * @param event the talk to add
+     * @return the track the talk was added to
+     * @throws ConferenceSchedulerException if no session has enough time remaining for the talk
+     */
+    public Track addTalk(final Conference conference, final Event event) throws ConferenceSchedulerException;
+
+    /**
+     * Removes a talk from a conference that has already been scheduled, without rescheduling
+     * the rest of the conference. The talks that followed it in its session are moved forward
+     * to close the gap, and the breaks of that track are recalculated.
+     * 
+     * @param conference the scheduled conference
+     * @param eventId the id of the talk to remove
+     * @return the track the talk was removed from
+     * @throws ConferenceSchedulerException if the talk is not part of the conference
+     */
+    public Track removeTalk(final Conference conference, final int eventId) throws ConferenceSchedulerException;
 }
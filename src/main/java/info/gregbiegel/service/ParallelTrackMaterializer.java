@@ -0,0 +1,143 @@
+package info.gregbiegel.service;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.exception.ScheduleException;
+import info.gregbiegel.service.jfr.FlightRecorderSupport;
+import info.gregbiegel.service.jfr.MaterializeEvent;
+
+/**
+ * Materializes the tracks of a conference from the bins produced by a bin packer, on all
+ * cores of a fork/join pool. The bins are assigned to tracks in the order of the session
+ * pattern, so each track depends only on its own bins, and the range of track indices is
+ * split between the workers until each holds only a few tracks. The tracks are then added
+ * to the conference in order, so the conference is the same as one materialized on a
+ * single thread.
+ * <p>
+ * If a talk does not fit into its session, the exception for the first such track is thrown.
+ *
+ */
+public class ParallelTrackMaterializer {
+
+    /**
+     * The default number of tracks materialized by each task
+     */
+    public static final int DEFAULT_TRACKS_PER_TASK = 16;
+
+    private final ForkJoinPool pool;
+    private final int tracksPerTask;
+
+    /**
+     * Instantiates a new object, using the common pool and default number of tracks per task
+     */
+    public ParallelTrackMaterializer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TRACKS_PER_TASK);
+    }
+
+    /**
+     * Instantiates a new object
+     *
+     * @param pool the pool to materialize the tracks on
+     * @param tracksPerTask the number of tracks below which a range of tracks is no longer
+     *  split, and at or below which a conference is materialized on the calling thread
+     */
+    public ParallelTrackMaterializer(final ForkJoinPool pool, final int tracksPerTask) {
+        if (tracksPerTask <= 0)
+            throw new IllegalArgumentException("Tracks per task must be positive");
+        this.pool = pool;
+        this.tracksPerTask = tracksPerTask;
+    }
+
+    /**
+     * Materializes a conference from packed bins
+     *
+     * @param bins the talks of each session, in the order of the session pattern
+     * @param template the layout of each track, whose sessions the bins were packed into
+     * @return the conference, which has at least one track
+     * @throws ScheduleException if a talk does not fit into the session of its bin
+     */
+    public Conference materialize(final List<List<Event>> bins, final TrackTemplate template)
+            throws ScheduleException {
+        MaterializeEvent materializeEvent = FlightRecorderSupport.AVAILABLE ? new MaterializeEvent() : null;
+        int noOfSessions = template.getNoOfSessions();
+        int noOfTracks = Math.max(1, (bins.size() + noOfSessions - 1) / noOfSessions);
+        Track[] tracks = new Track[noOfTracks];
+        ScheduleException[] failures = new ScheduleException[noOfTracks];
+        MaterializeAction action = new MaterializeAction(bins, template, tracks, failures, 0, noOfTracks);
+        if (noOfTracks <= tracksPerTask)
+            action.compute();
+        else
+            pool.invoke(action);
+
+        Conference conference = new Conference();
+        for (int trackIndex = 0; trackIndex < noOfTracks; trackIndex++) {
+            if (failures[trackIndex] != null)
+                throw failures[trackIndex];
+            conference.addTrack(tracks[trackIndex]);
+        }
+        if (materializeEvent != null)
+            materializeEvent.commit(bins.size(), noOfTracks, false);
+        return conference;
+    }
+
+    /**
+     * Materializes a range of tracks, splitting the range in two while it holds more than
+     * the number of tracks per task
+     */
+    private class MaterializeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<List<Event>> bins;
+        private final TrackTemplate template;
+        private final Track[] tracks;
+        private final ScheduleException[] failures;
+        private final int from;
+        private final int to;
+
+        MaterializeAction(final List<List<Event>> bins, final TrackTemplate template, final Track[] tracks,
+                final ScheduleException[] failures, final int from, final int to) {
+            this.bins = bins;
+            this.template = template;
+            this.tracks = tracks;
+            this.failures = failures;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > tracksPerTask) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MaterializeAction(bins, template, tracks, failures, from, middle),
+                        new MaterializeAction(bins, template, tracks, failures, middle, to));
+                return;
+            }
+            for (int trackIndex = from; trackIndex < to; trackIndex++) {
+                try {
+                    tracks[trackIndex] = materializeTrack(trackIndex);
+                } catch (ScheduleException e) {
+                    failures[trackIndex] = e;
+                }
+            }
+        }
+
+        private Track materializeTrack(final int trackIndex) throws ScheduleException {
+            Track track = template.createTrack();
+            int noOfSessions = template.getNoOfSessions();
+            int firstBin = trackIndex * noOfSessions;
+            for (int sessionNo = 0; sessionNo < noOfSessions && firstBin + sessionNo < bins.size(); sessionNo++) {
+                List<Event> bin = bins.get(firstBin + sessionNo);
+                Session session = track.getSession(sessionNo);
+                for (Event event : bin)
+                    session.scheduleEventInSession(event, false);
+            }
+            // The breaks are placed in the slots of the template once every talk is scheduled
+            track.updateBreaks();
+            return track;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+/**
+ * The AbstractPrimitiveBinPacker abstract base class adapts bin packers implemented on
+ * primitive arrays to the {@link IBinPacker} interface, by extracting the durations of
+ * the events and building the list of bins from the packed result. Each thread packs into
+ * a workspace of its own that is kept between packings, so the scratch arrays are only
+ * allocated again when a larger input is packed.
+ *
+ */
+public abstract class AbstractPrimitiveBinPacker implements IBinPacker, IPrimitiveBinPacker {
+
+    /**
+     * The workspace of each thread that packs with this packer, whose scratch arrays are
+     * reused by every packing on the thread
+     */
+    private final ThreadLocal<PackingWorkspace> workspaces = ThreadLocal.withInitial(PackingWorkspace::new);
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.Event[], int[])
+     */
+    @Override
+    public List<List<Event>> pack(Event[] items, int[] binPattern) throws InvalidBinPatternException {
+        return pack(items, binPattern, new CancellationToken());
+    }
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.Event[], int[], 
+     * info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public List<List<Event>> pack(Event[] items, int[] binPattern, CancellationToken cancellationToken)
+            throws InvalidBinPatternException {
+        if (binPattern.length == 0)
+            throw new InvalidBinPatternException();
+        if (items.length == 0)
+            return new ArrayList<List<Event>>();
+        PackingWorkspace workspace = workspaces.get();
+        workspace.setCancellationToken(cancellationToken);
+        int noOfBins;
+        try {
+            int[] durations = workspace.durations(items.length);
+            for (int i = 0; i < items.length; i++)
+                durations[i] = items[i].getDurationInMinutes();
+            noOfBins = pack(durations, items.length, binPattern, workspace);
+        } finally {
+            // The workspace outlives the packing, so it must not keep the token of the request
+            workspace.setCancellationToken(null);
+        }
+
+        int[] binIndexPerItem = workspace.getBinIndexPerItem();
+        int[] binSize = new int[noOfBins];
+        for (int i = 0; i < items.length; i++)
+            binSize[binIndexPerItem[i]]++;
+        List<List<Event>> result = new ArrayList<List<Event>>(noOfBins);
+        for (int binNo = 0; binNo < noOfBins; binNo++)
+            result.add(new ArrayList<Event>(binSize[binNo]));
+        for (int position = 0; position < items.length; position++) {
+            int item = workspace.getPlacedItem(position);
+            result.get(binIndexPerItem[item]).add(items[item]);
+        }
+        return result;
+    }
+}
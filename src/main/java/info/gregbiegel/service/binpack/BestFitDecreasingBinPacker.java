@@ -0,0 +1,98 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.Arrays;
+
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+/**
+ * An implementation of the Best Fit Decreasing bin packing algorithm, using different bin
+ * sizes (to represent different session lengths at a conference). Events are ordered from 
+ * the longest to the shortest using a counting sort on their duration, and each event is
+ * then placed into the open bin with the least remaining capacity that can still hold it.
+ * <p>
+ * Open bins are kept in one bucket per remaining capacity, and a bit set records which
+ * buckets are non-empty, so the tightest bin for an event is found by a single ordered 
+ * lookup of the next non-empty bucket rather than a scan over the bins.
+ *
+ */
+public class BestFitDecreasingBinPacker extends AbstractPrimitiveBinPacker {
+
+    /*
+     * @see info.gregbiegel.service.binpack.IPrimitiveBinPacker#pack(int[], int, int[], 
+     * info.gregbiegel.service.binpack.PackingWorkspace)
+     */
+    @Override
+    public int pack(int[] durations, int noOfItems, int[] binPattern, PackingWorkspace workspace)
+            throws InvalidBinPatternException {
+        if (binPattern.length == 0)
+            throw new InvalidBinPatternException();
+        workspace.reset(noOfItems);
+        if (noOfItems == 0)
+            return 0;
+        int[] order = workspace.orderPlacement();
+        DurationSorter.sortIndicesByDecreasingDuration(durations, noOfItems, order, workspace);
+
+        int maximumBinSize = 0;
+        for (int binSize : binPattern)
+            maximumBinSize = Math.max(maximumBinSize, binSize);
+        int noOfBuckets = maximumBinSize + 1;
+        int noOfWords = (noOfBuckets + 63) >>> 6;
+        int[] bucketHead = workspace.bucketHead(noOfBuckets);
+        Arrays.fill(bucketHead, 0, noOfBuckets, -1);
+        long[] nonEmptyBuckets = workspace.nonEmptyBuckets(noOfWords);
+        Arrays.fill(nonEmptyBuckets, 0, noOfWords, 0L);
+        // Every new bin receives an event, so there can never be more bins than events
+        int[] nextInBucket = workspace.nextInBucket(noOfItems);
+        int[] binIndexPerItem = workspace.getBinIndexPerItem();
+        int binPatternSize = binPattern.length;
+
+        for (int position = 0; position < noOfItems; position++) {
+            workspace.checkCancelled(position);
+            int item = order[position];
+            int duration = durations[item];
+            int bucket = nextSetBit(nonEmptyBuckets, Math.max(duration, 0), noOfBuckets);
+            int binNo;
+            if (bucket < 0) {
+                binNo = workspace.openBin(binPattern[workspace.getNoOfBins() % binPatternSize]);
+            } else {
+                binNo = bucketHead[bucket];
+                bucketHead[bucket] = nextInBucket[binNo];
+                if (bucketHead[bucket] < 0)
+                    nonEmptyBuckets[bucket >>> 6] &= ~(1L << bucket);
+            }
+            int residual = workspace.getBinResidual()[binNo] - duration;
+            workspace.getBinResidual()[binNo] = residual;
+            binIndexPerItem[item] = binNo;
+            // Bins that have been overfilled can never hold another event and are not indexed
+            if (residual >= 0 && residual < noOfBuckets) {
+                nextInBucket[binNo] = bucketHead[residual];
+                bucketHead[residual] = binNo;
+                nonEmptyBuckets[residual >>> 6] |= 1L << residual;
+            }
+        }
+        return workspace.getNoOfBins();
+    }
+
+    /**
+     * Finds the first set bit at or after an index
+     *
+     * @param words the bits
+     * @param fromIndex the index to start from
+     * @param noOfBits the number of valid bits
+     * @return the index of the first set bit, or -1 if there is none
+     */
+    private static int nextSetBit(final long[] words, final int fromIndex, final int noOfBits) {
+        if (fromIndex >= noOfBits)
+            return -1;
+        int wordIndex = fromIndex >>> 6;
+        long word = words[wordIndex] & (-1L << fromIndex);
+        int noOfWords = (noOfBits + 63) >>> 6;
+        while (true) {
+            if (word != 0)
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            if (++wordIndex == noOfWords)
+                return -1;
+            word = words[wordIndex];
+        }
+    }
+}
@@ -7,7 +7,13 @@ package info.gregbiegel.service.binpack;
  */
 public enum BinPackType {
     NEXT_FIT(1), 
-    FIRST_FIT(2);
+    FIRST_FIT(2),
+    INDEXED_FIRST_FIT(3),
+    FIRST_FIT_DECREASING(4),
+    BEST_FIT_DECREASING(5),
+    BRANCH_AND_BOUND(6),
+    PORTFOLIO(7),
+    HISTOGRAM(8);
 
     private int id;
 
@@ -27,4 +33,21 @@ public enum BinPackType {
         }
         return NEXT_FIT; //Default to next fit
     }
+
+    /**
+     * Gets an algorithm by its id or by its name, in either case and with hyphens in place
+     * of underscores, e.g. 4 or first-fit-decreasing
+     * 
+     * @param name the id or name of the algorithm
+     * @return the algorithm
+     * @throws IllegalArgumentException if there is no algorithm with the id or name
+     */
+    public static BinPackType getForName(final String name) {
+        for (BinPackType a : values()) {
+            if (Integer.toString(a.getId()).equals(name) || a.name().equalsIgnoreCase(name.replace('-', '_'))) {
+                return a;
+            }
+        }
+        throw new IllegalArgumentException("Unknown algorithm " + name);
+    }
 }
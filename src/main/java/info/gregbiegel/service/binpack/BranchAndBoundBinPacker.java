@@ -0,0 +1,286 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+/**
+ * An exact, anytime implementation of bin packing using branch-and-bound. The search
+ * starts from the Best Fit Decreasing packing as its incumbent, and repeatedly tries to
+ * pack the events into one bin fewer (following the repeating bin pattern) until either
+ * no such packing exists or the lower bound from the {@link FeasibilityAnalyzer} is 
+ * reached, which proves the incumbent optimal, or the deadline expires, in which case 
+ * the best packing found so far is returned.
+ * <p>
+ * Each search assigns events in order of decreasing duration, and prunes using the
+ * following rules:-
+ * <ul>
+ *  <li>An event that exactly fills a bin is only ever placed in that bin</li>
+ *  <li>Bins with the same remaining capacity are equivalent, so only the first is tried</li>
+ *  <li>A branch is abandoned when the capacity usable by the remaining events is less
+ *   than their total duration</li>
+ * </ul>
+ *
+ */
+public class BranchAndBoundBinPacker implements IBinPacker {
+
+    private static final Logger LOG = Logger.getLogger(BranchAndBoundBinPacker.class.getName());
+
+    /**
+     * The default time the search may run for when no deadline is supplied by the caller
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+
+    /**
+     * The number of search nodes expanded between checks of the deadline
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final long timeBudgetMillis;
+
+    public BranchAndBoundBinPacker() {
+        this(DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    public BranchAndBoundBinPacker(final long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.Event[], int[])
+     */
+    @Override
+    public List<List<Event>> pack(Event[] items, int[] binPattern) throws InvalidBinPatternException {
+        return pack(items, binPattern, System.nanoTime() + timeBudgetMillis * 1_000_000L).getBins();
+    }
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.Event[], int[], 
+     * info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public List<List<Event>> pack(Event[] items, int[] binPattern, CancellationToken cancellationToken)
+            throws InvalidBinPatternException {
+        PackingResult result = pack(items, binPattern, System.nanoTime() + timeBudgetMillis * 1_000_000L,
+                cancellationToken::isCancelled);
+        // A stopped search returns the best packing so far, which the caller no longer wants once cancelled
+        cancellationToken.throwIfCancelled();
+        return result.getBins();
+    }
+
+    /**
+     * Packs the provided events into as few bins as can be found before the deadline.
+     * Bins are allocated following the bin pattern, as described in
+     * {@link IBinPacker#pack(Event[], int[])}.
+     *
+     * @param items an array of event objects to be packed into bins
+     * @param binPattern the pattern of bin sizes to use
+     * @param deadlineNanos the value of {@link System#nanoTime()} at which the search must stop
+     * @return the best packing found, and whether it has been proven optimal
+     * @throws InvalidBinPatternException if an invalid bin pattern is provided
+     */
+    public PackingResult pack(final Event[] items, final int[] binPattern, final long deadlineNanos)
+            throws InvalidBinPatternException {
+        return pack(items, binPattern, deadlineNanos, () -> false);
+    }
+
+    /**
+     * Packs the provided events into as few bins as can be found before the deadline, or 
+     * before the caller requests that the search stops.
+     *
+     * @param items an array of event objects to be packed into bins
+     * @param binPattern the pattern of bin sizes to use
+     * @param deadlineNanos the value of {@link System#nanoTime()} at which the search must stop
+     * @param stopRequested polled during the search, the search stops once this returns true
+     * @return the best packing found, and whether it has been proven optimal
+     * @throws InvalidBinPatternException if an invalid bin pattern is provided
+     */
+    public PackingResult pack(final Event[] items, final int[] binPattern, final long deadlineNanos,
+            final BooleanSupplier stopRequested) throws InvalidBinPatternException {
+        if (binPattern.length == 0)
+            throw new InvalidBinPatternException();
+        if (items.length == 0)
+            return new PackingResult(new ArrayList<List<Event>>(), true);
+
+        List<List<Event>> incumbent = new BestFitDecreasingBinPacker().pack(items, binPattern);
+        FeasibilityReport report = FeasibilityAnalyzer.analyze(items, binPattern);
+        if (!report.isFeasible()) {
+            LOG.fine("Event longer than every bin, returning heuristic packing");
+            return new PackingResult(incumbent, false);
+        }
+
+        Event[] sortedItems = DurationSorter.sortByDecreasingDuration(items);
+        int maximumBinSize = 0;
+        for (int binSize : binPattern)
+            maximumBinSize = Math.max(maximumBinSize, binSize);
+        int lowerBound = report.getBinLowerBound();
+        Search search = new Search(sortedItems, binPattern, maximumBinSize, deadlineNanos, stopRequested);
+        for (int noOfBins = incumbent.size() - 1; noOfBins >= lowerBound; noOfBins--) {
+            List<List<Event>> packing = search.findPacking(noOfBins);
+            if (packing == null) {
+                boolean provenOptimal = !search.isTimedOut();
+                LOG.fine("Search for " + noOfBins + " bins " + (provenOptimal ? "is infeasible" : "timed out"));
+                return new PackingResult(incumbent, provenOptimal);
+            }
+            LOG.fine("Improved packing to " + noOfBins + " bins");
+            incumbent = packing;
+        }
+        return new PackingResult(incumbent, true);
+    }
+
+    /**
+     * The Search class performs an iterative depth-first search for a packing of the events
+     * into a fixed number of bins. The search state is held in arrays indexed by the depth
+     * (the index of the event being placed), so the search does not recurse.
+     *
+     */
+    static class Search {
+
+        private final Event[] items;
+        private final int[] durations;
+        private final int[] binPattern;
+        private final long deadlineNanos;
+        private final BooleanSupplier stopRequested;
+
+        /**
+         * The total duration of the events from each index to the end
+         */
+        private final long[] remainingDuration;
+        /**
+         * The bin each event is currently assigned to
+         */
+        private final int[] assignedBin;
+        /**
+         * The next bin to try for the event at each depth
+         */
+        private final int[] nextBin;
+        /**
+         * The only bin that the event at each depth may be placed in (a bin it fills exactly), or -1
+         */
+        private final int[] onlyBin;
+        /**
+         * The residual capacities already tried for the event at each depth
+         */
+        private final BitSet[] triedResiduals;
+
+        private long nodes;
+        private boolean timedOut;
+
+        Search(final Event[] items, final int[] binPattern, final int maximumBinSize,
+                final long deadlineNanos, final BooleanSupplier stopRequested) {
+            this.items = items;
+            this.binPattern = binPattern;
+            this.deadlineNanos = deadlineNanos;
+            this.stopRequested = stopRequested;
+            int n = items.length;
+            durations = new int[n];
+            remainingDuration = new long[n + 1];
+            for (int i = n - 1; i >= 0; i--) {
+                durations[i] = items[i].getDurationInMinutes();
+                remainingDuration[i] = remainingDuration[i + 1] + durations[i];
+            }
+            assignedBin = new int[n];
+            nextBin = new int[n];
+            onlyBin = new int[n];
+            triedResiduals = new BitSet[n];
+            for (int i = 0; i < n; i++)
+                triedResiduals[i] = new BitSet(maximumBinSize + 1);
+        }
+
+        /**
+         * Returns true if the last search was abandoned, either because the deadline expired
+         * or because the caller requested that it stop
+         */
+        boolean isTimedOut() {
+            return timedOut;
+        }
+
+        /**
+         * Searches for a packing of the events into the given number of bins
+         *
+         * @param noOfBins the number of bins to pack into
+         * @return the packing, or null if none exists or the deadline expired first
+         */
+        List<List<Event>> findPacking(final int noOfBins) {
+            int n = items.length;
+            int[] residual = new int[noOfBins];
+            for (int bin = 0; bin < noOfBins; bin++)
+                residual[bin] = binPattern[bin % binPattern.length];
+            int depth = 0;
+            enter(depth, residual);
+            while (depth < n) {
+                if (++nodes % DEADLINE_CHECK_INTERVAL == 0 
+                        && (System.nanoTime() - deadlineNanos >= 0 || stopRequested.getAsBoolean())) {
+                    timedOut = true;
+                    return null;
+                }
+                int bin = nextCandidate(depth, residual);
+                if (bin < 0) {
+                    if (--depth < 0)
+                        return null;
+                    residual[assignedBin[depth]] += durations[depth];
+                    continue;
+                }
+                residual[bin] -= durations[depth];
+                assignedBin[depth] = bin;
+                if (++depth < n)
+                    enter(depth, residual);
+            }
+            List<List<Event>> bins = new ArrayList<List<Event>>(noOfBins);
+            for (int bin = 0; bin < noOfBins; bin++)
+                bins.add(new ArrayList<Event>());
+            for (int i = 0; i < n; i++)
+                bins.get(assignedBin[i]).add(items[i]);
+            return bins;
+        }
+
+        /**
+         * Prepares the search state for the event at a depth, applying the capacity bound
+         * and looking for a bin that the event fills exactly
+         */
+        private void enter(final int depth, final int[] residual) {
+            int duration = durations[depth];
+            int smallestDuration = durations[durations.length - 1];
+            long usableCapacity = 0;
+            int perfectFit = -1;
+            for (int bin = 0; bin < residual.length; bin++) {
+                if (residual[bin] >= smallestDuration)
+                    usableCapacity += residual[bin];
+                if (perfectFit < 0 && residual[bin] == duration)
+                    perfectFit = bin;
+            }
+            boolean pruned = usableCapacity < remainingDuration[depth];
+            nextBin[depth] = pruned ? residual.length : 0;
+            onlyBin[depth] = pruned ? -1 : perfectFit;
+            triedResiduals[depth].clear();
+        }
+
+        /**
+         * Gets the next bin to place the event at a depth into, skipping bins that are too
+         * small or are equivalent to a bin that has already been tried
+         */
+        private int nextCandidate(final int depth, final int[] residual) {
+            int duration = durations[depth];
+            if (onlyBin[depth] >= 0) {
+                int bin = onlyBin[depth];
+                if (nextBin[depth] > bin)
+                    return -1;
+                nextBin[depth] = bin + 1;
+                return bin;
+            }
+            for (int bin = nextBin[depth]; bin < residual.length; bin++) {
+                if (residual[bin] >= duration && !triedResiduals[depth].get(residual[bin])) {
+                    triedResiduals[depth].set(residual[bin]);
+                    nextBin[depth] = bin + 1;
+                    return bin;
+                }
+            }
+            nextBin[depth] = residual.length;
+            return -1;
+        }
+    }
+}
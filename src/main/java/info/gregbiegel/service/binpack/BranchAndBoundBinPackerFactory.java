@@ -0,0 +1,30 @@
+package info.gregbiegel.service.binpack;
+
+/**
+ * An implementation of the IBinPackerFactory interface that creates objects
+ * than implement the exact branch-and-bound bin packing algorithm.
+ *
+ */
+public class BranchAndBoundBinPackerFactory implements IBinPackerFactory {
+
+    /**
+     * The time each created bin packer may spend searching for an optimal packing
+     */
+    private final long timeBudgetMillis;
+
+    public BranchAndBoundBinPackerFactory() {
+        this(BranchAndBoundBinPacker.DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    public BranchAndBoundBinPackerFactory(final long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPackerFactory#createBinPacker()
+     */
+    @Override
+    public IBinPacker createBinPacker() {
+        return new BranchAndBoundBinPacker(timeBudgetMillis);
+    }
+}
@@ -0,0 +1,114 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import info.gregbiegel.model.Event;
+
+/**
+ * Utility class that orders events by their duration. Event durations are small bounded
+ * integers (minutes), so events are ordered with a stable counting sort in O(n + k) time,
+ * where k is the range of durations, rather than with a comparison sort.
+ *
+ */
+public final class DurationSorter {
+
+    /**
+     * Upper limit on the range of durations, relative to the number of events, for which
+     * a counting sort is used. Beyond this the count array would cost more than a comparison sort.
+     */
+    private static final int MAX_RANGE_FACTOR = 16;
+
+    /**
+     * The number of buckets in each pass of the radix sort used for wide ranges of durations
+     */
+    private static final int RADIX = 1 << 16;
+
+    private DurationSorter() {
+    }
+
+    /**
+     * Returns a copy of the events ordered from the longest to the shortest duration. Events
+     * with the same duration keep their relative order from the input.
+     * 
+     * @param items the events to sort
+     * @return a new array containing the events in order of decreasing duration
+     */
+    public static Event[] sortByDecreasingDuration(final Event[] items) {
+        if (items.length < 2)
+            return items.clone();
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Event item : items) {
+            min = Math.min(min, item.getDurationInMinutes());
+            max = Math.max(max, item.getDurationInMinutes());
+        }
+        long range = (long) max - min + 1;
+        if (range > (long) MAX_RANGE_FACTOR * items.length + 1024) {
+            Event[] sorted = items.clone();
+            Arrays.sort(sorted, Comparator.comparingInt(Event::getDurationInMinutes).reversed());
+            return sorted;
+        }
+        // Bucket k holds durations of (max - k), so the buckets are already in decreasing order
+        int[] bucketStart = new int[(int) range + 1];
+        for (Event item : items)
+            bucketStart[max - item.getDurationInMinutes() + 1]++;
+        for (int k = 1; k < bucketStart.length; k++)
+            bucketStart[k] += bucketStart[k - 1];
+        Event[] sorted = new Event[items.length];
+        for (Event item : items)
+            sorted[bucketStart[max - item.getDurationInMinutes()]++] = item;
+        return sorted;
+    }
+
+    /**
+     * Orders item indices from the longest to the shortest duration, keeping the input order
+     * of items with the same duration. Narrow ranges of durations are ordered with a counting
+     * sort, and wide ranges with a two pass radix sort, using scratch arrays from the workspace.
+     * 
+     * @param durations the duration of each item
+     * @param noOfItems the number of items
+     * @param order the array to write the sorted item indices to
+     * @param workspace the workspace providing scratch arrays
+     */
+    static void sortIndicesByDecreasingDuration(final int[] durations, final int noOfItems, final int[] order,
+            final PackingWorkspace workspace) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < noOfItems; i++) {
+            min = Math.min(min, durations[i]);
+            max = Math.max(max, durations[i]);
+        }
+        long range = (long) max - min + 1;
+        if (range <= RADIX) {
+            int[] counts = workspace.sortCounts((int) range + 1);
+            Arrays.fill(counts, 0, (int) range + 1, 0);
+            for (int i = 0; i < noOfItems; i++)
+                counts[max - durations[i] + 1]++;
+            for (int k = 1; k <= range; k++)
+                counts[k] += counts[k - 1];
+            for (int i = 0; i < noOfItems; i++)
+                order[counts[max - durations[i]]++] = i;
+            return;
+        }
+        // Sort on the key (max - duration) treated as unsigned, low 16 bits then high 16 bits
+        int[] counts = workspace.sortCounts(RADIX + 1);
+        int[] scratch = workspace.sortScratch(noOfItems);
+        Arrays.fill(counts, 0, RADIX + 1, 0);
+        for (int i = 0; i < noOfItems; i++)
+            counts[((max - durations[i]) & 0xFFFF) + 1]++;
+        for (int k = 1; k <= RADIX; k++)
+            counts[k] += counts[k - 1];
+        for (int i = 0; i < noOfItems; i++)
+            scratch[counts[(max - durations[i]) & 0xFFFF]++] = i;
+        Arrays.fill(counts, 0, RADIX + 1, 0);
+        for (int i = 0; i < noOfItems; i++)
+            counts[((max - durations[i]) >>> 16) + 1]++;
+        for (int k = 1; k <= RADIX; k++)
+            counts[k] += counts[k - 1];
+        for (int i = 0; i < noOfItems; i++) {
+            int item = scratch[i];
+            order[counts[(max - durations[item]) >>> 16]++] = item;
+        }
+    }
+}
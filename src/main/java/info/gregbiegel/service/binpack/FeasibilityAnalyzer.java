@@ -0,0 +1,116 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.Arrays;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+import info.gregbiegel.service.jfr.FlightRecorderSupport;
+import info.gregbiegel.service.jfr.FeasibilityCheckEvent;
+
+/**
+ * Utility class that analyses a set of events against a bin pattern before packing, in a 
+ * single pass over the events. The pass builds a histogram of durations, from which the 
+ * Martello-Toth L1 and L2 lower bounds on the number of bins are computed in time 
+ * proportional to the largest bin size rather than to the number of events.
+ *
+ */
+public final class FeasibilityAnalyzer {
+
+    private FeasibilityAnalyzer() {
+    }
+
+    /**
+     * Analyses events against a bin pattern
+     * 
+     * @param items the events to be packed
+     * @param binPattern the pattern of bin sizes
+     * @return a report holding the lower bounds and feasibility of the events
+     * @throws InvalidBinPatternException if an invalid bin pattern is provided
+     */
+    public static FeasibilityReport analyze(final Iterable<? extends Event> items, final int[] binPattern)
+            throws InvalidBinPatternException {
+        if (binPattern.length == 0)
+            throw new InvalidBinPatternException();
+        FeasibilityCheckEvent checkEvent = FlightRecorderSupport.AVAILABLE ? new FeasibilityCheckEvent() : null;
+        int maximumBinSize = 0;
+        for (int binSize : binPattern)
+            maximumBinSize = Math.max(maximumBinSize, binSize);
+
+        // Durations longer than the largest bin are infeasible and are not counted
+        int[] histogram = new int[maximumBinSize + 1];
+        int noOfEvents = 0;
+        long totalDuration = 0;
+        int longest = 0;
+        for (Event item : items) {
+            int duration = item.getDurationInMinutes();
+            noOfEvents++;
+            totalDuration += duration;
+            longest = Math.max(longest, duration);
+            if (duration >= 0 && duration <= maximumBinSize)
+                histogram[duration]++;
+        }
+        FeasibilityReport report = new FeasibilityReport(noOfEvents, totalDuration, longest, maximumBinSize,
+                getL1LowerBound(noOfEvents, totalDuration, binPattern), 
+                getL2LowerBound(histogram, maximumBinSize), binPattern.length);
+        if (checkEvent != null)
+            checkEvent.commit(noOfEvents, report.isFeasible(), report.getBinLowerBound());
+        return report;
+    }
+
+    /**
+     * Analyses events against a bin pattern
+     * 
+     * @param items the events to be packed
+     * @param binPattern the pattern of bin sizes
+     * @return a report holding the lower bounds and feasibility of the events
+     * @throws InvalidBinPatternException if an invalid bin pattern is provided
+     */
+    public static FeasibilityReport analyze(final Event[] items, final int[] binPattern)
+            throws InvalidBinPatternException {
+        return analyze(Arrays.asList(items), binPattern);
+    }
+
+    /**
+     * Gets the fewest bins, allocated following the bin pattern, whose total capacity
+     * is at least the total duration
+     */
+    private static int getL1LowerBound(final int noOfEvents, final long totalDuration, final int[] binPattern) {
+        if (noOfEvents == 0)
+            return 0;
+        int noOfBins = 0;
+        long capacity = 0;
+        while (capacity < totalDuration)
+            capacity += binPattern[noOfBins++ % binPattern.length];
+        return Math.max(noOfBins, 1);
+    }
+
+    /**
+     * Gets the Martello-Toth L2 bound for bins of the given capacity. For each threshold 
+     * alpha up to half the capacity, events longer than capacity - alpha need a bin each, 
+     * events longer than half the capacity cannot share a bin with each other, and events 
+     * between alpha and half the capacity must fit into whatever those bins leave over, 
+     * or into additional bins.
+     */
+    private static int getL2LowerBound(final int[] histogram, final int capacity) {
+        // Suffix counts and sums of durations from each value up to the capacity
+        long[] countFrom = new long[capacity + 2];
+        long[] sumFrom = new long[capacity + 2];
+        for (int d = capacity; d >= 0; d--) {
+            countFrom[d] = countFrom[d + 1] + histogram[d];
+            sumFrom[d] = sumFrom[d + 1] + (long) histogram[d] * d;
+        }
+        int half = capacity / 2;
+        long best = 0;
+        for (int alpha = 0; alpha <= half; alpha++) {
+            // J1: d > C - alpha, J2: C - alpha >= d > C/2, J3: C/2 >= d >= alpha
+            long j1Count = countFrom[capacity - alpha + 1];
+            long j2Count = countFrom[half + 1] - j1Count;
+            long j2Sum = sumFrom[half + 1] - sumFrom[capacity - alpha + 1];
+            long j3Sum = sumFrom[alpha] - sumFrom[half + 1];
+            long overflow = j3Sum - (j2Count * capacity - j2Sum);
+            long bound = j1Count + j2Count + (overflow > 0 ? (overflow + capacity - 1) / capacity : 0);
+            best = Math.max(best, bound);
+        }
+        return (int) best;
+    }
+}
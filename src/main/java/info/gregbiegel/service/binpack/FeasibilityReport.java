@@ -0,0 +1,107 @@
+package info.gregbiegel.service.binpack;
+
+/**
+ * The FeasibilityReport class holds the results of analysing a set of events against
+ * a bin pattern before they are packed, including lower bounds on the number of bins
+ * (sessions) and groups of bins (tracks) that any packing must use.
+ *
+ */
+public class FeasibilityReport {
+
+    private final int noOfEvents;
+    private final long totalDurationInMinutes;
+    private final int longestDurationInMinutes;
+    private final int maximumBinSize;
+    private final int l1LowerBound;
+    private final int l2LowerBound;
+    private final int binPatternLength;
+
+    FeasibilityReport(final int noOfEvents, final long totalDurationInMinutes, final int longestDurationInMinutes,
+            final int maximumBinSize, final int l1LowerBound, final int l2LowerBound, final int binPatternLength) {
+        this.noOfEvents = noOfEvents;
+        this.totalDurationInMinutes = totalDurationInMinutes;
+        this.longestDurationInMinutes = longestDurationInMinutes;
+        this.maximumBinSize = maximumBinSize;
+        this.l1LowerBound = l1LowerBound;
+        this.l2LowerBound = l2LowerBound;
+        this.binPatternLength = binPatternLength;
+    }
+
+    public int getNoOfEvents() {
+        return noOfEvents;
+    }
+
+    public long getTotalDurationInMinutes() {
+        return totalDurationInMinutes;
+    }
+
+    public int getLongestDurationInMinutes() {
+        return longestDurationInMinutes;
+    }
+
+    /**
+     * Returns true if every event fits into at least one of the bins in the pattern
+     * 
+     * @return true if the events can be packed
+     */
+    public boolean isFeasible() {
+        return longestDurationInMinutes <= maximumBinSize;
+    }
+
+    /**
+     * Gets the Martello-Toth L1 bound: the fewest bins, allocated following the bin pattern,
+     * with a total capacity at least the total duration of the events
+     * 
+     * @return the L1 lower bound on the number of bins
+     */
+    public int getL1LowerBound() {
+        return l1LowerBound;
+    }
+
+    /**
+     * Gets the Martello-Toth L2 bound, computed as if every bin had the capacity of the 
+     * largest bin in the pattern
+     * 
+     * @return the L2 lower bound on the number of bins
+     */
+    public int getL2LowerBound() {
+        return l2LowerBound;
+    }
+
+    /**
+     * Gets the best lower bound on the number of bins (sessions)
+     * 
+     * @return the lower bound on the number of bins
+     */
+    public int getBinLowerBound() {
+        return Math.max(l1LowerBound, l2LowerBound);
+    }
+
+    /**
+     * Gets the lower bound on the number of times the bin pattern must be repeated (tracks)
+     * 
+     * @return the lower bound on the number of bin patterns
+     */
+    public int getPatternLowerBound() {
+        return (getBinLowerBound() + binPatternLength - 1) / binPatternLength;
+    }
+
+    /**
+     * Gets how far a packing is above the lower bound, as a fraction of the lower bound
+     * 
+     * @param noOfBins the number of bins used by a packing
+     * @return the gap between the packing and the lower bound, 0 if the packing is optimal
+     */
+    public double getOptimalityGap(final int noOfBins) {
+        int lowerBound = getBinLowerBound();
+        return lowerBound == 0 ? 0 : (double) (noOfBins - lowerBound) / lowerBound;
+    }
+
+    @Override
+    public String toString() {
+        return "events=" + noOfEvents + ", totalMinutes=" + totalDurationInMinutes + ", longest=" 
+                + longestDurationInMinutes + ", feasible=" + isFeasible() + ", L1=" + l1LowerBound 
+                + ", L2=" + l2LowerBound + ", sessions>=" + getBinLowerBound() 
+                + ", tracks>=" + getPatternLowerBound();
+    }
+}
@@ -0,0 +1,27 @@
+package info.gregbiegel.service.binpack;
+
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+/**
+ * An implementation of the First Fit Decreasing bin packing algorithm. Events are
+ * ordered from the longest to the shortest using a counting sort on their duration,
+ * and are then packed using the indexed First Fit algorithm.
+ *
+ */
+public class FirstFitDecreasingBinPacker extends AbstractPrimitiveBinPacker {
+
+    /*
+     * @see info.gregbiegel.service.binpack.IPrimitiveBinPacker#pack(int[], int, int[], 
+     * info.gregbiegel.service.binpack.PackingWorkspace)
+     */
+    @Override
+    public int pack(int[] durations, int noOfItems, int[] binPattern, PackingWorkspace workspace)
+            throws InvalidBinPatternException {
+        if (binPattern.length == 0)
+            throw new InvalidBinPatternException();
+        workspace.reset(noOfItems);
+        int[] order = workspace.orderPlacement();
+        DurationSorter.sortIndicesByDecreasingDuration(durations, noOfItems, order, workspace);
+        return IndexedFirstFitBinPacker.packInOrder(durations, order, noOfItems, binPattern, workspace);
+    }
+}
@@ -0,0 +1,223 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.*;
+import java.util.logging.Logger;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+/**
+ * An implementation of bin packing that works on the histogram (multiset) of event
+ * durations rather than on individual events. Events are collapsed into classes of equal
+ * duration, and one repetition of the bin pattern is filled at a time by taking as many
+ * of the longest remaining events as fit into each bin. The same fill is then repeated
+ * for as many repetitions as the remaining counts allow, so the packing is a short list
+ * of (fill, repeat count) runs whose length depends on the number of distinct durations
+ * rather than on the number of events. Concrete events are only assigned to bins once
+ * the runs have been computed.
+ *
+ */
+public class HistogramBinPacker implements IBinPacker {
+
+    private static final Logger LOG = Logger.getLogger(HistogramBinPacker.class.getName());
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.Event[], int[])
+     */
+    @Override
+    public List<List<Event>> pack(Event[] items, int[] binPattern) throws InvalidBinPatternException {
+        return pack(items, binPattern, new CancellationToken());
+    }
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.Event[], int[], 
+     * info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public List<List<Event>> pack(Event[] items, int[] binPattern, CancellationToken cancellationToken)
+            throws InvalidBinPatternException {
+        List<List<Event>> result = new ArrayList<List<Event>>();
+        if (binPattern.length == 0)
+            throw new InvalidBinPatternException();
+        if (items.length == 0)
+            return result;
+
+        DurationClasses classes = new DurationClasses(items);
+        List<Run> runs = packHistogram(classes.getCounts().clone(), classes.getDurations(), binPattern);
+        // The runs are few, so the token is polled once they are known rather than during the packing
+        cancellationToken.throwIfCancelled();
+        LOG.fine("Packed " + classes.getDurations().length + " duration classes into " + runs.size() + " runs");
+        return expand(items, classes, runs, binPattern.length);
+    }
+
+    /**
+     * Packs a histogram of durations into runs of repeated bin pattern fills
+     *
+     * @param remaining the number of events in each class, consumed by the packing
+     * @param durations the duration of each class, in decreasing order
+     * @param binPattern the pattern of bin sizes
+     * @return the runs that make up the packing
+     */
+    static List<Run> packHistogram(final long[] remaining, final int[] durations, final int[] binPattern) {
+        List<Run> runs = new ArrayList<>();
+        int noOfClasses = durations.length;
+        long remainingEvents = 0;
+        for (long count : remaining)
+            remainingEvents += count;
+        while (remainingEvents > 0) {
+            int[][] fill = new int[binPattern.length][noOfClasses];
+            long[] used = new long[noOfClasses];
+            boolean placedAny = false;
+            for (int binNo = 0; binNo < binPattern.length; binNo++) {
+                int residual = binPattern[binNo];
+                for (int c = 0; c < noOfClasses && residual > 0; c++) {
+                    long available = remaining[c] - used[c];
+                    if (available == 0 || durations[c] > residual)
+                        continue;
+                    int take = (int) Math.min(available, durations[c] == 0 ? available : residual / durations[c]);
+                    fill[binNo][c] = take;
+                    used[c] += take;
+                    residual -= take * durations[c];
+                    placedAny = true;
+                }
+            }
+            if (!placedAny) {
+                // The longest remaining event does not fit into any bin, so it is given a bin of its own
+                int longest = 0;
+                while (remaining[longest] == 0)
+                    longest++;
+                fill[0][longest] = 1;
+                used[longest] = 1;
+            }
+            long repeat = Long.MAX_VALUE;
+            for (int c = 0; c < noOfClasses; c++)
+                if (used[c] > 0)
+                    repeat = Math.min(repeat, remaining[c] / used[c]);
+            for (int c = 0; c < noOfClasses; c++) {
+                remaining[c] -= used[c] * repeat;
+                remainingEvents -= used[c] * repeat;
+            }
+            runs.add(new Run(fill, (int) repeat));
+        }
+        return runs;
+    }
+
+    /**
+     * Assigns the concrete events to bins following the runs. Events of the same duration
+     * are assigned in the order that they appear in the input.
+     */
+    private List<List<Event>> expand(final Event[] items, final DurationClasses classes, final List<Run> runs,
+            final int binPatternLength) {
+        int noOfClasses = classes.getDurations().length;
+        // Group the events by class with a counting sort, keeping their input order
+        int[] classStart = new int[noOfClasses + 1];
+        int[] itemClass = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            itemClass[i] = classes.getClass(items[i].getDurationInMinutes());
+            classStart[itemClass[i] + 1]++;
+        }
+        for (int c = 0; c < noOfClasses; c++)
+            classStart[c + 1] += classStart[c];
+        Event[] grouped = new Event[items.length];
+        int[] cursor = Arrays.copyOf(classStart, noOfClasses);
+        for (int i = 0; i < items.length; i++)
+            grouped[cursor[itemClass[i]]++] = items[i];
+        System.arraycopy(classStart, 0, cursor, 0, noOfClasses);
+
+        List<List<Event>> result = new ArrayList<List<Event>>();
+        int lastNonEmptyBin = -1;
+        for (Run run : runs) {
+            for (int repetition = 0; repetition < run.repeat; repetition++) {
+                for (int binNo = 0; binNo < binPatternLength; binNo++) {
+                    int[] binFill = run.fill[binNo];
+                    int binSize = 0;
+                    for (int c = 0; c < noOfClasses; c++)
+                        binSize += binFill[c];
+                    Event[] bin = new Event[binSize];
+                    int slot = 0;
+                    for (int c = 0; c < noOfClasses; c++) {
+                        System.arraycopy(grouped, cursor[c], bin, slot, binFill[c]);
+                        cursor[c] += binFill[c];
+                        slot += binFill[c];
+                    }
+                    result.add(Arrays.asList(bin));
+                    if (binSize > 0)
+                        lastNonEmptyBin = result.size() - 1;
+                }
+            }
+        }
+        return result.subList(0, lastNonEmptyBin + 1);
+    }
+
+    /**
+     * The Run class represents one fill of the bins in the bin pattern, repeated a number of times.
+     *
+     */
+    static class Run {
+
+        /**
+         * The number of events of each class placed in each bin of the pattern
+         */
+        final int[][] fill;
+        final int repeat;
+
+        Run(final int[][] fill, final int repeat) {
+            this.fill = fill;
+            this.repeat = repeat;
+        }
+    }
+
+    /**
+     * The DurationClasses class collapses events into classes of equal duration, ordered
+     * from the longest to the shortest duration.
+     *
+     */
+    static class DurationClasses {
+
+        private final int minimumDuration;
+        private final int[] classOfDuration;
+        private final int[] durations;
+        private final long[] counts;
+
+        DurationClasses(final Event[] items) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (Event item : items) {
+                min = Math.min(min, item.getDurationInMinutes());
+                max = Math.max(max, item.getDurationInMinutes());
+            }
+            minimumDuration = min;
+            long[] histogram = new long[max - min + 1];
+            for (Event item : items)
+                histogram[item.getDurationInMinutes() - min]++;
+            int noOfClasses = 0;
+            for (long count : histogram)
+                if (count > 0)
+                    noOfClasses++;
+            classOfDuration = new int[histogram.length];
+            durations = new int[noOfClasses];
+            counts = new long[noOfClasses];
+            int c = 0;
+            for (int d = histogram.length - 1; d >= 0; d--) {
+                if (histogram[d] > 0) {
+                    classOfDuration[d] = c;
+                    durations[c] = d + min;
+                    counts[c++] = histogram[d];
+                }
+            }
+        }
+
+        int getClass(final int duration) {
+            return classOfDuration[duration - minimumDuration];
+        }
+
+        int[] getDurations() {
+            return durations;
+        }
+
+        long[] getCounts() {
+            return counts;
+        }
+    }
+}
@@ -3,10 +3,11 @@ package info.gregbiegel.service.binpack;
 import java.util.List;
 
 import info.gregbiegel.model.Event;
+import info.gregbiegel.service.concurrent.CancellationToken;
 import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
 
 /**
- * Interface providing a single method that packs events into bins (representing
+ * Interface providing methods that pack events into bins (representing
  * sessions within a conference track) of varying sizes.
  *
  */
@@ -33,4 +34,19 @@ public interface IBinPacker {
      * @throws InvalidBinPatternException if an invalid bin pattern is provided
      */
     public List<List<Event>> pack(Event[] items, int[] binPattern) throws InvalidBinPatternException;
+
+    /**
+     * Packs the provided events as described in {@link #pack(Event[], int[])}, polling
+     * the cancellation token as the packing proceeds so that an abandoned packing stops
+     * promptly rather than running to completion.
+     * 
+     * @param items an array of event objects to be packed into bins
+     * @param binPattern the pattern of bin sizes to use
+     * @param cancellationToken the token polled for a request to stop packing
+     * @return a list of bins packed with event objects
+     * @throws InvalidBinPatternException if an invalid bin pattern is provided
+     * @throws java.util.concurrent.CancellationException if the token is cancelled before the packing is complete
+     */
+    public List<List<Event>> pack(Event[] items, int[] binPattern, CancellationToken cancellationToken) 
+            throws InvalidBinPatternException;
 }
@@ -0,0 +1,28 @@
+package info.gregbiegel.service.binpack;
+
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+/**
+ * Interface providing a single method that packs item durations into bins of varying
+ * sizes, working only on primitive arrays. The result is written into a caller supplied 
+ * workspace, so that repeated packings which reuse a workspace do not allocate.
+ *
+ */
+public interface IPrimitiveBinPacker {
+
+    /**
+     * Packs the provided item durations into as few bins as possible, following the
+     * bin pattern as described in {@link IBinPacker#pack(info.gregbiegel.model.Event[], int[])}.
+     * On return, {@link PackingWorkspace#getBinIndexPerItem()} holds the bin of each item and
+     * {@link PackingWorkspace#getBinResidual()} holds the remaining capacity of each bin.
+     * 
+     * @param durations the duration of each item
+     * @param noOfItems the number of items, read from the start of the durations array
+     * @param binPattern the pattern of bin sizes to use
+     * @param workspace the workspace to write the result to
+     * @return the number of bins used
+     * @throws InvalidBinPatternException if an invalid bin pattern is provided
+     */
+    public int pack(int[] durations, int noOfItems, int[] binPattern, PackingWorkspace workspace) 
+            throws InvalidBinPatternException;
+}
@@ -0,0 +1,84 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.Arrays;
+
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+/**
+ * An implementation of the First Fit bin packing algorithm that keeps the remaining
+ * capacity of every open bin in a max-residual segment tree. Finding the leftmost bin
+ * that an event fits into takes O(log n) rather than a linear scan over the open bins,
+ * while the resulting assignment is identical to that of the {@link FirstFitBinPacker}.
+ *
+ */
+public class IndexedFirstFitBinPacker extends AbstractPrimitiveBinPacker {
+
+    /**
+     * Residual value used for leaves of bins that have not been opened yet, so that
+     * they can never be selected by a search
+     */
+    private static final int UNOPENED = Integer.MIN_VALUE;
+
+    /*
+     * @see info.gregbiegel.service.binpack.IPrimitiveBinPacker#pack(int[], int, int[], 
+     * info.gregbiegel.service.binpack.PackingWorkspace)
+     */
+    @Override
+    public int pack(int[] durations, int noOfItems, int[] binPattern, PackingWorkspace workspace)
+            throws InvalidBinPatternException {
+        if (binPattern.length == 0)
+            throw new InvalidBinPatternException();
+        workspace.reset(noOfItems);
+        return packInOrder(durations, null, noOfItems, binPattern, workspace);
+    }
+
+    /**
+     * Packs items using First Fit, taking the items in the given order
+     *
+     * @param durations the duration of each item
+     * @param order the indices of the items in the order to pack them, or null for input order
+     * @param noOfItems the number of items
+     * @param binPattern the pattern of bin sizes to use
+     * @param workspace the workspace to write the result to, which has been reset
+     * @return the number of bins used
+     */
+    static int packInOrder(final int[] durations, final int[] order, final int noOfItems, final int[] binPattern,
+            final PackingWorkspace workspace) {
+        if (noOfItems == 0)
+            return 0;
+        // There can never be more bins than items, so the tree is sized once up front
+        int leafOffset = 1;
+        while (leafOffset < noOfItems)
+            leafOffset <<= 1;
+        int[] maxResidual = workspace.residualTree(2 * leafOffset);
+        Arrays.fill(maxResidual, 0, 2 * leafOffset, UNOPENED);
+        int[] binIndexPerItem = workspace.getBinIndexPerItem();
+        int binPatternSize = binPattern.length;
+        for (int position = 0; position < noOfItems; position++) {
+            workspace.checkCancelled(position);
+            int item = order == null ? position : order[position];
+            int duration = durations[item];
+            int binNo;
+            if (maxResidual[1] < duration) {
+                binNo = workspace.openBin(binPattern[workspace.getNoOfBins() % binPatternSize]);
+            } else {
+                // Descend to the leftmost leaf with enough remaining capacity
+                int node = 1;
+                while (node < leafOffset) {
+                    node <<= 1;
+                    if (maxResidual[node] < duration)
+                        node++;
+                }
+                binNo = node - leafOffset;
+            }
+            int residual = workspace.getBinResidual()[binNo] - duration;
+            workspace.getBinResidual()[binNo] = residual;
+            binIndexPerItem[item] = binNo;
+            int node = leafOffset + binNo;
+            maxResidual[node] = residual;
+            for (node >>= 1; node > 0; node >>= 1)
+                maxResidual[node] = Math.max(maxResidual[2 * node], maxResidual[2 * node + 1]);
+        }
+        return workspace.getNoOfBins();
+    }
+}
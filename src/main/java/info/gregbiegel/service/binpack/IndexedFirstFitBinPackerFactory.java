@@ -0,0 +1,17 @@
+package info.gregbiegel.service.binpack;
+
+/**
+ * An implementation of the IBinPackerFactory interface that creates objects
+ * than implement the first fit bin packing algorithm backed by a segment tree.
+ *
+ */
+public class IndexedFirstFitBinPackerFactory implements IBinPackerFactory {
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPackerFactory#createBinPacker()
+     */
+    @Override
+    public IBinPacker createBinPacker() {
+        return new IndexedFirstFitBinPacker();
+    }
+}
@@ -1,10 +1,5 @@
 package info.gregbiegel.service.binpack;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.logging.Logger;
-
-import info.gregbiegel.model.Event;
 import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
 
 /**
@@ -12,44 +7,43 @@ import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
  * sizes (to represent different session lengths at a conference). 
  *
  */
-public class NextFitBinPacker implements IBinPacker {
-
-    private static final Logger LOG = Logger.getLogger(NextFitBinPacker.class.getName());
+public class NextFitBinPacker extends AbstractPrimitiveBinPacker {
 
     /*
-     * @see
-     * info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.
-     * Event[], int[])
+     * @see info.gregbiegel.service.binpack.IPrimitiveBinPacker#pack(int[], int, int[], 
+     * info.gregbiegel.service.binpack.PackingWorkspace)
      */
     @Override
-    public List<List<Event>> pack(Event[] items, int[] binPattern) throws InvalidBinPatternException {
-        List<List<Event>> result = new ArrayList<>();
+    public int pack(int[] durations, int noOfItems, int[] binPattern, PackingWorkspace workspace)
+            throws InvalidBinPatternException {
         if (binPattern.length == 0)
             throw new InvalidBinPatternException();
-        if (items.length == 0)
-            return result;
+        workspace.reset(noOfItems);
+        if (noOfItems == 0)
+            return 0;
+        int maximumBinSize = 0;
+        for (int binSize : binPattern)
+            maximumBinSize = Math.max(maximumBinSize, binSize);
+        int[] binIndexPerItem = workspace.getBinIndexPerItem();
         int binPatternSize = binPattern.length;
-        List<Event> bin = new ArrayList<>();
-        result.add(bin);
+        int bin = workspace.openBin(binPattern[0]);
         int binSize = binPattern[0];
-        LOG.fine("Bin size " + binSize);
-        int currentBin = 1;
-        for (int i = 0; i < items.length; i++) {
-            LOG.fine("Packing event of size " + items[i].getDurationInMinutes());
-            if (binSize - items[i].getDurationInMinutes() >= 0) {
-                binSize -= items[i].getDurationInMinutes();
-                bin.add(items[i]);
-                LOG.fine("Item " + i + " is in bin " + currentBin);
-                continue;
-            } else {
-                bin = new ArrayList<>();
-                result.add(bin);
-                binSize = binPattern[currentBin % binPatternSize];
-                LOG.fine("Adding a bin of size " + binSize);
-                currentBin++;
-                i--;
+        for (int i = 0; i < noOfItems; i++) {
+            workspace.checkCancelled(i);
+            int duration = durations[i];
+            if (binSize < duration) {
+                // An event longer than every bin is placed in a bin of its own rather than
+                // opening new bins indefinitely
+                do {
+                    workspace.getBinResidual()[bin] = binSize;
+                    binSize = binPattern[(bin + 1) % binPatternSize];
+                    bin = workspace.openBin(binSize);
+                } while (binSize < duration && duration <= maximumBinSize);
             }
+            binSize -= duration;
+            binIndexPerItem[i] = bin;
         }
-        return result;
+        workspace.getBinResidual()[bin] = binSize;
+        return workspace.getNoOfBins();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.List;
+
+import info.gregbiegel.model.Event;
+
+/**
+ * The PackingResult class represents the outcome of a bin packing algorithm that can
+ * report on the quality of its result, namely the packed bins and whether the number 
+ * of bins used has been proven to be the minimum possible.
+ *
+ */
+public class PackingResult {
+
+    private final List<List<Event>> bins;
+    private final boolean provenOptimal;
+
+    public PackingResult(final List<List<Event>> bins, final boolean provenOptimal) {
+        this.bins = bins;
+        this.provenOptimal = provenOptimal;
+    }
+
+    public List<List<Event>> getBins() {
+        return bins;
+    }
+
+    public int getNoOfBins() {
+        return bins.size();
+    }
+
+    /**
+     * Returns true if no packing of the events into fewer bins exists
+     * 
+     * @return true if the number of bins used has been proven to be optimal
+     */
+    public boolean isProvenOptimal() {
+        return provenOptimal;
+    }
+}
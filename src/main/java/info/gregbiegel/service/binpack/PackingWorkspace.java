@@ -0,0 +1,196 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.Arrays;
+
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.jfr.BinOpenEvent;
+import info.gregbiegel.service.jfr.FlightRecorderSupport;
+
+/**
+ * The PackingWorkspace class holds the output of an {@link IPrimitiveBinPacker}, along with
+ * the scratch arrays the packers need while packing. Arrays are only ever grown, so a
+ * workspace that is reused across calls stops allocating once it has seen the largest
+ * input. A workspace must not be shared between threads while a packing is in progress.
+ * <p>
+ * A workspace may hold a {@link CancellationToken}, which the packers poll every few
+ * thousand items so that a packing can be abandoned part way through.
+ * <p>
+ * Opening a bin emits a sampled {@link BinOpenEvent} when Java Flight Recorder is recording.
+ *
+ */
+public class PackingWorkspace {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * The number of items placed between polls of the cancellation token, less one
+     */
+    private static final int CANCELLATION_CHECK_MASK = 0xFFF;
+
+    private int noOfItems;
+    private int noOfBins;
+    private int[] binIndexPerItem = EMPTY;
+    private int[] binResidual = EMPTY;
+
+    /**
+     * The order in which items were placed, when a packer does not place them in input order
+     */
+    private int[] placementOrder = EMPTY;
+    private boolean ordered;
+
+    private int[] durations = EMPTY;
+    private int[] residualTree = EMPTY;
+    private int[] sortCounts = EMPTY;
+    private int[] sortScratch = EMPTY;
+    private int[] bucketHead = EMPTY;
+    private int[] nextInBucket = EMPTY;
+    private long[] nonEmptyBuckets = new long[0];
+
+    private CancellationToken cancellationToken;
+
+    /**
+     * Gets the number of items in the last packing
+     *
+     * @return the number of items packed
+     */
+    public int getNoOfItems() {
+        return noOfItems;
+    }
+
+    /**
+     * Gets the number of bins used by the last packing
+     *
+     * @return the number of bins
+     */
+    public int getNoOfBins() {
+        return noOfBins;
+    }
+
+    /**
+     * Gets the bin each item was placed in. Only the first {@link #getNoOfItems()} entries are valid.
+     *
+     * @return the index of the bin of each item
+     */
+    public int[] getBinIndexPerItem() {
+        return binIndexPerItem;
+    }
+
+    /**
+     * Gets the remaining capacity of each bin. Only the first {@link #getNoOfBins()} entries are valid.
+     *
+     * @return the remaining capacity of each bin
+     */
+    public int[] getBinResidual() {
+        return binResidual;
+    }
+
+    /**
+     * Gets the index of the item that was placed at a position in the packing order. Items
+     * are placed in input order unless the packer sorts them first.
+     *
+     * @param position the position in the packing order
+     * @return the index of the item placed at that position
+     */
+    public int getPlacedItem(final int position) {
+        return ordered ? placementOrder[position] : position;
+    }
+
+    /**
+     * Sets the token that packings into this workspace poll for a request to stop
+     *
+     * @param cancellationToken the token, or null if packings cannot be cancelled
+     */
+    public void setCancellationToken(final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Polls the cancellation token once every few thousand items
+     *
+     * @param position the number of items placed so far
+     * @throws java.util.concurrent.CancellationException if the token has been cancelled
+     */
+    void checkCancelled(final int position) {
+        if ((position & CANCELLATION_CHECK_MASK) == 0 && cancellationToken != null)
+            cancellationToken.throwIfCancelled();
+    }
+
+    /**
+     * Prepares the workspace for a new packing
+     */
+    void reset(final int items) {
+        noOfItems = items;
+        noOfBins = 0;
+        ordered = false;
+        if (binIndexPerItem.length < items)
+            binIndexPerItem = new int[items];
+        if (binResidual.length < items)
+            binResidual = new int[Math.max(items, 16)];
+    }
+
+    /**
+     * Opens a new bin with the given capacity
+     *
+     * @return the index of the new bin
+     */
+    int openBin(final int capacity) {
+        if (noOfBins == binResidual.length)
+            binResidual = Arrays.copyOf(binResidual, Math.max(16, binResidual.length * 2));
+        binResidual[noOfBins] = capacity;
+        if (FlightRecorderSupport.AVAILABLE)
+            BinOpenEvent.sample(noOfBins, capacity, noOfItems);
+        return noOfBins++;
+    }
+
+    /**
+     * Gets an array to hold the placement order, which is recorded as used by the last packing
+     */
+    int[] orderPlacement() {
+        if (placementOrder.length < noOfItems)
+            placementOrder = new int[noOfItems];
+        ordered = true;
+        return placementOrder;
+    }
+
+    int[] durations(final int size) {
+        if (durations.length < size)
+            durations = new int[size];
+        return durations;
+    }
+
+    int[] residualTree(final int size) {
+        if (residualTree.length < size)
+            residualTree = new int[size];
+        return residualTree;
+    }
+
+    int[] sortCounts(final int size) {
+        if (sortCounts.length < size)
+            sortCounts = new int[size];
+        return sortCounts;
+    }
+
+    int[] sortScratch(final int size) {
+        if (sortScratch.length < size)
+            sortScratch = new int[size];
+        return sortScratch;
+    }
+
+    int[] bucketHead(final int size) {
+        if (bucketHead.length < size)
+            bucketHead = new int[size];
+        return bucketHead;
+    }
+
+    int[] nextInBucket(final int size) {
+        if (nextInBucket.length < size)
+            nextInBucket = new int[size];
+        return nextInBucket;
+    }
+
+    long[] nonEmptyBuckets(final int size) {
+        if (nonEmptyBuckets.length < size)
+            nonEmptyBuckets = new long[size];
+        return nonEmptyBuckets;
+    }
+}
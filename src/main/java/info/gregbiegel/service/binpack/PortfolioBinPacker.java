@@ -0,0 +1,219 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+/**
+ * An implementation of bin packing that runs a portfolio of bin packing algorithms
+ * concurrently on a fork/join pool, and keeps the packing that uses the fewest bins,
+ * breaking ties by the most time left in the final bin. Any cores that are left over once every
+ * algorithm has been started are used to run the First Fit algorithm over randomly
+ * shuffled copies of the input. Every algorithm polls a token of its own for the packing,
+ * which is cancelled as soon as a packing that reaches the lower bound on the number of
+ * bins is found, or the deadline expires, so that the remaining algorithms stop and free
+ * their cores. The token is a child of the caller's token, so all of the algorithms are
+ * also cancelled when the caller cancels the packing.
+ *
+ */
+public class PortfolioBinPacker implements IBinPacker {
+
+    private static final Logger LOG = Logger.getLogger(PortfolioBinPacker.class.getName());
+
+    private final List<IBinPackerFactory> binPackerFactories;
+    private final ForkJoinPool pool;
+    private final long timeBudgetMillis;
+
+    /**
+     * Instantiates a new object
+     *
+     * @param binPackerFactories factories for the algorithms to run in the portfolio
+     * @param pool the pool to run the algorithms on
+     * @param timeBudgetMillis the time the portfolio may run for
+     */
+    public PortfolioBinPacker(final List<IBinPackerFactory> binPackerFactories, final ForkJoinPool pool,
+            final long timeBudgetMillis) {
+        this.binPackerFactories = binPackerFactories;
+        this.pool = pool;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.Event[], int[])
+     */
+    @Override
+    public List<List<Event>> pack(Event[] items, int[] binPattern) throws InvalidBinPatternException {
+        return pack(items, binPattern, System.nanoTime() + timeBudgetMillis * 1_000_000L).getBins();
+    }
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPacker#pack(info.gregbiegel.model.Event[], int[], 
+     * info.gregbiegel.service.concurrent.CancellationToken)
+     */
+    @Override
+    public List<List<Event>> pack(Event[] items, int[] binPattern, CancellationToken cancellationToken)
+            throws InvalidBinPatternException {
+        return pack(items, binPattern, System.nanoTime() + timeBudgetMillis * 1_000_000L, cancellationToken).getBins();
+    }
+
+    /**
+     * Packs the provided events by racing the portfolio of algorithms against each other
+     * until the deadline.
+     *
+     * @param items an array of event objects to be packed into bins
+     * @param binPattern the pattern of bin sizes to use
+     * @param deadlineNanos the value of {@link System#nanoTime()} at which the portfolio must stop
+     * @return the best packing found, and whether it has been proven optimal
+     * @throws InvalidBinPatternException if an invalid bin pattern is provided
+     */
+    public PackingResult pack(final Event[] items, final int[] binPattern, final long deadlineNanos)
+            throws InvalidBinPatternException {
+        return pack(items, binPattern, deadlineNanos, new CancellationToken());
+    }
+
+    /**
+     * Packs the provided events by racing the portfolio of algorithms against each other
+     * until the deadline, or until the caller cancels the packing.
+     *
+     * @param items an array of event objects to be packed into bins
+     * @param binPattern the pattern of bin sizes to use
+     * @param deadlineNanos the value of {@link System#nanoTime()} at which the portfolio must stop
+     * @param cancellationToken polled by every algorithm in the portfolio for a request to stop
+     * @return the best packing found, and whether it has been proven optimal
+     * @throws InvalidBinPatternException if an invalid bin pattern is provided
+     * @throws CancellationException if the token is cancelled before the packing is complete
+     */
+    public PackingResult pack(final Event[] items, final int[] binPattern, final long deadlineNanos,
+            final CancellationToken cancellationToken) throws InvalidBinPatternException {
+        if (binPattern.length == 0)
+            throw new InvalidBinPatternException();
+        if (items.length == 0)
+            return new PackingResult(new ArrayList<List<Event>>(), true);
+
+        int lowerBound = FeasibilityAnalyzer.analyze(items, binPattern).getBinLowerBound();
+        AtomicReference<Candidate> best = new AtomicReference<>();
+        // Stops every algorithm in the portfolio, without cancelling the caller's token
+        CancellationToken portfolioToken = cancellationToken.withDeadline(deadlineNanos);
+        CompletableFuture<Void> lowerBoundReached = new CompletableFuture<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        List<Callable<PackingResult>> packers = new ArrayList<>();
+        for (IBinPackerFactory factory : binPackerFactories) {
+            IBinPacker binPacker = factory.createBinPacker();
+            if (binPacker instanceof BranchAndBoundBinPacker) {
+                packers.add(() -> ((BranchAndBoundBinPacker) binPacker).pack(items, binPattern,
+                        deadlineNanos, portfolioToken::isCancelled));
+            } else {
+                packers.add(() -> new PackingResult(binPacker.pack(items.clone(), binPattern, portfolioToken), 
+                        false));
+            }
+        }
+        int spareCores = Math.max(0, pool.getParallelism() - packers.size());
+        for (int variant = 0; variant < spareCores; variant++) {
+            long seed = variant;
+            packers.add(() -> new PackingResult(new IndexedFirstFitBinPacker().pack(
+                    shuffle(items, new Random(seed)), binPattern, portfolioToken), false));
+        }
+
+        for (int i = 0; i < packers.size(); i++) {
+            int order = i;
+            Callable<PackingResult> packer = packers.get(i);
+            tasks.add(CompletableFuture.runAsync(() -> {
+                if (portfolioToken.isCancelled())
+                    return;
+                try {
+                    Candidate candidate = new Candidate(packer.call(), binPattern, order);
+                    best.accumulateAndGet(candidate, Candidate::better);
+                    if (candidate.result.getNoOfBins() <= lowerBound)
+                        lowerBoundReached.complete(null);
+                } catch (CancellationException e) {
+                    LOG.fine("Bin packer in portfolio " + order + " cancelled");
+                } catch (Exception e) {
+                    LOG.log(Level.WARNING, "Bin packer in portfolio failed", e);
+                }
+            }, pool));
+        }
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])),
+                    lowerBoundReached).get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            LOG.fine("Portfolio deadline expired");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOG.log(Level.WARNING, "Portfolio failed", e);
+        }
+        portfolioToken.cancel();
+        for (CompletableFuture<Void> task : tasks)
+            task.cancel(false);
+        cancellationToken.throwIfCancelled();
+
+        Candidate winner = best.get();
+        if (winner == null) // Nothing finished in time, fall back to a packing that is always quick
+            return new PackingResult(new IndexedFirstFitBinPacker().pack(items, binPattern), false);
+        LOG.fine("Portfolio packer " + winner.order + " won with " + winner.result.getNoOfBins() + " bins");
+        return new PackingResult(winner.result.getBins(),
+                winner.result.isProvenOptimal() || winner.result.getNoOfBins() <= lowerBound);
+    }
+
+    private static Event[] shuffle(final Event[] items, final Random random) {
+        Event[] shuffled = items.clone();
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Event swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        return shuffled;
+    }
+
+    /**
+     * The Candidate class holds a packing produced by one algorithm in the portfolio,
+     * along with the measures used to rank it.
+     *
+     */
+    static class Candidate {
+
+        private final PackingResult result;
+        private final int finalBinRemaining;
+        private final int order;
+
+        Candidate(final PackingResult result, final int[] binPattern, final int order) {
+            this.result = result;
+            this.order = order;
+            // Every packing into the same number of bins wastes the same total time, so it is the
+            // time left in the final bin that differs between them
+            List<List<Event>> bins = result.getBins();
+            int remaining = 0;
+            if (!bins.isEmpty()) {
+                remaining = binPattern[(bins.size() - 1) % binPattern.length];
+                for (Event event : bins.get(bins.size() - 1))
+                    remaining -= event.getDurationInMinutes();
+            }
+            this.finalBinRemaining = remaining;
+        }
+
+        /**
+         * Chooses the better of two candidates, preferring fewer bins, then the most time left
+         * in the final bin, so that the last session of the conference finishes earliest, and
+         * finally the algorithm registered first so that the result does not depend on which
+         * algorithm happened to finish first
+         */
+        static Candidate better(final Candidate a, final Candidate b) {
+            if (a == null)
+                return b;
+            if (a.result.getNoOfBins() != b.result.getNoOfBins())
+                return a.result.getNoOfBins() < b.result.getNoOfBins() ? a : b;
+            if (a.finalBinRemaining != b.finalBinRemaining)
+                return a.finalBinRemaining > b.finalBinRemaining ? a : b;
+            return a.order <= b.order ? a : b;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package info.gregbiegel.service.binpack;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An implementation of the IBinPackerFactory interface that creates objects
+ * than run a portfolio of bin packing algorithms concurrently.
+ *
+ */
+public class PortfolioBinPackerFactory implements IBinPackerFactory {
+
+    /**
+     * The algorithms raced by default. The linear scan First Fit packer is left out as 
+     * the indexed First Fit packer always produces the same packing in less time.
+     */
+    private static final List<IBinPackerFactory> DEFAULT_BIN_PACKER_FACTORIES = Arrays.asList(
+            new NextFitBinPackerFactory(),
+            new IndexedFirstFitBinPackerFactory(),
+            new FirstFitDecreasingBinPackerFactory(),
+            new BestFitDecreasingBinPackerFactory(),
+            new HistogramBinPackerFactory(),
+            new BranchAndBoundBinPackerFactory());
+
+    /**
+     * The pool the default portfolio runs on, created when it is first used. The portfolio
+     * keeps every core busy until it is stopped, so it has a pool of its own rather than
+     * sharing the common pool with the parallel file reader, the track materializer and
+     * asynchronous requests, which it would otherwise starve.
+     */
+    private static class DefaultPool {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    private final List<IBinPackerFactory> binPackerFactories;
+    private final ForkJoinPool pool;
+    private final long timeBudgetMillis;
+
+    public PortfolioBinPackerFactory() {
+        this(DEFAULT_BIN_PACKER_FACTORIES, null, BranchAndBoundBinPacker.DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * Instantiates a new object
+     *
+     * @param binPackerFactories factories for the algorithms to run in the portfolio
+     * @param pool the pool to run the algorithms on, or null for a pool shared by the default portfolios
+     * @param timeBudgetMillis the time the portfolio may run for
+     */
+    public PortfolioBinPackerFactory(final List<IBinPackerFactory> binPackerFactories, 
+            final ForkJoinPool pool, final long timeBudgetMillis) {
+        this.binPackerFactories = binPackerFactories;
+        this.pool = pool;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /*
+     * @see info.gregbiegel.service.binpack.IBinPackerFactory#createBinPacker()
+     */
+    @Override
+    public IBinPacker createBinPacker() {
+        return new PortfolioBinPacker(binPackerFactories, pool != null ? pool : DefaultPool.POOL, timeBudgetMillis);
+    }
+}
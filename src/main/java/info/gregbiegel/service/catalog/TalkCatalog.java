@@ -0,0 +1,178 @@
+package info.gregbiegel.service.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import info.gregbiegel.model.Event;
+
+/**
+ * A read-only view of a talk catalog file, which holds talks in a binary columnar format
+ * so that they can be loaded without parsing. All values are big-endian, and the file is
+ * laid out as follows:-
+ * <ul>
+ *  <li>A header of four ints: the magic number, the format version, the number of talks
+ *   and a reserved value</li>
+ *  <li>The duration column, one int per talk</li>
+ *  <li>The id column, one int per talk</li>
+ *  <li>The title table, holding the UTF-8 bytes of each title prefixed by their length as an int</li>
+ * </ul>
+ * The file is memory-mapped, so the duration and id columns are read straight into the
+ * int arrays used by the bin packers, and titles are only decoded when they are requested.
+ *
+ */
+public class TalkCatalog {
+
+    /**
+     * The first four bytes of every talk catalog file, 'TKCT'
+     */
+    public static final int MAGIC = 0x544B4354;
+
+    /**
+     * The version of the format written by {@link TalkCatalogWriter}
+     */
+    public static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int noOfTalks;
+    private final int idsOffset;
+
+    /**
+     * The offset of the length prefix of each title in the title table
+     */
+    private final int[] titleOffsets;
+
+    /**
+     * Instantiates a new object over a buffer holding a talk catalog
+     *
+     * @param buffer the catalog data, starting at the header
+     * @throws IOException if the buffer does not hold a valid talk catalog
+     */
+    public TalkCatalog(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a talk catalog");
+        if (buffer.getInt(Integer.BYTES) != VERSION)
+            throw new IOException("Unsupported talk catalog version " + buffer.getInt(Integer.BYTES));
+        noOfTalks = buffer.getInt(2 * Integer.BYTES);
+        if (noOfTalks < 0 || HEADER_SIZE + 2L * noOfTalks * Integer.BYTES > buffer.limit())
+            throw new IOException("Talk catalog is truncated");
+        idsOffset = HEADER_SIZE + noOfTalks * Integer.BYTES;
+        titleOffsets = new int[noOfTalks];
+        long offset = idsOffset + noOfTalks * Integer.BYTES;
+        for (int i = 0; i < noOfTalks; i++) {
+            if (offset + Integer.BYTES > buffer.limit())
+                throw new IOException("Talk catalog is truncated");
+            titleOffsets[i] = (int) offset;
+            int titleLength = buffer.getInt((int) offset);
+            if (titleLength < 0)
+                throw new IOException("Talk catalog title table is corrupt");
+            offset += Integer.BYTES + titleLength;
+        }
+        if (offset > buffer.limit())
+            throw new IOException("Talk catalog is truncated");
+    }
+
+    /**
+     * Memory-maps a talk catalog file
+     *
+     * @param file the catalog file
+     * @return a view of the catalog
+     * @throws IOException if there is a problem reading the file, or it is not a valid talk catalog
+     */
+    public static TalkCatalog open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Talk catalog is too large to map");
+            return new TalkCatalog(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Determines if a file is a talk catalog, by checking for the magic number
+     *
+     * @param file the file to check
+     * @return true if the file starts with the talk catalog magic number
+     * @throws IOException if there is a problem reading the file
+     */
+    public static boolean isTalkCatalog(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) > 0)
+                ;
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    public int getNoOfTalks() {
+        return noOfTalks;
+    }
+
+    public int getId(final int talk) {
+        return buffer.getInt(idsOffset + talk * Integer.BYTES);
+    }
+
+    public int getDurationInMinutes(final int talk) {
+        return buffer.getInt(HEADER_SIZE + talk * Integer.BYTES);
+    }
+
+    /**
+     * Reads the duration column, in the form taken by the
+     * {@link info.gregbiegel.service.binpack.IPrimitiveBinPacker}
+     *
+     * @return the duration of each talk, in catalog order
+     */
+    public int[] getDurations() {
+        return readColumn(HEADER_SIZE);
+    }
+
+    /**
+     * Reads the id column
+     *
+     * @return the id of each talk, in catalog order
+     */
+    public int[] getIds() {
+        return readColumn(idsOffset);
+    }
+
+    /**
+     * Decodes the title of a talk
+     *
+     * @param talk the index of the talk in the catalog
+     * @return the title of the talk
+     */
+    public String getTitle(final int talk) {
+        int offset = titleOffsets[talk];
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = buffer.get(offset + Integer.BYTES + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates an event for every talk in the catalog
+     *
+     * @return the events, in catalog order
+     */
+    public List<Event> toEvents() {
+        Event[] events = new Event[noOfTalks];
+        for (int i = 0; i < noOfTalks; i++)
+            events[i] = new Event(getId(i), getTitle(i), getDurationInMinutes(i));
+        return Arrays.asList(events);
+    }
+
+    private int[] readColumn(final int offset) {
+        int[] column = new int[noOfTalks];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.asIntBuffer().get(column);
+        return column;
+    }
+}
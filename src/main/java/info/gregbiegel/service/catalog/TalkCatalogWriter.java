@@ -0,0 +1,103 @@
+package info.gregbiegel.service.catalog;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Logger;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.exception.EventParserException;
+import info.gregbiegel.service.parser.MappedTalkFileParser;
+
+/**
+ * Writes talks to the binary talk catalog format read by {@link TalkCatalog}, and
+ * converts talk data files in the text format to talk catalogs.
+ *
+ */
+public final class TalkCatalogWriter {
+
+    private static final Logger LOG = Logger.getLogger(TalkCatalogWriter.class.getName());
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private TalkCatalogWriter() {
+    }
+
+    /**
+     * Converts a talk data file in the text format to a talk catalog. Talks are assigned
+     * ids in the order they appear, as when the text file is read directly.
+     *
+     * @param textFile the talk data file to convert
+     * @param catalogFile the talk catalog file to write
+     * @param firstId the id to assign to the first talk
+     * @return the number of talks written
+     * @throws IOException if there is a problem reading or writing either file
+     * @throws EventParserException if a talk in the text file cannot be parsed
+     */
+    public static int convert(final Path textFile, final Path catalogFile, final int firstId) throws IOException {
+        Columns columns = new Columns();
+        new MappedTalkFileParser().parse(textFile, firstId, columns::add);
+        write(catalogFile, columns.ids, columns.durations, columns.titles, columns.size);
+        LOG.fine("Converted " + columns.size + " talks from " + textFile + " to " + catalogFile);
+        return columns.size;
+    }
+
+    /**
+     * Writes events to a talk catalog, in iteration order
+     *
+     * @param catalogFile the talk catalog file to write
+     * @param events the events to write
+     * @throws IOException if there is a problem writing the file
+     */
+    public static void write(final Path catalogFile, final Collection<? extends Event> events) throws IOException {
+        Columns columns = new Columns();
+        for (Event event : events)
+            columns.add(event.getId(), event.getTitle(), event.getDurationInMinutes());
+        write(catalogFile, columns.ids, columns.durations, columns.titles, columns.size);
+    }
+
+    private static void write(final Path catalogFile, final int[] ids, final int[] durations, final String[] titles,
+            final int size) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(catalogFile), OUTPUT_BUFFER_SIZE))) {
+            output.writeInt(TalkCatalog.MAGIC);
+            output.writeInt(TalkCatalog.VERSION);
+            output.writeInt(size);
+            output.writeInt(0);
+            for (int i = 0; i < size; i++)
+                output.writeInt(durations[i]);
+            for (int i = 0; i < size; i++)
+                output.writeInt(ids[i]);
+            for (int i = 0; i < size; i++) {
+                byte[] title = titles[i].getBytes(StandardCharsets.UTF_8);
+                output.writeInt(title.length);
+                output.write(title);
+            }
+        }
+    }
+
+    /**
+     * The Columns class collects talks into growable column arrays
+     *
+     */
+    private static class Columns {
+
+        private int[] ids = new int[1024];
+        private int[] durations = new int[1024];
+        private String[] titles = new String[1024];
+        private int size;
+
+        void add(final int id, final String title, final int durationInMinutes) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                durations = Arrays.copyOf(durations, size * 2);
+                titles = Arrays.copyOf(titles, size * 2);
+            }
+            ids[size] = id;
+            durations[size] = durationInMinutes;
+            titles[size++] = title;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package info.gregbiegel.service.concurrent;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * A flag that a caller sets to ask long running work to stop, which the work polls
+ * cooperatively at points where it can stop cleanly, such as every few thousand lines
+ * parsed or items packed. A token may also carry a deadline, after which it reads as
+ * cancelled without anyone setting it.
+ * <p>
+ * A token created by {@link #withDeadline(long)} is cancelled when its parent is, but
+ * cancelling it does not cancel the parent, so one token held by a caller can be shared
+ * by many requests that each have their own deadline.
+ *
+ */
+public class CancellationToken {
+
+    private final CancellationToken parent;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    /**
+     * Instantiates a new token, which has no deadline and is only cancelled by {@link #cancel()}
+     */
+    public CancellationToken() {
+        this(null, false, 0);
+    }
+
+    private CancellationToken(final CancellationToken parent, final boolean hasDeadline, final long deadlineNanos) {
+        this.parent = parent;
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a token that is cancelled when this token is, or once the deadline expires
+     *
+     * @param deadlineNanos the value of {@link System#nanoTime()} at which the token is cancelled
+     * @return the new token
+     */
+    public CancellationToken withDeadline(final long deadlineNanos) {
+        return new CancellationToken(this, true, deadlineNanos);
+    }
+
+    /**
+     * Asks the work that polls this token, and any token created from it, to stop
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns true if this token or its parent has been cancelled, or a deadline has expired
+     *
+     * @return true if the work should stop
+     */
+    public boolean isCancelled() {
+        return cancelled || isDeadlineExpired() || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * Returns true if the deadline of this token or of its parent has expired
+     *
+     * @return true if a deadline has expired
+     */
+    public boolean isDeadlineExpired() {
+        return (hasDeadline && System.nanoTime() - deadlineNanos >= 0)
+                || (parent != null && parent.isDeadlineExpired());
+    }
+
+    /**
+     * Stops the calling work if the token has been cancelled
+     *
+     * @throws CancellationException if the token has been cancelled or a deadline has expired
+     */
+    public void throwIfCancelled() throws CancellationException {
+        if (isCancelled())
+            throw new CancellationException(isDeadlineExpired() ? "Deadline expired" : "Cancelled");
+    }
+}
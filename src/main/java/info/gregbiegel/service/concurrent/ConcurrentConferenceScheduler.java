@@ -0,0 +1,280 @@
+package info.gregbiegel.service.concurrent;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.exception.ConferenceSchedulerException;
+import info.gregbiegel.service.exception.ScheduleException;
+
+/**
+ * Schedules talks into a live conference as they are submitted from many threads, without
+ * locking. Talks are placed first fit: the remaining time of every session is held in an
+ * {@link AtomicIntegerArray}, and a talk claims time in the first session with enough
+ * remaining by compare-and-set, which also fixes its start time. Tracks are held in
+ * segments of a fixed number of tracks, and when no session has enough time a new
+ * segment is appended to the chain of segments by compare-and-set.
+ * <p>
+ * Submitting does not start from the first segment. A hint holds the first segment that may
+ * still have room for the shortest talk submitted so far, and it is advanced by
+ * compare-and-set once a segment fills. Remaining time only shrinks, so no talk can fit
+ * into a segment before the hint. The one exception is a talk shorter than any before it,
+ * which moves the hint back to the first segment.
+ * <p>
+ * Readers take a snapshot of the schedule as a {@link Conference}. Every talk in the
+ * snapshot has the start time it was given when it was submitted, and a talk is only
+ * included when every talk before it in its session has been recorded, so sessions in the
+ * snapshot never have gaps. Talks still being submitted appear in later snapshots.
+ *
+ */
+public class ConcurrentConferenceScheduler {
+
+    /**
+     * The default number of tracks in each segment
+     */
+    public static final int DEFAULT_TRACKS_PER_SEGMENT = 64;
+
+    private final TrackTemplate template;
+    private final int noOfSessions;
+    private final int tracksPerSegment;
+    private final Segment firstSegment;
+
+    /**
+     * The first segment that may have a session with room for the shortest talk submitted
+     */
+    private final AtomicReference<Segment> firstOpenSegment;
+
+    /**
+     * The duration of the shortest talk submitted
+     */
+    private final AtomicInteger shortestDurationInMinutes = new AtomicInteger(Integer.MAX_VALUE);
+
+    /**
+     * The number of talks that have been placed
+     */
+    private final AtomicInteger noOfTalks = new AtomicInteger();
+
+    /**
+     * The index of the last track that a talk has been placed in
+     */
+    private final AtomicInteger lastTrackIndex = new AtomicInteger(-1);
+
+    /**
+     * Instantiates a new object, using the default number of tracks per segment
+     *
+     * @param template the layout of each track
+     */
+    public ConcurrentConferenceScheduler(final TrackTemplate template) {
+        this(template, DEFAULT_TRACKS_PER_SEGMENT);
+    }
+
+    /**
+     * Instantiates a new object
+     *
+     * @param template the layout of each track
+     * @param tracksPerSegment the number of tracks added to the conference at a time
+     */
+    public ConcurrentConferenceScheduler(final TrackTemplate template, final int tracksPerSegment) {
+        if (tracksPerSegment <= 0)
+            throw new IllegalArgumentException("Tracks per segment must be positive");
+        this.template = template;
+        this.noOfSessions = template.getNoOfSessions();
+        this.tracksPerSegment = tracksPerSegment;
+        firstSegment = new Segment(0);
+        firstOpenSegment = new AtomicReference<>(firstSegment);
+    }
+
+    /**
+     * Places a talk in the first session of the conference with enough time remaining,
+     * adding tracks to the conference if there is none
+     *
+     * @param event the talk to place
+     * @return where the talk was placed
+     * @throws ConferenceSchedulerException if the talk is longer than every session
+     */
+    public Placement submit(final Event event) throws ConferenceSchedulerException {
+        int durationInMinutes = event.getDurationInMinutes();
+        if (durationInMinutes <= 0)
+            throw new ConferenceSchedulerException("Event duration must be positive");
+        if (durationInMinutes > template.getMaximumDurationInMinutes())
+            throw new ConferenceSchedulerException("There is an event that is longer than the available sessions");
+        // Segments that were full for the talks so far may have room for a shorter talk
+        if (durationInMinutes < shortestDurationInMinutes.getAndAccumulate(durationInMinutes, Math::min))
+            firstOpenSegment.set(firstSegment);
+        for (Segment segment = firstOpenSegment.get(); ; segment = segment.nextOrAppend()) {
+            Placement placement = segment.place(event);
+            if (placement != null) {
+                noOfTalks.incrementAndGet();
+                lastTrackIndex.accumulateAndGet(placement.getTrackIndex(), Math::max);
+                return placement;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of talks that have been placed
+     *
+     * @return the number of talks
+     */
+    public int getNoOfTalks() {
+        return noOfTalks.get();
+    }
+
+    /**
+     * Gets the number of tracks that talks have been placed in
+     *
+     * @return the number of tracks
+     */
+    public int getNoOfTracks() {
+        return lastTrackIndex.get() + 1;
+    }
+
+    /**
+     * Takes a snapshot of the schedule, as described above
+     *
+     * @return a conference holding the talks that have been recorded, in which the breaks
+     *  of each track have been placed
+     */
+    public Conference snapshot() {
+        int noOfTracks = getNoOfTracks();
+        Conference conference = new Conference();
+        Segment segment = firstSegment;
+        for (int trackIndex = 0; trackIndex < noOfTracks; trackIndex++) {
+            if (trackIndex == segment.firstTrackIndex + tracksPerSegment)
+                segment = segment.next.get();
+            Track track = template.createTrack();
+            for (int sessionNo = 0; sessionNo < noOfSessions; sessionNo++)
+                segment.copySession((trackIndex - segment.firstTrackIndex) * noOfSessions + sessionNo, 
+                        track.getSession(sessionNo));
+            track.updateBreaks();
+            conference.addTrack(track);
+        }
+        return conference;
+    }
+
+    /**
+     * A talk recorded in a session, in a stack of the talks of the session
+     */
+    private static final class ScheduledSlot {
+        private final Event event;
+        private final int startOffset;
+        private final ScheduledSlot next;
+
+        ScheduledSlot(final Event event, final int startOffset, final ScheduledSlot next) {
+            this.event = event;
+            this.startOffset = startOffset;
+            this.next = next;
+        }
+    }
+
+    /**
+     * A block of tracks, holding the remaining time of each of their sessions and the
+     * talks recorded in each session
+     */
+    private final class Segment {
+        private final int firstTrackIndex;
+        private final AtomicIntegerArray remainingMinutes;
+        private final AtomicReferenceArray<ScheduledSlot> slots;
+        private final AtomicReference<Segment> next = new AtomicReference<>();
+
+        Segment(final int firstTrackIndex) {
+            this.firstTrackIndex = firstTrackIndex;
+            remainingMinutes = new AtomicIntegerArray(tracksPerSegment * noOfSessions);
+            slots = new AtomicReferenceArray<>(tracksPerSegment * noOfSessions);
+            for (int session = 0; session < remainingMinutes.length(); session++)
+                remainingMinutes.set(session, template.getMaximumDurationInMinutes(session % noOfSessions));
+        }
+
+        /**
+         * Claims time for a talk in the first session of the segment with enough remaining,
+         * and records the talk in the session. If no session has room for the shortest talk,
+         * the hint is moved past the segment.
+         *
+         * @return where the talk was placed, or null if no session has enough time remaining
+         */
+        Placement place(final Event event) {
+            int durationInMinutes = event.getDurationInMinutes();
+            int mostRemaining = 0;
+            for (int session = 0; session < remainingMinutes.length(); session++) {
+                int remaining;
+                while ((remaining = remainingMinutes.get(session)) >= durationInMinutes) {
+                    if (remainingMinutes.compareAndSet(session, remaining, remaining - durationInMinutes)) {
+                        int sessionNo = session % noOfSessions;
+                        int startOffset = template.getMaximumDurationInMinutes(sessionNo) - remaining;
+                        ScheduledSlot head;
+                        do {
+                            head = slots.get(session);
+                        } while (!slots.compareAndSet(session, head, new ScheduledSlot(event, startOffset, head)));
+                        return new Placement(firstTrackIndex + session / noOfSessions, sessionNo, 
+                                template.getSessionStartMinute(sessionNo) + startOffset);
+                    }
+                }
+                mostRemaining = Math.max(mostRemaining, remaining);
+            }
+            if (mostRemaining < shortestDurationInMinutes.get())
+                firstOpenSegment.compareAndSet(this, nextOrAppend());
+            return null;
+        }
+
+        /**
+         * Gets the segment after this one, appending a new segment if this is the last
+         */
+        Segment nextOrAppend() {
+            Segment nextSegment = next.get();
+            if (nextSegment != null)
+                return nextSegment;
+            next.compareAndSet(null, new Segment(firstTrackIndex + tracksPerSegment));
+            return next.get();
+        }
+
+        /**
+         * Schedules the talks of a session that start without a gap after the start of the
+         * session into an empty session of a track
+         */
+        void copySession(final int session, final Session target) {
+            List<ScheduledSlot> recorded = new ArrayList<>();
+            for (ScheduledSlot slot = slots.get(session); slot != null; slot = slot.next)
+                recorded.add(slot);
+            recorded.sort(Comparator.comparingInt(slot -> slot.startOffset));
+            int endOffset = 0;
+            for (ScheduledSlot slot : recorded) {
+                if (slot.startOffset != endOffset)
+                    break;
+                try {
+                    target.scheduleEventInSession(slot.event, false);
+                } catch (ScheduleException e) {
+                    // The claimed time always fits within the session
+                    throw new IllegalStateException(e);
+                }
+                endOffset += slot.event.getDurationInMinutes();
+            }
+        }
+    }
+
+    /**
+     * The session a talk was placed in, and the time it was given
+     */
+    public static final class Placement {
+        private final int trackIndex;
+        private final int sessionNo;
+        private final int startMinuteOfDay;
+
+        Placement(final int trackIndex, final int sessionNo, final int startMinuteOfDay) {
+            this.trackIndex = trackIndex;
+            this.sessionNo = sessionNo;
+            this.startMinuteOfDay = startMinuteOfDay;
+        }
+
+        public int getTrackIndex() {
+            return trackIndex;
+        }
+
+        public int getSessionNo() {
+            return sessionNo;
+        }
+
+        public int getStartMinuteOfDay() {
+            return startMinuteOfDay;
+        }
+    }
+}
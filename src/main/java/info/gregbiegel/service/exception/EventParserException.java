@@ -6,11 +6,26 @@ package info.gregbiegel.service.exception;
  */
 public class EventParserException extends RuntimeException {
 
+    /**
+     * The line of the input the event was read from, or 0 if it is not known
+     */
+    private final long lineNumber;
+
     public EventParserException(final String message) {
-        super(message);
+        this(message, 0);
     }
     
     public EventParserException(final String message, final Throwable cause) {
         super(message, cause);
+        this.lineNumber = 0;
+    }
+
+    public EventParserException(final String message, final long lineNumber) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
     }
 }
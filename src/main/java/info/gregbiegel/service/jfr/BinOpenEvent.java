@@ -0,0 +1,55 @@
+package info.gregbiegel.service.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The BinOpenEvent class is a Java Flight Recorder event recording the opening of a new bin
+ * (session) by a packer. Bins are opened in the innermost loop of packing, so only one in
+ * every {@link #SAMPLE_INTERVAL} bins is recorded, which is enough to follow the progress
+ * of a large packing.
+ *
+ */
+@Name("info.gregbiegel.BinOpen")
+@Label("Bin Open")
+@Category({ "Conference Scheduler", "Packing" })
+@Description("A packer opened a new session, sampled one in every 64 sessions")
+@StackTrace(false)
+public class BinOpenEvent extends Event {
+
+    /**
+     * The number of bins opened for each event recorded
+     */
+    public static final int SAMPLE_INTERVAL = 64;
+
+    private static final int SAMPLE_MASK = SAMPLE_INTERVAL - 1;
+
+    @Label("Bin Index")
+    int binIndex;
+
+    @Label("Capacity")
+    @Description("The length of the session in minutes")
+    int capacity;
+
+    @Label("Items")
+    @Description("The number of items being packed")
+    int noOfItems;
+
+    /**
+     * Records the opening of a bin, if it is one of the sampled bins and the event is being recorded
+     *
+     * @param binIndex the index of the new bin
+     * @param capacity the capacity of the new bin
+     * @param noOfItems the number of items being packed
+     */
+    public static void sample(final int binIndex, final int capacity, final int noOfItems) {
+        if ((binIndex & SAMPLE_MASK) != 0)
+            return;
+        BinOpenEvent event = new BinOpenEvent();
+        if (event.shouldCommit()) {
+            event.binIndex = binIndex;
+            event.capacity = capacity;
+            event.noOfItems = noOfItems;
+            event.commit();
+        }
+    }
+}
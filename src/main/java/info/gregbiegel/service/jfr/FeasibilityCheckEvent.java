@@ -0,0 +1,49 @@
+package info.gregbiegel.service.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The FeasibilityCheckEvent class is a Java Flight Recorder event recording the analysis of
+ * a set of talks against the sessions of a track, before they are packed.
+ *
+ */
+@Name("info.gregbiegel.FeasibilityCheck")
+@Label("Feasibility Check")
+@Category({ "Conference Scheduler", "Phases" })
+@Description("Checking that every talk fits a session, and bounding the number of sessions needed")
+public class FeasibilityCheckEvent extends Event {
+
+    @Label("Talks")
+    int noOfTalks;
+
+    @Label("Feasible")
+    boolean feasible;
+
+    @Label("Session Lower Bound")
+    int binLowerBound;
+
+    /**
+     * Instantiates a new event, which begins timing straight away. Events are only created
+     * when {@link FlightRecorderSupport#AVAILABLE} is true.
+     */
+    public FeasibilityCheckEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the event and commits it if it is being recorded
+     *
+     * @param noOfTalks the number of talks analysed
+     * @param feasible whether every talk fits into a session
+     * @param binLowerBound the lower bound on the number of sessions
+     */
+    public void commit(final int noOfTalks, final boolean feasible, final int binLowerBound) {
+        end();
+        if (shouldCommit()) {
+            this.noOfTalks = noOfTalks;
+            this.feasible = feasible;
+            this.binLowerBound = binLowerBound;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package info.gregbiegel.service.jfr;
+
+/**
+ * The FlightRecorderSupport class records whether the JVM provides the Java Flight Recorder
+ * event API, which Java 8 JVMs before update 262 do not. The events of this package extend
+ * {@code jdk.jfr.Event}, so they are only created when the API is available, and scheduling
+ * runs without recording events otherwise. This class must not refer to the API itself.
+ *
+ */
+public final class FlightRecorderSupport {
+
+    /**
+     * Whether the events of this package can be created, checked once when the class is loaded
+     */
+    public static final boolean AVAILABLE = isEventApiPresent();
+
+    private FlightRecorderSupport() {
+    }
+
+    private static boolean isEventApiPresent() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderSupport.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package info.gregbiegel.service.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The MaterializeEvent class is a Java Flight Recorder event recording the creation of the
+ * tracks of a conference from packed sessions.
+ *
+ */
+@Name("info.gregbiegel.Materialize")
+@Label("Materialize Tracks")
+@Category({ "Conference Scheduler", "Phases" })
+@Description("Creating the tracks of a conference from packed sessions")
+public class MaterializeEvent extends Event {
+
+    @Label("Sessions")
+    int noOfBins;
+
+    @Label("Tracks")
+    int noOfTracks;
+
+    @Label("Compact")
+    boolean compact;
+
+    /**
+     * Instantiates a new event, which begins timing straight away. Events are only created
+     * when {@link FlightRecorderSupport#AVAILABLE} is true.
+     */
+    public MaterializeEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the event and commits it if it is being recorded
+     *
+     * @param noOfBins the number of packed sessions
+     * @param noOfTracks the number of tracks created
+     * @param compact whether a compact conference was created
+     */
+    public void commit(final int noOfBins, final int noOfTracks, final boolean compact) {
+        end();
+        if (shouldCommit()) {
+            this.noOfBins = noOfBins;
+            this.noOfTracks = noOfTracks;
+            this.compact = compact;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package info.gregbiegel.service.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The PackEvent class is a Java Flight Recorder event recording the packing of talks into
+ * sessions by a bin packing algorithm.
+ *
+ */
+@Name("info.gregbiegel.Pack")
+@Label("Pack Talks")
+@Category({ "Conference Scheduler", "Phases" })
+@Description("Packing talks into sessions with a bin packing algorithm")
+public class PackEvent extends Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Talks")
+    int noOfTalks;
+
+    @Label("Sessions")
+    int noOfBins;
+
+    /**
+     * Instantiates a new event, which begins timing straight away. Events are only created
+     * when {@link FlightRecorderSupport#AVAILABLE} is true.
+     */
+    public PackEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the event and commits it if it is being recorded
+     *
+     * @param algorithm the name of the bin packing algorithm
+     * @param noOfTalks the number of talks packed
+     * @param noOfBins the number of sessions the talks were packed into
+     */
+    public void commit(final String algorithm, final int noOfTalks, final int noOfBins) {
+        end();
+        if (shouldCommit()) {
+            this.algorithm = algorithm;
+            this.noOfTalks = noOfTalks;
+            this.noOfBins = noOfBins;
+            commit();
+        }
+    }
+}
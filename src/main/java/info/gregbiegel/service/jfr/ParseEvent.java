@@ -0,0 +1,51 @@
+package info.gregbiegel.service.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The ParseEvent class is a Java Flight Recorder event recording the parsing of a region of
+ * talk data, such as a mapped window of a file, a chunk of a file read in parallel, or a
+ * stream.
+ *
+ */
+@Name("info.gregbiegel.Parse")
+@Label("Parse Talks")
+@Category({ "Conference Scheduler", "Phases" })
+@Description("Parsing a region of talk data into talks")
+public class ParseEvent extends Event {
+
+    @Label("Size")
+    @DataAmount
+    long sizeInBytes;
+
+    @Label("First Line")
+    long firstLineNumber;
+
+    @Label("Talks")
+    int noOfTalks;
+
+    /**
+     * Instantiates a new event, which begins timing straight away. Events are only created
+     * when {@link FlightRecorderSupport#AVAILABLE} is true.
+     */
+    public ParseEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the event and commits it if it is being recorded
+     *
+     * @param sizeInBytes the size of the region parsed, or -1 if it is not known
+     * @param firstLineNumber the number of the first line of the region within its input
+     * @param noOfTalks the number of talks parsed
+     */
+    public void commit(final long sizeInBytes, final long firstLineNumber, final int noOfTalks) {
+        end();
+        if (shouldCommit()) {
+            this.sizeInBytes = sizeInBytes;
+            this.firstLineNumber = firstLineNumber;
+            this.noOfTalks = noOfTalks;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package info.gregbiegel.service.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The RenderEvent class is a Java Flight Recorder event recording the rendering of a
+ * conference program.
+ *
+ */
+@Name("info.gregbiegel.Render")
+@Label("Render Program")
+@Category({ "Conference Scheduler", "Phases" })
+@Description("Rendering a conference program to a writer")
+public class RenderEvent extends Event {
+
+    @Label("Renderer")
+    String renderer;
+
+    @Label("Source")
+    @Description("What was rendered: conference, compact or snapshot")
+    String source;
+
+    /**
+     * Instantiates a new event, which begins timing straight away. Events are only created
+     * when {@link FlightRecorderSupport#AVAILABLE} is true.
+     */
+    public RenderEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the event and commits it if it is being recorded
+     *
+     * @param renderer the class of the renderer
+     * @param source what was rendered
+     */
+    public void commit(final Class<?> renderer, final String source) {
+        end();
+        if (shouldCommit()) {
+            this.renderer = renderer.getSimpleName();
+            this.source = source;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package info.gregbiegel.service.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The TalkFileReadEvent class is a Java Flight Recorder event recording the reading of a
+ * talk data file or talk catalog. It spans the parse events of the regions of the file.
+ *
+ */
+@Name("info.gregbiegel.TalkFileRead")
+@Label("Talk File Read")
+@Category({ "Conference Scheduler", "Phases" })
+@Description("Reading a talk data file or talk catalog, including parsing the talks it holds")
+public class TalkFileReadEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long sizeInBytes;
+
+    @Label("Reader")
+    @Description("How the file was read: catalog, mapped or parallel")
+    String reader;
+
+    @Label("Talks")
+    int noOfTalks;
+
+    /**
+     * Instantiates a new event, which begins timing straight away. Events are only created
+     * when {@link FlightRecorderSupport#AVAILABLE} is true.
+     */
+    public TalkFileReadEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the event and commits it if it is being recorded
+     *
+     * @param path the file that was read
+     * @param sizeInBytes the size of the file
+     * @param reader how the file was read
+     * @param noOfTalks the number of talks read
+     */
+    public void commit(final String path, final long sizeInBytes, final String reader, final int noOfTalks) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.sizeInBytes = sizeInBytes;
+            this.reader = reader;
+            this.noOfTalks = noOfTalks;
+            commit();
+        }
+    }
+}
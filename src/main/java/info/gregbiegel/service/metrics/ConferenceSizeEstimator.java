@@ -0,0 +1,119 @@
+package info.gregbiegel.service.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import info.gregbiegel.model.Conference;
+import info.gregbiegel.model.IScheduleVisitor;
+
+/**
+ * Estimates the heap retained by a {@link Conference} by visiting its tracks, sessions and
+ * events and adding up the sizes of the objects each is made of. The sizes are those of a
+ * 64-bit JVM with compressed references and compact strings, so the estimate is close on
+ * a default HotSpot JVM and is otherwise only a guide to how the size changes between
+ * conferences. Titles are counted even though they may be shared with the input talks.
+ *
+ */
+public class ConferenceSizeEstimator implements IScheduleVisitor {
+
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+    private static final int ARRAY_LIST = 24;
+    private static final int CONFERENCE = 16 + ARRAY_LIST + ARRAY_HEADER;
+    private static final int TRACK = 16 + ARRAY_LIST + ARRAY_HEADER + REFERENCE;
+    private static final int LOCAL_TIME = 24;
+    /**
+     * A session with its tree set and tree map of events, start time, and its reference in the track
+     */
+    private static final int SESSION = 24 + 16 + 48 + LOCAL_TIME + REFERENCE;
+    /**
+     * A scheduled event with its tree map entry and start time
+     */
+    private static final int SCHEDULED_EVENT = 32 + 40 + LOCAL_TIME;
+    private static final int STRING = 24;
+
+    private long sizeInBytes;
+
+    /**
+     * Estimates the heap retained by a conference
+     *
+     * @param conference the conference
+     * @return the estimated size in bytes
+     */
+    public static long estimate(final Conference conference) {
+        ConferenceSizeEstimator estimator = new ConferenceSizeEstimator();
+        try {
+            conference.accept(estimator);
+        } catch (IOException e) { // The estimator never fails to visit an event
+            throw new UncheckedIOException(e);
+        }
+        return estimator.getSizeInBytes();
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /*
+     * @see info.gregbiegel.model.IScheduleVisitor#startConference()
+     */
+    @Override
+    public void startConference() {
+        sizeInBytes = CONFERENCE;
+    }
+
+    /*
+     * @see info.gregbiegel.model.IScheduleVisitor#startTrack(int)
+     */
+    @Override
+    public void startTrack(final int trackNo) {
+        sizeInBytes += TRACK;
+    }
+
+    /*
+     * @see info.gregbiegel.model.IScheduleVisitor#startSession(int)
+     */
+    @Override
+    public void startSession(final int sessionNo) {
+        sizeInBytes += SESSION;
+    }
+
+    /*
+     * @see info.gregbiegel.model.IScheduleVisitor#visitTalk(int, java.lang.String, int, int)
+     */
+    @Override
+    public void visitTalk(final int eventId, final String title, final int durationInMinutes,
+            final int startMinuteOfDay) {
+        sizeInBytes += SCHEDULED_EVENT + sizeOf(title);
+    }
+
+    /*
+     * @see info.gregbiegel.model.IScheduleVisitor#visitBreak(int, java.lang.String, int, int)
+     */
+    @Override
+    public void visitBreak(final int eventId, final String title, final int durationInMinutes,
+            final int startMinuteOfDay) {
+        sizeInBytes += SCHEDULED_EVENT; // Break titles are constants shared by every track
+    }
+
+    /*
+     * @see info.gregbiegel.model.IScheduleVisitor#endTrack(int)
+     */
+    @Override
+    public void endTrack(final int trackNo) {
+    }
+
+    /*
+     * @see info.gregbiegel.model.IScheduleVisitor#endConference()
+     */
+    @Override
+    public void endConference() {
+    }
+
+    /**
+     * Gets the size of a string and its array of Latin-1 bytes, rounded up to the 8 byte alignment of objects
+     */
+    private static long sizeOf(final String title) {
+        return STRING + ((ARRAY_HEADER + title.length() + 7) & ~7);
+    }
+}
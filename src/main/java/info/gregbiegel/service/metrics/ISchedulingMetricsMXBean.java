@@ -0,0 +1,73 @@
+package info.gregbiegel.service.metrics;
+
+/**
+ * Management interface exposing the metrics of the scheduling runs of one bin packing
+ * algorithm through JMX. Each algorithm is registered under its own object name, as
+ * described in {@link SchedulingMetricsRegistry}, so that algorithms can be compared and
+ * alerted on separately.
+ *
+ */
+public interface ISchedulingMetricsMXBean {
+
+    /**
+     * Gets the name of the bin packing algorithm the metrics are for
+     */
+    public String getAlgorithm();
+
+    /**
+     * Gets the number of talks parsed from input files and streams
+     */
+    public long getEventsParsed();
+
+    /**
+     * Gets the number of talks parsed per second of parsing
+     */
+    public double getEventsParsedPerSecond();
+
+    public LatencySnapshot getParseLatency();
+
+    public LatencySnapshot getPackLatency();
+
+    public LatencySnapshot getMaterializeLatency();
+
+    /**
+     * Gets the number of bins (sessions) opened by every packing
+     */
+    public long getBinsOpened();
+
+    /**
+     * Gets the scheduled minutes of every packed session as a fraction of their capacity
+     */
+    public double getAverageSessionFillRatio();
+
+    /**
+     * Gets the lowest fill ratio of any single packed session, or 1 if nothing has been packed
+     */
+    public double getWorstSessionFillRatio();
+
+    /**
+     * Gets the unscheduled minutes left in every packed session
+     */
+    public long getWastedMinutes();
+
+    /**
+     * Gets the number of conferences materialized
+     */
+    public long getConferencesScheduled();
+
+    public double getAverageTracksPerConference();
+
+    public int getLastTracksPerConference();
+
+    /**
+     * Gets an estimate of the heap retained by the last conference materialized whose size was
+     * sampled, or 0 if none has been. Only one in every
+     * {@link SchedulingMetrics#RETAINED_SIZE_SAMPLE_INTERVAL} conferences is sampled.
+     */
+    public long getLastConferenceRetainedBytes();
+
+    /**
+     * Discards the metrics recorded so far
+     */
+    public void reset();
+}
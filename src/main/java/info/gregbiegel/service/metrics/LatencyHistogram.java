@@ -0,0 +1,62 @@
+package info.gregbiegel.service.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that many threads record into without locking.
+ * Latencies are counted in buckets whose bounds are powers of two, so bucket b holds the
+ * latencies from 2^(b-1) to 2^b - 1 nanoseconds and percentiles are accurate to within a
+ * factor of two, which is enough to see a regression or compare algorithms.
+ *
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of buckets, enough for every non-negative long
+     */
+    static final int NO_OF_BUCKETS = 64;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(NO_OF_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a latency
+     *
+     * @param nanos the latency in nanoseconds, where a negative latency is recorded as zero
+     */
+    public void record(final long nanos) {
+        long latency = Math.max(0, nanos);
+        bucketCounts.incrementAndGet(NO_OF_BUCKETS - Long.numberOfLeadingZeros(latency));
+        count.increment();
+        totalNanos.add(latency);
+        maxNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Takes a copy of the histogram. Latencies recorded while the copy is taken may be
+     * missing from some of its totals.
+     *
+     * @return the copy
+     */
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[NO_OF_BUCKETS];
+        for (int bucket = 0; bucket < NO_OF_BUCKETS; bucket++)
+            counts[bucket] = bucketCounts.get(bucket);
+        return new LatencySnapshot(count.sum(), totalNanos.sum(), maxNanos.get(), counts);
+    }
+
+    /**
+     * Discards every latency recorded so far
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < NO_OF_BUCKETS; bucket++)
+            bucketCounts.set(bucket, 0);
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+}
@@ -0,0 +1,82 @@
+package info.gregbiegel.service.metrics;
+
+/**
+ * The LatencySnapshot class is an immutable copy of a {@link LatencyHistogram}, which is
+ * exposed through JMX as a composite value.
+ *
+ */
+public class LatencySnapshot {
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] bucketCounts;
+
+    LatencySnapshot(final long count, final long totalNanos, final long maxNanos, final long[] bucketCounts) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.bucketCounts = bucketCounts;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    public long getP50Nanos() {
+        return getPercentileNanos(0.5);
+    }
+
+    public long getP90Nanos() {
+        return getPercentileNanos(0.9);
+    }
+
+    public long getP99Nanos() {
+        return getPercentileNanos(0.99);
+    }
+
+    /**
+     * Gets the number of latencies in each bucket, where bucket b holds the latencies from
+     * 2^(b-1) to 2^b - 1 nanoseconds
+     *
+     * @return a copy of the bucket counts
+     */
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    /**
+     * Gets an upper bound on a percentile of the latencies, which is the upper bound of the
+     * bucket holding that percentile, or the largest latency if that is lower
+     *
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the percentile in nanoseconds, or 0 if no latencies have been recorded
+     */
+    public long getPercentileNanos(final double fraction) {
+        long total = 0;
+        for (long bucketCount : bucketCounts)
+            total += bucketCount;
+        if (total == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            seen += bucketCounts[bucket];
+            if (seen >= rank)
+                return Math.min(maxNanos, bucket == 0 ? 0 : (1L << bucket) - 1);
+        }
+        return maxNanos;
+    }
+}
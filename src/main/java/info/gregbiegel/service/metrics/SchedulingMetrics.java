@@ -0,0 +1,328 @@
+package info.gregbiegel.service.metrics;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import info.gregbiegel.model.Conference;
+import info.gregbiegel.model.Track;
+import info.gregbiegel.service.binpack.BinPackType;
+import info.gregbiegel.service.binpack.PackingWorkspace;
+
+/**
+ * The SchedulingMetrics class records the parse, pack and materialize phases of the
+ * scheduling runs of one bin packing algorithm. Recording does not lock, and happens once
+ * per phase rather than once per talk: session fill is read from the time remaining in each
+ * session, and the heap a conference retains is only estimated for a sample of conferences,
+ * so the metrics can stay enabled in production.
+ *
+ */
+public class SchedulingMetrics implements ISchedulingMetricsMXBean {
+
+    /**
+     * Session fill ratios are held in parts per million, so that the worst can be kept in an atomic long
+     */
+    private static final long PARTS_PER_MILLION = 1_000_000L;
+
+    /**
+     * The number of conferences materialized for each estimate of the heap a conference retains
+     */
+    public static final int RETAINED_SIZE_SAMPLE_INTERVAL = 16;
+
+    private final BinPackType binPackType;
+
+    private final LongAdder eventsParsed = new LongAdder();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+    private final LatencyHistogram packLatency = new LatencyHistogram();
+    private final LatencyHistogram materializeLatency = new LatencyHistogram();
+    private final LongAdder binsOpened = new LongAdder();
+    private final LongAdder scheduledMinutes = new LongAdder();
+    private final LongAdder capacityMinutes = new LongAdder();
+    private final AtomicLong worstFillPartsPerMillion = new AtomicLong(PARTS_PER_MILLION);
+    private final LongAdder conferencesScheduled = new LongAdder();
+    private final LongAdder tracksScheduled = new LongAdder();
+    private final AtomicLong conferencesMaterialized = new AtomicLong();
+    private volatile int lastTracksPerConference;
+    private volatile long lastConferenceRetainedBytes;
+
+    /**
+     * Instantiates a new object
+     *
+     * @param binPackType the algorithm the metrics are recorded for
+     */
+    public SchedulingMetrics(final BinPackType binPackType) {
+        this.binPackType = binPackType;
+    }
+
+    /**
+     * Records the parsing of a talk data file or stream
+     *
+     * @param noOfEvents the number of talks parsed
+     * @param nanos the time taken to parse them
+     */
+    public void recordParse(final int noOfEvents, final long nanos) {
+        eventsParsed.add(noOfEvents);
+        parseLatency.record(nanos);
+    }
+
+    /**
+     * Records a packing of events into bins, reading the time used in each bin from the
+     * session of the materialized conference it was scheduled into, so that the events do
+     * not have to be visited again
+     *
+     * @param nanos the time taken to pack the events
+     * @param noOfBins the number of packed bins
+     * @param conference the conference materialized from the bins, in the order of the bin pattern
+     * @param binPattern the pattern of bin sizes the events were packed into
+     */
+    public void recordPacking(final long nanos, final int noOfBins, final Conference conference,
+            final int[] binPattern) {
+        long scheduled = 0;
+        long capacity = 0;
+        long worst = PARTS_PER_MILLION;
+        int binNo = 0;
+        for (Iterator<Track> trackIter = conference.getTracks().iterator(); 
+                trackIter.hasNext() && binNo < noOfBins; ) {
+            Track track = trackIter.next();
+            for (int sessionNo = 0; sessionNo < track.getNoOfSessions() && binNo < noOfBins; 
+                    sessionNo++, binNo++) {
+                int binSize = binPattern[binNo % binPattern.length];
+                long used = binSize - track.getSession(sessionNo).getRemainingMinutes();
+                scheduled += used;
+                capacity += binSize;
+                worst = Math.min(worst, fillPartsPerMillion(used, binSize));
+            }
+        }
+        recordPacking(nanos, noOfBins, scheduled, capacity, worst);
+    }
+
+    /**
+     * Records a packing of events into bins, given the time used in each bin
+     *
+     * @param nanos the time taken to pack the events
+     * @param usedMinutesPerBin the total duration of the events packed into each bin
+     * @param binPattern the pattern of bin sizes the events were packed into
+     */
+    public void recordPacking(final long nanos, final int[] usedMinutesPerBin, final int[] binPattern) {
+        long scheduled = 0;
+        long capacity = 0;
+        long worst = PARTS_PER_MILLION;
+        for (int binNo = 0; binNo < usedMinutesPerBin.length; binNo++) {
+            int binSize = binPattern[binNo % binPattern.length];
+            scheduled += usedMinutesPerBin[binNo];
+            capacity += binSize;
+            worst = Math.min(worst, fillPartsPerMillion(usedMinutesPerBin[binNo], binSize));
+        }
+        recordPacking(nanos, usedMinutesPerBin.length, scheduled, capacity, worst);
+    }
+
+    /**
+     * Records a packing of item durations into the bins of a workspace
+     *
+     * @param nanos the time taken to pack the items
+     * @param workspace the workspace holding the packed bins
+     * @param binPattern the pattern of bin sizes the items were packed into
+     */
+    public void recordPacking(final long nanos, final PackingWorkspace workspace, final int[] binPattern) {
+        int[] binResidual = workspace.getBinResidual();
+        long scheduled = 0;
+        long capacity = 0;
+        long worst = PARTS_PER_MILLION;
+        for (int binNo = 0; binNo < workspace.getNoOfBins(); binNo++) {
+            int binSize = binPattern[binNo % binPattern.length];
+            long used = binSize - binResidual[binNo];
+            scheduled += used;
+            capacity += binSize;
+            worst = Math.min(worst, fillPartsPerMillion(used, binSize));
+        }
+        recordPacking(nanos, workspace.getNoOfBins(), scheduled, capacity, worst);
+    }
+
+    private void recordPacking(final long nanos, final int noOfBins, final long scheduled, final long capacity,
+            final long worst) {
+        packLatency.record(nanos);
+        binsOpened.add(noOfBins);
+        scheduledMinutes.add(scheduled);
+        capacityMinutes.add(capacity);
+        worstFillPartsPerMillion.accumulateAndGet(worst, Math::min);
+    }
+
+    private static long fillPartsPerMillion(final long used, final int binSize) {
+        return binSize <= 0 ? PARTS_PER_MILLION : used * PARTS_PER_MILLION / binSize;
+    }
+
+    /**
+     * Records the materialization of a conference from packed bins. The heap that the
+     * conference retains is estimated with a {@link ConferenceSizeEstimator} for the first
+     * of every {@link #RETAINED_SIZE_SAMPLE_INTERVAL} conferences only, as the estimate
+     * visits every talk.
+     *
+     * @param nanos the time taken to materialize the conference
+     * @param conference the conference
+     */
+    public void recordMaterialize(final long nanos, final Conference conference) {
+        if (conferencesMaterialized.getAndIncrement() % RETAINED_SIZE_SAMPLE_INTERVAL == 0)
+            lastConferenceRetainedBytes = ConferenceSizeEstimator.estimate(conference);
+        recordMaterialize(nanos, conference.getTracks().size());
+    }
+
+    /**
+     * Records the materialization of a conference whose size is not estimated, such as a
+     * compact conference
+     *
+     * @param nanos the time taken to materialize the conference
+     * @param noOfTracks the number of tracks of the conference
+     */
+    public void recordMaterialize(final long nanos, final int noOfTracks) {
+        materializeLatency.record(nanos);
+        conferencesScheduled.increment();
+        tracksScheduled.add(noOfTracks);
+        lastTracksPerConference = noOfTracks;
+    }
+
+    /**
+     * Takes a copy of the metrics. Phases recorded while the copy is taken may be missing
+     * from some of its totals.
+     *
+     * @return the copy
+     */
+    public SchedulingMetricsSnapshot snapshot() {
+        return new SchedulingMetricsSnapshot(binPackType, eventsParsed.sum(), parseLatency.snapshot(),
+                packLatency.snapshot(), materializeLatency.snapshot(), binsOpened.sum(), scheduledMinutes.sum(),
+                capacityMinutes.sum(), (double) worstFillPartsPerMillion.get() / PARTS_PER_MILLION,
+                conferencesScheduled.sum(), tracksScheduled.sum(), lastTracksPerConference,
+                lastConferenceRetainedBytes);
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#reset()
+     */
+    @Override
+    public void reset() {
+        eventsParsed.reset();
+        parseLatency.reset();
+        packLatency.reset();
+        materializeLatency.reset();
+        binsOpened.reset();
+        scheduledMinutes.reset();
+        capacityMinutes.reset();
+        worstFillPartsPerMillion.set(PARTS_PER_MILLION);
+        conferencesScheduled.reset();
+        tracksScheduled.reset();
+        lastTracksPerConference = 0;
+        lastConferenceRetainedBytes = 0;
+        conferencesMaterialized.set(0);
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getAlgorithm()
+     */
+    @Override
+    public String getAlgorithm() {
+        return binPackType.name();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getEventsParsed()
+     */
+    @Override
+    public long getEventsParsed() {
+        return eventsParsed.sum();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getEventsParsedPerSecond()
+     */
+    @Override
+    public double getEventsParsedPerSecond() {
+        return snapshot().getEventsParsedPerSecond();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getParseLatency()
+     */
+    @Override
+    public LatencySnapshot getParseLatency() {
+        return parseLatency.snapshot();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getPackLatency()
+     */
+    @Override
+    public LatencySnapshot getPackLatency() {
+        return packLatency.snapshot();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getMaterializeLatency()
+     */
+    @Override
+    public LatencySnapshot getMaterializeLatency() {
+        return materializeLatency.snapshot();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getBinsOpened()
+     */
+    @Override
+    public long getBinsOpened() {
+        return binsOpened.sum();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getAverageSessionFillRatio()
+     */
+    @Override
+    public double getAverageSessionFillRatio() {
+        return snapshot().getAverageSessionFillRatio();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getWorstSessionFillRatio()
+     */
+    @Override
+    public double getWorstSessionFillRatio() {
+        return (double) worstFillPartsPerMillion.get() / PARTS_PER_MILLION;
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getWastedMinutes()
+     */
+    @Override
+    public long getWastedMinutes() {
+        return snapshot().getWastedMinutes();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getConferencesScheduled()
+     */
+    @Override
+    public long getConferencesScheduled() {
+        return conferencesScheduled.sum();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getAverageTracksPerConference()
+     */
+    @Override
+    public double getAverageTracksPerConference() {
+        return snapshot().getAverageTracksPerConference();
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getLastTracksPerConference()
+     */
+    @Override
+    public int getLastTracksPerConference() {
+        return lastTracksPerConference;
+    }
+
+    /*
+     * @see info.gregbiegel.service.metrics.ISchedulingMetricsMXBean#getLastConferenceRetainedBytes()
+     */
+    @Override
+    public long getLastConferenceRetainedBytes() {
+        return lastConferenceRetainedBytes;
+    }
+}
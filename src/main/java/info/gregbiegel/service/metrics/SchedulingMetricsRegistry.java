@@ -0,0 +1,107 @@
+package info.gregbiegel.service.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import info.gregbiegel.service.binpack.BinPackType;
+
+/**
+ * The SchedulingMetricsRegistry class holds the {@link SchedulingMetrics} of every bin
+ * packing algorithm. Once registered with an MBean server, the metrics of each algorithm
+ * are exposed under the object name
+ * {@code info.gregbiegel:type=SchedulingMetrics,algorithm=<BinPackType>}.
+ * <p>
+ * The conference services record into the default registry, which is shared by every
+ * service in the JVM.
+ *
+ */
+public class SchedulingMetricsRegistry {
+
+    public static final String DOMAIN = "info.gregbiegel";
+    public static final String TYPE = "SchedulingMetrics";
+
+    private static final SchedulingMetricsRegistry DEFAULT = new SchedulingMetricsRegistry();
+
+    private final Map<BinPackType, SchedulingMetrics> metrics;
+
+    /**
+     * Instantiates a new registry holding empty metrics for every algorithm
+     */
+    public SchedulingMetricsRegistry() {
+        Map<BinPackType, SchedulingMetrics> metricsByType = new EnumMap<>(BinPackType.class);
+        for (BinPackType binPackType : BinPackType.values())
+            metricsByType.put(binPackType, new SchedulingMetrics(binPackType));
+        metrics = Collections.unmodifiableMap(metricsByType);
+    }
+
+    /**
+     * Gets the registry that the conference services record into
+     *
+     * @return the default registry
+     */
+    public static SchedulingMetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public SchedulingMetrics getMetrics(final BinPackType binPackType) {
+        return metrics.get(binPackType);
+    }
+
+    /**
+     * Takes a copy of the metrics of every algorithm
+     *
+     * @return the copy of the metrics of each algorithm, in the order of the algorithms
+     */
+    public Map<BinPackType, SchedulingMetricsSnapshot> snapshot() {
+        Map<BinPackType, SchedulingMetricsSnapshot> snapshot = new EnumMap<>(BinPackType.class);
+        for (Map.Entry<BinPackType, SchedulingMetrics> entry : metrics.entrySet())
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        return snapshot;
+    }
+
+    /**
+     * Registers the metrics of every algorithm with an MBean server. Algorithms that are
+     * already registered are skipped, so registering twice is harmless.
+     *
+     * @param server the MBean server, e.g. the platform MBean server
+     * @throws JMException if the metrics cannot be registered
+     */
+    public void register(final MBeanServer server) throws JMException {
+        for (Map.Entry<BinPackType, SchedulingMetrics> entry : metrics.entrySet()) {
+            ObjectName name = getObjectName(entry.getKey());
+            if (!server.isRegistered(name))
+                server.registerMBean(entry.getValue(), name);
+        }
+    }
+
+    /**
+     * Removes the metrics of every algorithm from an MBean server
+     *
+     * @param server the MBean server the metrics were registered with
+     * @throws JMException if the metrics cannot be unregistered
+     */
+    public void unregister(final MBeanServer server) throws JMException {
+        for (BinPackType binPackType : metrics.keySet()) {
+            ObjectName name = getObjectName(binPackType);
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Gets the object name that the metrics of an algorithm are registered under
+     *
+     * @param binPackType the algorithm
+     * @return the object name
+     * @throws MalformedObjectNameException never, as the name is always well formed
+     */
+    public static ObjectName getObjectName(final BinPackType binPackType) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":type=" + TYPE + ",algorithm=" + binPackType.name());
+    }
+}
@@ -0,0 +1,101 @@
+package info.gregbiegel.service.metrics;
+
+import info.gregbiegel.service.binpack.BinPackType;
+
+/**
+ * The SchedulingMetricsSnapshot class is an immutable copy of the metrics of one bin packing
+ * algorithm, for callers that read metrics in process rather than through JMX.
+ *
+ */
+public class SchedulingMetricsSnapshot {
+
+    private final BinPackType binPackType;
+    private final long eventsParsed;
+    private final LatencySnapshot parseLatency;
+    private final LatencySnapshot packLatency;
+    private final LatencySnapshot materializeLatency;
+    private final long binsOpened;
+    private final long scheduledMinutes;
+    private final long capacityMinutes;
+    private final double worstSessionFillRatio;
+    private final long conferencesScheduled;
+    private final long tracksScheduled;
+    private final int lastTracksPerConference;
+    private final long lastConferenceRetainedBytes;
+
+    SchedulingMetricsSnapshot(final BinPackType binPackType, final long eventsParsed,
+            final LatencySnapshot parseLatency, final LatencySnapshot packLatency,
+            final LatencySnapshot materializeLatency, final long binsOpened, final long scheduledMinutes,
+            final long capacityMinutes, final double worstSessionFillRatio, final long conferencesScheduled,
+            final long tracksScheduled, final int lastTracksPerConference, final long lastConferenceRetainedBytes) {
+        this.binPackType = binPackType;
+        this.eventsParsed = eventsParsed;
+        this.parseLatency = parseLatency;
+        this.packLatency = packLatency;
+        this.materializeLatency = materializeLatency;
+        this.binsOpened = binsOpened;
+        this.scheduledMinutes = scheduledMinutes;
+        this.capacityMinutes = capacityMinutes;
+        this.worstSessionFillRatio = worstSessionFillRatio;
+        this.conferencesScheduled = conferencesScheduled;
+        this.tracksScheduled = tracksScheduled;
+        this.lastTracksPerConference = lastTracksPerConference;
+        this.lastConferenceRetainedBytes = lastConferenceRetainedBytes;
+    }
+
+    public BinPackType getBinPackType() {
+        return binPackType;
+    }
+
+    public long getEventsParsed() {
+        return eventsParsed;
+    }
+
+    public double getEventsParsedPerSecond() {
+        return parseLatency.getTotalNanos() == 0 ? 0 : eventsParsed * 1e9 / parseLatency.getTotalNanos();
+    }
+
+    public LatencySnapshot getParseLatency() {
+        return parseLatency;
+    }
+
+    public LatencySnapshot getPackLatency() {
+        return packLatency;
+    }
+
+    public LatencySnapshot getMaterializeLatency() {
+        return materializeLatency;
+    }
+
+    public long getBinsOpened() {
+        return binsOpened;
+    }
+
+    public double getAverageSessionFillRatio() {
+        return capacityMinutes == 0 ? 0 : (double) scheduledMinutes / capacityMinutes;
+    }
+
+    public double getWorstSessionFillRatio() {
+        return worstSessionFillRatio;
+    }
+
+    public long getWastedMinutes() {
+        return capacityMinutes - scheduledMinutes;
+    }
+
+    public long getConferencesScheduled() {
+        return conferencesScheduled;
+    }
+
+    public double getAverageTracksPerConference() {
+        return conferencesScheduled == 0 ? 0 : (double) tracksScheduled / conferencesScheduled;
+    }
+
+    public int getLastTracksPerConference() {
+        return lastTracksPerConference;
+    }
+
+    public long getLastConferenceRetainedBytes() {
+        return lastConferenceRetainedBytes;
+    }
+}
@@ -0,0 +1,17 @@
+package info.gregbiegel.service.parser;
+
+/**
+ * Interface for receiving the talks read by a talk parser, one talk at a time
+ *
+ */
+public interface ITalkHandler {
+
+    /**
+     * Called for every talk that is parsed, in the order the talks appear in the input
+     *
+     * @param id the id assigned to the talk
+     * @param title the title of the talk
+     * @param durationInMinutes the duration of the talk
+     */
+    public void onTalk(int id, String title, int durationInMinutes);
+}
@@ -0,0 +1,320 @@
+package info.gregbiegel.service.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.exception.EventParserException;
+import info.gregbiegel.service.jfr.FlightRecorderSupport;
+import info.gregbiegel.service.jfr.ParseEvent;
+
+/**
+ * A parser for talk data files that works directly on the bytes of a memory-mapped file.
+ * Lines are scanned for the trailing duration (e.g. '60min') or 'lightning' token
+ * without decoding them into strings, and the only object created for each talk is its
+ * title. The talks produced, and the exceptions thrown for talks that cannot be parsed,
+ * are the same as those of parsing each line as a string. Files that are larger than
+ * the mapping window are mapped one window at a time, with each window ending on a line
+ * boundary.
+ * <p>
+ * A parser holds a scratch buffer for decoding titles, so it must not be shared between
+ * threads while parsing. A parser may be given a {@link CancellationToken}, which is polled
+ * every few thousand lines so that parsing a large file can be abandoned part way through.
+ * <p>
+ * Each region parsed is recorded as a {@link ParseEvent} when Java Flight Recorder is recording.
+ *
+ */
+public class MappedTalkFileParser {
+
+    private static final Logger LOG = Logger.getLogger(MappedTalkFileParser.class.getName());
+
+    /**
+     * The default size of each region of a file that is mapped at once
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    private static final byte[] LIGHTNING_TALK_KEY = { 'l', 'i', 'g', 'h', 't', 'n', 'i', 'n', 'g' };
+    private static final int TIME_SUFFIX_LENGTH = "min".length();
+    private static final int LIGHTNING_TALK_TIME = 5;
+    private static final int MINIMUM_DESCRIPTION_LENGTH = 4;
+
+    /**
+     * The number of lines parsed between polls of the cancellation token, less one
+     */
+    private static final int CANCELLATION_CHECK_MASK = 0xFFF;
+
+    private final int windowSize;
+    private final CancellationToken cancellationToken;
+    private byte[] titleBytes = new byte[128];
+
+    /**
+     * The number of the line being parsed, counting from 1 at the start of the input
+     */
+    private long lineNumber;
+
+    /**
+     * Instantiates a new object, using the default mapping window size
+     */
+    public MappedTalkFileParser() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Instantiates a new object
+     *
+     * @param windowSize the maximum number of bytes of a file to map at once
+     */
+    public MappedTalkFileParser(final int windowSize) {
+        this(windowSize, new CancellationToken());
+    }
+
+    /**
+     * Instantiates a new object whose parsing can be cancelled
+     *
+     * @param windowSize the maximum number of bytes of a file to map at once
+     * @param cancellationToken the token polled for a request to stop parsing
+     */
+    public MappedTalkFileParser(final int windowSize, final CancellationToken cancellationToken) {
+        if (windowSize <= 0)
+            throw new IllegalArgumentException("Window size must be positive");
+        this.windowSize = windowSize;
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Parses every talk in a file, passing each to the handler in the order they appear.
+     * Blank lines are skipped and are not assigned an id. A talk that cannot be parsed is
+     * reported with the number of its line in the file.
+     *
+     * @param file the file to parse
+     * @param firstId the id to assign to the first talk
+     * @param handler receives each talk that is parsed
+     * @return the id following that of the last talk parsed
+     * @throws IOException if there is a problem reading the file
+     * @throws EventParserException if a talk in the file cannot be parsed
+     * @throws java.util.concurrent.CancellationException if the parser is cancelled before the end of the file
+     */
+    public int parse(final Path file, final int firstId, final ITalkHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            int id = firstId;
+            long firstLineNumber = 1;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+                int end = length;
+                if (position + length < size) {
+                    end = lastLineEnd(buffer, length);
+                    if (end == 0)
+                        throw new IOException("Line at offset " + position + " is longer than the mapping window");
+                }
+                id = parse(buffer, 0, end, id, firstLineNumber, handler);
+                firstLineNumber = lineNumber;
+                position += end;
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Parses every talk in a region of a buffer, passing each to the handler in the order
+     * they appear. The region is expected to start at the beginning of a line. Blank lines
+     * are skipped and are not assigned an id.
+     *
+     * @param buffer the buffer holding the talk data
+     * @param start the index of the first byte of the region
+     * @param end the index after the last byte of the region
+     * @param firstId the id to assign to the first talk
+     * @param handler receives each talk that is parsed
+     * @return the id following that of the last talk parsed
+     * @throws EventParserException if a talk in the region cannot be parsed
+     */
+    public int parse(final ByteBuffer buffer, final int start, final int end, final int firstId,
+            final ITalkHandler handler) throws EventParserException {
+        return parse(buffer, start, end, firstId, 1, handler);
+    }
+
+    /**
+     * Parses every talk in a region of a buffer that is part of a larger input, as
+     * described in {@link #parse(ByteBuffer, int, int, int, ITalkHandler)}. A talk that 
+     * cannot be parsed is reported with the number of its line in the larger input.
+     *
+     * @param buffer the buffer holding the talk data
+     * @param start the index of the first byte of the region
+     * @param end the index after the last byte of the region
+     * @param firstId the id to assign to the first talk
+     * @param firstLineNumber the number of the first line of the region within the input
+     * @param handler receives each talk that is parsed
+     * @return the id following that of the last talk parsed
+     * @throws EventParserException if a talk in the region cannot be parsed
+     */
+    public int parse(final ByteBuffer buffer, final int start, final int end, final int firstId,
+            final long firstLineNumber, final ITalkHandler handler) throws EventParserException {
+        ParseEvent parseEvent = FlightRecorderSupport.AVAILABLE ? new ParseEvent() : null;
+        int id = firstId;
+        int lineStart = start;
+        for (lineNumber = firstLineNumber; lineStart < end; lineNumber++) {
+            if ((lineNumber & CANCELLATION_CHECK_MASK) == 0)
+                cancellationToken.throwIfCancelled();
+            int lineEnd = lineStart;
+            while (lineEnd < end && !isLineTerminator(buffer.get(lineEnd)))
+                lineEnd++;
+            if (!isBlank(buffer, lineStart, lineEnd))
+                parseTalk(buffer, lineStart, lineEnd, id++, handler);
+            lineStart = lineEnd + 1;
+            if (lineStart < end && buffer.get(lineEnd) == '\r' && buffer.get(lineStart) == '\n')
+                lineStart++;
+        }
+        if (parseEvent != null)
+            parseEvent.commit(end - start, firstLineNumber, id - firstId);
+        return id;
+    }
+
+    /**
+     * Parses a single line holding a talk, following the same rules as parsing the line
+     * as a string:- the title is everything before the 'lightning' token, or before the
+     * space preceding the first digit, and the duration is the number that runs from the
+     * first digit to the three character suffix at the end of the line
+     */
+    private void parseTalk(final ByteBuffer buffer, final int start, final int end, final int id,
+            final ITalkHandler handler) throws EventParserException {
+        int trimmedStart = start;
+        int trimmedEnd = end;
+        while (isWhitespace(buffer.get(trimmedStart)))
+            trimmedStart++;
+        while (isWhitespace(buffer.get(trimmedEnd - 1)))
+            trimmedEnd--;
+        if (charLength(buffer, trimmedStart, trimmedEnd) < MINIMUM_DESCRIPTION_LENGTH)
+            throw new EventParserException("Event description could not be parsed", lineNumber);
+
+        if (end - start >= LIGHTNING_TALK_KEY.length && isLightningKeyAt(buffer, end - LIGHTNING_TALK_KEY.length)) {
+            int keyStart = start;
+            while (!isLightningKeyAt(buffer, keyStart))
+                keyStart++;
+            handler.onTalk(id, decode(buffer, start, keyStart), LIGHTNING_TALK_TIME);
+            return;
+        }
+
+        int firstDigit = start;
+        while (firstDigit < end && !isDigit(buffer.get(firstDigit)))
+            firstDigit++;
+        if (firstDigit == start)
+            throw new EventParserException("Event description could not be parsed", lineNumber);
+        int timeEnd = stepBackChars(buffer, start, end, TIME_SUFFIX_LENGTH);
+        long time = 0;
+        for (int i = firstDigit; i < timeEnd && time <= Integer.MAX_VALUE; i++) {
+            byte b = buffer.get(i);
+            time = isDigit(b) ? time * 10 + (b - '0') : Long.MAX_VALUE;
+        }
+        if (timeEnd <= firstDigit || time > Integer.MAX_VALUE) {
+            LOG.severe("Error parsing length of event");
+            throw new EventParserException("Could not parse length of event", lineNumber);
+        }
+        handler.onTalk(id, titleBefore(buffer, start, firstDigit), (int) time);
+    }
+
+    /**
+     * Decodes the title that ends one character before the first digit, which is usually
+     * the space between the title and the duration
+     */
+    private String titleBefore(final ByteBuffer buffer, final int start, final int firstDigit) {
+        if (buffer.get(firstDigit - 1) >= 0)
+            return decode(buffer, start, firstDigit - 1);
+        // The character before the digit is not ASCII, so drop it once it has been decoded
+        String title = decode(buffer, start, firstDigit);
+        return title.substring(0, title.length() - 1);
+    }
+
+    private String decode(final ByteBuffer buffer, final int from, final int to) {
+        int length = to - from;
+        if (titleBytes.length < length)
+            titleBytes = new byte[Math.max(length, titleBytes.length * 2)];
+        for (int i = 0; i < length; i++)
+            titleBytes[i] = buffer.get(from + i);
+        return new String(titleBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isLightningKeyAt(final ByteBuffer buffer, final int position) {
+        for (int i = 0; i < LIGHTNING_TALK_KEY.length; i++)
+            if ((buffer.get(position + i) | 0x20) != LIGHTNING_TALK_KEY[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Gets the length of a region in UTF-16 characters, as counted by {@link String#length()}
+     */
+    private static int charLength(final ByteBuffer buffer, final int from, final int to) {
+        int length = 0;
+        for (int i = from; i < to && length < MINIMUM_DESCRIPTION_LENGTH; i++) {
+            byte b = buffer.get(i);
+            if ((b & 0xC0) != 0x80)
+                length++;
+            if ((b & 0xF8) == 0xF0) // Encoded as a surrogate pair
+                length++;
+        }
+        return length;
+    }
+
+    /**
+     * Steps back a number of UTF-16 characters from the end of a line
+     *
+     * @return the index of the byte that starts the character, or -1 if stepping back
+     *  would split a surrogate pair, which can never leave a valid duration
+     */
+    private static int stepBackChars(final ByteBuffer buffer, final int start, final int end, final int chars) {
+        int position = end;
+        int remaining = chars;
+        while (remaining > 0 && position > start) {
+            position--;
+            while (position > start && (buffer.get(position) & 0xC0) == 0x80)
+                position--;
+            remaining -= (buffer.get(position) & 0xF8) == 0xF0 ? 2 : 1;
+        }
+        return remaining == 0 ? position : -1;
+    }
+
+    /**
+     * Gets the index after the last line terminator in the first bytes of a buffer, or 0
+     * if there is none. A carriage return in the final byte is not used, as it may be
+     * followed by a line feed in the next window.
+     */
+    private static int lastLineEnd(final ByteBuffer buffer, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            byte b = buffer.get(i);
+            if (b == '\n' || (b == '\r' && i < length - 1))
+                return i + 1;
+        }
+        return 0;
+    }
+
+    static boolean isBlank(final ByteBuffer buffer, final int from, final int to) {
+        for (int i = from; i < to; i++)
+            if (!isWhitespace(buffer.get(i)))
+                return false;
+        return true;
+    }
+
+    static boolean isLineTerminator(final byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /**
+     * Whitespace as removed by {@link String#trim()}
+     */
+    private static boolean isWhitespace(final byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private static boolean isDigit(final byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,239 @@
+package info.gregbiegel.service.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.exception.EventParserException;
+
+/**
+ * Reads talk data files on all cores of a fork/join pool. The file is split into chunks
+ * that end on line boundaries, and each chunk is memory-mapped and parsed by a
+ * {@link MappedTalkFileParser} of its own. The file is read in two passes:- the first
+ * counts the talks and lines in every chunk, so that each chunk knows the id of its first
+ * talk and the number of its first line, and the second parses the chunks. Event ids are
+ * therefore the same as those of reading the file sequentially, whatever order the chunks
+ * are parsed in.
+ * <p>
+ * When a talk cannot be parsed, chunks that follow it in the file are no longer started,
+ * and the exception for the first bad line in the file is thrown, with its line number.
+ *
+ */
+public class ParallelTalkFileReader {
+
+    private static final Logger LOG = Logger.getLogger(ParallelTalkFileReader.class.getName());
+
+    /**
+     * The default size of each chunk of the file
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Instantiates a new object, using the common pool and default chunk size
+     */
+    public ParallelTalkFileReader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Instantiates a new object
+     *
+     * @param pool the pool to parse the chunks on
+     * @param chunkSize the approximate size of each chunk, which is extended to the end of
+     *  the line that it finishes in
+     */
+    public ParallelTalkFileReader(final ForkJoinPool pool, final int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be positive");
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads every talk in a file. Blank lines are skipped and are not assigned an id.
+     *
+     * @param file the file to read
+     * @param firstId the id to assign to the first talk
+     * @return a modifiable list of the talks in the order they appear in the file
+     * @throws IOException if there is a problem reading the file, or it has too many talks to assign ids to
+     * @throws EventParserException if a talk in the file cannot be parsed
+     */
+    public List<Event> read(final Path file, final int firstId) throws IOException {
+        return read(file, firstId, new CancellationToken());
+    }
+
+    /**
+     * Reads every talk in a file, as described in {@link #read(Path, int)}. Every chunk is
+     * parsed by a parser that polls the cancellation token, and chunks that have not
+     * started are skipped once the token is cancelled.
+     *
+     * @param file the file to read
+     * @param firstId the id to assign to the first talk
+     * @param cancellationToken the token polled for a request to stop reading
+     * @return a modifiable list of the talks in the order they appear in the file
+     * @throws IOException if there is a problem reading the file, or it has too many talks to assign ids to
+     * @throws EventParserException if a talk in the file cannot be parsed
+     * @throws java.util.concurrent.CancellationException if the token is cancelled before the file is read
+     */
+    public List<Event> read(final Path file, final int firstId, final CancellationToken cancellationToken)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = findChunkBoundaries(channel);
+            int noOfChunks = boundaries.length - 1;
+            MappedByteBuffer[] chunks = new MappedByteBuffer[noOfChunks];
+            for (int chunk = 0; chunk < noOfChunks; chunk++) {
+                long length = boundaries[chunk + 1] - boundaries[chunk];
+                if (length > Integer.MAX_VALUE)
+                    throw new IOException("Line at offset " + boundaries[chunk] + " is too long to map");
+                chunks[chunk] = channel.map(MapMode.READ_ONLY, boundaries[chunk], length);
+            }
+            LOG.fine("Reading " + file + " in " + noOfChunks + " chunks");
+
+            int[] talkCounts = new int[noOfChunks];
+            long[] lineCounts = new long[noOfChunks];
+            runOnPool(noOfChunks, chunk -> count(chunks[chunk], chunk, talkCounts, lineCounts));
+            int[] chunkFirstIds = new int[noOfChunks];
+            long[] chunkFirstLines = new long[noOfChunks];
+            long noOfTalks = 0;
+            long noOfLines = 0;
+            for (int chunk = 0; chunk < noOfChunks; chunk++) {
+                chunkFirstIds[chunk] = (int) (firstId + noOfTalks);
+                chunkFirstLines[chunk] = noOfLines + 1;
+                noOfTalks += talkCounts[chunk];
+                noOfLines += lineCounts[chunk];
+                if (noOfTalks > (long) Integer.MAX_VALUE - firstId)
+                    throw new IOException("Too many talks in " + file + " to assign ids from " + firstId);
+            }
+
+            Event[] events = new Event[(int) noOfTalks];
+            EventParserException[] failures = new EventParserException[noOfChunks];
+            AtomicInteger firstFailedChunk = new AtomicInteger(noOfChunks);
+            runOnPool(noOfChunks, chunk -> {
+                // A bad line in an earlier chunk will be reported, so later chunks are not needed
+                if (chunk > firstFailedChunk.get() || cancellationToken.isCancelled())
+                    return;
+                try {
+                    MappedTalkFileParser parser = new MappedTalkFileParser(MappedTalkFileParser.DEFAULT_WINDOW_SIZE,
+                            cancellationToken);
+                    parser.parse(chunks[chunk], 0, chunks[chunk].limit(), chunkFirstIds[chunk], chunkFirstLines[chunk],
+                            (id, title, durationInMinutes) -> events[id - firstId] = new Event(id, title, durationInMinutes));
+                } catch (EventParserException e) {
+                    failures[chunk] = e;
+                    firstFailedChunk.accumulateAndGet(chunk, Math::min);
+                }
+            });
+            cancellationToken.throwIfCancelled();
+            int failedChunk = firstFailedChunk.get();
+            if (failedChunk < noOfChunks)
+                throw failures[failedChunk];
+            return new ArrayList<>(Arrays.asList(events));
+        }
+    }
+
+    /**
+     * Splits a file into chunks of roughly the chunk size, each ending just after a line
+     * terminator, or at the end of the file
+     *
+     * @return the offset of the start of each chunk, followed by the size of the file
+     */
+    private long[] findChunkBoundaries(final FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = 0;
+        while (position < size) {
+            boundaries.add(position);
+            position = position + chunkSize >= size ? size : nextLineStart(channel, position + chunkSize - 1, scan);
+        }
+        boundaries.add(size);
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = boundaries.get(i);
+        return result;
+    }
+
+    /**
+     * Gets the offset of the start of the line that follows the first line terminator at
+     * or after a position, treating a carriage return followed by a line feed as a single
+     * terminator
+     */
+    private static long nextLineStart(final FileChannel channel, final long from, final ByteBuffer scan)
+            throws IOException {
+        long size = channel.size();
+        boolean afterCarriageReturn = false;
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0)
+                break;
+            for (int i = 0; i < read; i++, position++) {
+                byte b = scan.get(i);
+                if (afterCarriageReturn)
+                    return b == '\n' ? position + 1 : position;
+                if (b == '\n')
+                    return position + 1;
+                afterCarriageReturn = b == '\r';
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Counts the talks and lines in a chunk, following the same rules as the parser
+     */
+    private static void count(final ByteBuffer buffer, final int chunk, final int[] talkCounts,
+            final long[] lineCounts) {
+        int end = buffer.limit();
+        int talks = 0;
+        long lines = 0;
+        int lineStart = 0;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && !MappedTalkFileParser.isLineTerminator(buffer.get(lineEnd)))
+                lineEnd++;
+            if (!MappedTalkFileParser.isBlank(buffer, lineStart, lineEnd))
+                talks++;
+            lines++;
+            lineStart = lineEnd + 1;
+            if (lineStart < end && buffer.get(lineEnd) == '\r' && buffer.get(lineStart) == '\n')
+                lineStart++;
+        }
+        talkCounts[chunk] = talks;
+        lineCounts[chunk] = lines;
+    }
+
+    /**
+     * Runs a task for every chunk on the pool and waits for them all to finish
+     */
+    private void runOnPool(final int noOfChunks, final IntConsumer task) {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(noOfChunks);
+        for (int chunk = 0; chunk < noOfChunks; chunk++) {
+            int taskChunk = chunk;
+            tasks.add(CompletableFuture.runAsync(() -> task.accept(taskChunk), pool));
+        }
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+}
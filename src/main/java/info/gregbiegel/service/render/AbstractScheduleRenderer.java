@@ -0,0 +1,83 @@
+package info.gregbiegel.service.render;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.jfr.FlightRecorderSupport;
+import info.gregbiegel.service.jfr.RenderEvent;
+import info.gregbiegel.service.snapshot.ScheduleSnapshot;
+
+/**
+ * The AbstractScheduleRenderer class is the base class of the renderers, which write a
+ * conference program to a writer as the schedule is visited. Nothing is buffered beyond
+ * the writer itself, so the whole program is never held in memory. Times are taken from
+ * the precomputed {@link MinuteOfDayLabels} rather than being formatted.
+ *
+ */
+public abstract class AbstractScheduleRenderer implements IScheduleVisitor {
+
+    protected final Writer writer;
+
+    public AbstractScheduleRenderer(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Renders a conference and flushes the writer
+     *
+     * @param conference the scheduled conference
+     * @throws IOException if there is a problem writing the program
+     */
+    public void render(final Conference conference) throws IOException {
+        RenderEvent renderEvent = FlightRecorderSupport.AVAILABLE ? new RenderEvent() : null;
+        conference.accept(this);
+        writer.flush();
+        if (renderEvent != null)
+            renderEvent.commit(getClass(), "conference");
+    }
+
+    /**
+     * Renders a compact conference and flushes the writer
+     *
+     * @param conference the scheduled conference
+     * @throws IOException if there is a problem writing the program
+     */
+    public void render(final CompactConference conference) throws IOException {
+        RenderEvent renderEvent = FlightRecorderSupport.AVAILABLE ? new RenderEvent() : null;
+        conference.accept(this);
+        writer.flush();
+        if (renderEvent != null)
+            renderEvent.commit(getClass(), "compact");
+    }
+
+    /**
+     * Renders a schedule snapshot straight from the snapshot file and flushes the writer
+     *
+     * @param snapshot the snapshot of a scheduled conference
+     * @throws IOException if there is a problem writing the program
+     */
+    public void render(final ScheduleSnapshot snapshot) throws IOException {
+        RenderEvent renderEvent = FlightRecorderSupport.AVAILABLE ? new RenderEvent() : null;
+        snapshot.accept(this);
+        writer.flush();
+        if (renderEvent != null)
+            renderEvent.commit(getClass(), "snapshot");
+    }
+
+    /**
+     * Sessions are not shown in the rendered program, so by default nothing is written
+     */
+    @Override
+    public void startSession(final int sessionNo) throws IOException {
+    }
+
+    /**
+     * Writes a non-negative number without creating a string for it
+     */
+    protected void writeNumber(final int value) throws IOException {
+        if (value >= 10)
+            writeNumber(value / 10);
+        writer.write('0' + value % 10);
+    }
+}
@@ -0,0 +1,93 @@
+package info.gregbiegel.service.render;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import info.gregbiegel.model.MinuteOfDayLabels;
+
+/**
+ * Renders the conference program as comma separated values, following RFC 4180, with
+ * a header row and one row for each event. Start times are given as 24 hour ISO-8601
+ * local times.
+ *
+ */
+public class CsvScheduleRenderer extends AbstractScheduleRenderer {
+
+    private static final String HEADER = "track,start,id,type,title,durationInMinutes\r\n";
+
+    private int trackNo;
+
+    public CsvScheduleRenderer(final Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void startConference() throws IOException {
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void startTrack(final int trackNo) throws IOException {
+        this.trackNo = trackNo;
+    }
+
+    @Override
+    public void visitTalk(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) throws IOException {
+        writeRow("talk", eventId, title, durationInMinutes, startMinuteOfDay);
+    }
+
+    @Override
+    public void visitBreak(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) throws IOException {
+        writeRow("break", eventId, title, durationInMinutes, startMinuteOfDay);
+    }
+
+    @Override
+    public void endTrack(final int trackNo) throws IOException {
+    }
+
+    @Override
+    public void endConference() throws IOException {
+    }
+
+    private void writeRow(final String type, final int eventId, final String title, final int durationInMinutes,
+            final int startMinuteOfDay) throws IOException {
+        writeNumber(trackNo);
+        writer.write(',');
+        writer.write(MinuteOfDayLabels.getIsoLabel(startMinuteOfDay));
+        writer.write(',');
+        writeNumber(eventId);
+        writer.write(',');
+        writer.write(type);
+        writer.write(',');
+        writeQuoted(title);
+        writer.write(',');
+        writeNumber(durationInMinutes);
+        writer.write("\r\n");
+    }
+
+    /**
+     * Writes a field, enclosed in quotes with any quotes doubled when it contains a
+     * comma, quote or line break
+     */
+    private void writeQuoted(final String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"')
+                writer.write('"');
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,123 @@
+package info.gregbiegel.service.render;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import info.gregbiegel.model.MinuteOfDayLabels;
+
+/**
+ * Renders the conference program as an iCalendar (RFC 5545) document, with a VEVENT
+ * for each event on the day of the conference. Start times are floating local times, and
+ * the track of each event is given as its location. Long lines are folded at 75 octets.
+ *
+ */
+public class ICalendarScheduleRenderer extends AbstractScheduleRenderer {
+
+    private static final int MAXIMUM_LINE_OCTETS = 75;
+    private static final String LINE_BREAK = "\r\n";
+
+    private final String date;
+    private int trackNo;
+
+    /**
+     * Instantiates a new object
+     *
+     * @param writer the writer to render to
+     * @param conferenceDate the day the conference takes place on
+     */
+    public ICalendarScheduleRenderer(final Writer writer, final LocalDate conferenceDate) {
+        super(writer);
+        this.date = DateTimeFormatter.BASIC_ISO_DATE.format(conferenceDate);
+    }
+
+    @Override
+    public void startConference() throws IOException {
+        writer.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//thoughtworks-conference//Conference Program//EN\r\n");
+    }
+
+    @Override
+    public void startTrack(final int trackNo) throws IOException {
+        this.trackNo = trackNo;
+    }
+
+    @Override
+    public void visitTalk(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) throws IOException {
+        writeEvent(eventId, title, durationInMinutes, startMinuteOfDay);
+    }
+
+    @Override
+    public void visitBreak(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) throws IOException {
+        writeEvent(eventId, title, durationInMinutes, startMinuteOfDay);
+    }
+
+    @Override
+    public void endTrack(final int trackNo) throws IOException {
+    }
+
+    @Override
+    public void endConference() throws IOException {
+        writer.write("END:VCALENDAR\r\n");
+    }
+
+    private void writeEvent(final int eventId, final String title, final int durationInMinutes,
+            final int startMinuteOfDay) throws IOException {
+        String startLabel = MinuteOfDayLabels.getIsoLabel(startMinuteOfDay);
+        writer.write("BEGIN:VEVENT\r\nUID:");
+        writer.write(date);
+        writer.write('-');
+        writeNumber(trackNo);
+        writer.write('-');
+        writeNumber(eventId);
+        writer.write("@thoughtworks-conference\r\nDTSTAMP:");
+        writer.write(date);
+        writer.write("T000000Z\r\nDTSTART:");
+        writer.write(date);
+        writer.write('T');
+        writer.write(startLabel, 0, 2);
+        writer.write(startLabel, 3, 2);
+        writer.write("00\r\nDURATION:PT");
+        writeNumber(durationInMinutes);
+        writer.write("M\r\n");
+        writeFolded("SUMMARY:", title);
+        writer.write("LOCATION:Track ");
+        writeNumber(trackNo);
+        writer.write("\r\nEND:VEVENT\r\n");
+    }
+
+    /**
+     * Writes a property with its text value escaped, folding the line so that no line is
+     * longer than 75 octets of UTF-8
+     */
+    private void writeFolded(final String property, final String value) throws IOException {
+        writer.write(property);
+        int lineOctets = property.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escaped = null;
+            if (c == '\\' || c == ';' || c == ',')
+                escaped = "\\" + c;
+            else if (c == '\n')
+                escaped = "\\n";
+            boolean surrogatePair = Character.isHighSurrogate(c) && i + 1 < value.length();
+            int octets = escaped != null ? 2 : surrogatePair ? 4 : c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            if (lineOctets + octets > MAXIMUM_LINE_OCTETS) {
+                writer.write(LINE_BREAK);
+                writer.write(' ');
+                lineOctets = 1;
+            }
+            if (escaped != null) {
+                writer.write(escaped);
+            } else {
+                writer.write(c);
+                if (surrogatePair)
+                    writer.write(value.charAt(++i));
+            }
+            lineOctets += octets;
+        }
+        writer.write(LINE_BREAK);
+    }
+}
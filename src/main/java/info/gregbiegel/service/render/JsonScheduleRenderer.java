@@ -0,0 +1,115 @@
+package info.gregbiegel.service.render;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import info.gregbiegel.model.MinuteOfDayLabels;
+
+/**
+ * Renders the conference program as a JSON document of the form
+ * <pre>
+ * {"tracks":[{"track":1,"events":[{"id":2,"type":"talk","title":"...","start":"09:00","durationInMinutes":60},...]},...]}
+ * </pre>
+ * Start times are given as 24 hour ISO-8601 local times.
+ *
+ */
+public class JsonScheduleRenderer extends AbstractScheduleRenderer {
+
+    private boolean firstTrack;
+    private boolean firstEvent;
+
+    public JsonScheduleRenderer(final Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void startConference() throws IOException {
+        writer.write("{\"tracks\":[");
+        firstTrack = true;
+    }
+
+    @Override
+    public void startTrack(final int trackNo) throws IOException {
+        if (!firstTrack)
+            writer.write(',');
+        firstTrack = false;
+        firstEvent = true;
+        writer.write("{\"track\":");
+        writeNumber(trackNo);
+        writer.write(",\"events\":[");
+    }
+
+    @Override
+    public void visitTalk(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) throws IOException {
+        writeEvent("talk", eventId, title, durationInMinutes, startMinuteOfDay);
+    }
+
+    @Override
+    public void visitBreak(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) throws IOException {
+        writeEvent("break", eventId, title, durationInMinutes, startMinuteOfDay);
+    }
+
+    @Override
+    public void endTrack(final int trackNo) throws IOException {
+        writer.write("]}");
+    }
+
+    @Override
+    public void endConference() throws IOException {
+        writer.write("]}\n");
+    }
+
+    private void writeEvent(final String type, final int eventId, final String title, final int durationInMinutes,
+            final int startMinuteOfDay) throws IOException {
+        if (!firstEvent)
+            writer.write(',');
+        firstEvent = false;
+        writer.write("{\"id\":");
+        writeNumber(eventId);
+        writer.write(",\"type\":\"");
+        writer.write(type);
+        writer.write("\",\"title\":\"");
+        writeEscaped(title);
+        writer.write("\",\"start\":\"");
+        writer.write(MinuteOfDayLabels.getIsoLabel(startMinuteOfDay));
+        writer.write("\",\"durationInMinutes\":");
+        writeNumber(durationInMinutes);
+        writer.write('}');
+    }
+
+    /**
+     * Writes a string with the characters that JSON does not allow in a string escaped
+     */
+    private void writeEscaped(final String value) throws IOException {
+        int unescapedFrom = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= ' ' && c != '"' && c != '\\')
+                continue;
+            writer.write(value, unescapedFrom, i - unescapedFrom);
+            unescapedFrom = i + 1;
+            switch (c) {
+            case '"':
+                writer.write("\\\"");
+                break;
+            case '\\':
+                writer.write("\\\\");
+                break;
+            case '\n':
+                writer.write("\\n");
+                break;
+            case '\r':
+                writer.write("\\r");
+                break;
+            case '\t':
+                writer.write("\\t");
+                break;
+            default:
+                writer.write(String.format("\\u%04x", (int) c));
+            }
+        }
+        writer.write(value, unescapedFrom, value.length() - unescapedFrom);
+    }
+}
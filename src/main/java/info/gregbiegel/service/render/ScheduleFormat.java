@@ -0,0 +1,81 @@
+package info.gregbiegel.service.render;
+
+import java.io.Writer;
+import java.time.LocalDate;
+
+/**
+ * A typesafe enumeration of the formats that a conference program can be rendered in.
+ *
+ */
+public enum ScheduleFormat {
+    TEXT("text", "txt", "text/plain"),
+    JSON("json", "json", "application/json"),
+    CSV("csv", "csv", "text/csv"),
+    ICALENDAR("ics", "ics", "text/calendar");
+
+    private final String name;
+    private final String fileExtension;
+    private final String contentType;
+
+    ScheduleFormat(final String name, final String fileExtension, final String contentType) {
+        this.name = name;
+        this.fileExtension = fileExtension;
+        this.contentType = contentType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Creates a renderer that writes the conference program in this format
+     *
+     * @param writer the writer to render to
+     * @return the renderer
+     */
+    public AbstractScheduleRenderer createRenderer(final Writer writer) {
+        switch (this) {
+        case JSON:
+            return new JsonScheduleRenderer(writer);
+        case CSV:
+            return new CsvScheduleRenderer(writer);
+        case ICALENDAR:
+            return new ICalendarScheduleRenderer(writer, LocalDate.now());
+        default:
+            return new TextScheduleRenderer(writer);
+        }
+    }
+
+    public static ScheduleFormat getForName(final String name) {
+        for (ScheduleFormat format : values()) {
+            if (format.getName().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return TEXT; //Default to the text program
+    }
+
+    /**
+     * Gets a format by its name, in either case, without falling back to the text program
+     * 
+     * @param name the name of the format
+     * @return the format
+     * @throws IllegalArgumentException if there is no format with the name
+     */
+    public static ScheduleFormat getForNameStrict(final String name) {
+        for (ScheduleFormat format : values()) {
+            if (format.getName().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown format " + name);
+    }
+}
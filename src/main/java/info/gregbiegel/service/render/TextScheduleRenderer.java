@@ -0,0 +1,58 @@
+package info.gregbiegel.service.render;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import info.gregbiegel.model.*;
+
+/**
+ * Renders the conference program as text, in the same form as {@link Conference#toString()}.
+ *
+ */
+public class TextScheduleRenderer extends AbstractScheduleRenderer {
+
+    public TextScheduleRenderer(final Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void startConference() throws IOException {
+        writer.write(Conference.HEADER);
+    }
+
+    @Override
+    public void startTrack(final int trackNo) throws IOException {
+        writer.write("Track ");
+        writeNumber(trackNo);
+        writer.write(":\n");
+    }
+
+    @Override
+    public void visitTalk(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) throws IOException {
+        writer.write(MinuteOfDayLabels.getProgramLabel(startMinuteOfDay));
+        writer.write(' ');
+        writer.write(title);
+        writer.write(' ');
+        writeNumber(durationInMinutes);
+        writer.write("m\n");
+    }
+
+    @Override
+    public void visitBreak(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) throws IOException {
+        writer.write(MinuteOfDayLabels.getProgramLabel(startMinuteOfDay));
+        writer.write(' ');
+        writer.write(title);
+        writer.write('\n');
+    }
+
+    @Override
+    public void endTrack(final int trackNo) throws IOException {
+        writer.write('\n');
+    }
+
+    @Override
+    public void endConference() throws IOException {
+    }
+}
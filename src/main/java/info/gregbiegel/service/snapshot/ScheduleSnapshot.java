@@ -0,0 +1,262 @@
+package info.gregbiegel.service.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.exception.ScheduleException;
+
+/**
+ * A read-only view of a schedule snapshot file, which holds a scheduled conference in a
+ * binary format so that it can be reloaded without being scheduled again. All values are
+ * big-endian, and the file is laid out as follows:-
+ * <ul>
+ *  <li>A header of eight ints: the magic number, the format version, the number of tracks,
+ *   the number of sessions in all tracks, the number of events in all tracks, the offset
+ *   of the title table and two reserved values</li>
+ *  <li>The track index, holding the index of the first session of each track, and then the
+ *   number of sessions</li>
+ *  <li>The session index, holding the index of the first event of each session, and then
+ *   the number of events</li>
+ *  <li>The event records, in program order. Each record is sixteen bytes: the event id as an
+ *   int, the offset of its title within the title table as an int, the start minute of the
+ *   day and the duration as shorts, the kind of event as a byte and three bytes of padding</li>
+ *  <li>The title table, holding the UTF-8 bytes of each distinct title prefixed by their
+ *   length as an int</li>
+ * </ul>
+ * The file is memory-mapped, and the snapshot can be visited straight from the mapped file,
+ * so that a schedule can be rendered again without creating the track and session objects.
+ *
+ */
+public class ScheduleSnapshot {
+
+    /**
+     * The first four bytes of every schedule snapshot file, 'CSNP'
+     */
+    public static final int MAGIC = 0x43534E50;
+
+    /**
+     * The version of the format written by {@link ScheduleSnapshotWriter}
+     */
+    public static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 8 * Integer.BYTES;
+    static final int EVENT_RECORD_SIZE = 16;
+    static final byte TALK = 0;
+    static final byte BREAK = 1;
+
+    private final ByteBuffer buffer;
+    private final int noOfTracks;
+    private final int noOfSessions;
+    private final int noOfEvents;
+    private final int sessionIndexOffset;
+    private final int eventsOffset;
+    private final int titleTableOffset;
+
+    /**
+     * Instantiates a new object over a buffer holding a schedule snapshot
+     *
+     * @param buffer the snapshot data, starting at the header
+     * @throws IOException if the buffer does not hold a valid schedule snapshot
+     */
+    public ScheduleSnapshot(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a schedule snapshot");
+        if (buffer.getInt(Integer.BYTES) != VERSION)
+            throw new IOException("Unsupported schedule snapshot version " + buffer.getInt(Integer.BYTES));
+        noOfTracks = buffer.getInt(2 * Integer.BYTES);
+        noOfSessions = buffer.getInt(3 * Integer.BYTES);
+        noOfEvents = buffer.getInt(4 * Integer.BYTES);
+        titleTableOffset = buffer.getInt(5 * Integer.BYTES);
+        if (noOfTracks < 0 || noOfSessions < 0 || noOfEvents < 0)
+            throw new IOException("Schedule snapshot header is corrupt");
+        // The offsets are worked out in long, so that the counts of a corrupt header cannot overflow them
+        long sessionIndexStart = HEADER_SIZE + (noOfTracks + 1L) * Integer.BYTES;
+        long eventsStart = sessionIndexStart + (noOfSessions + 1L) * Integer.BYTES;
+        if (titleTableOffset != eventsStart + (long) noOfEvents * EVENT_RECORD_SIZE 
+                || titleTableOffset > buffer.limit())
+            throw new IOException("Schedule snapshot is truncated");
+        // Both offsets are now known to lie within the buffer
+        sessionIndexOffset = (int) sessionIndexStart;
+        eventsOffset = (int) eventsStart;
+        if (getFirstSession(noOfTracks) != noOfSessions || getFirstEvent(noOfSessions) != noOfEvents)
+            throw new IOException("Schedule snapshot index is corrupt");
+    }
+
+    /**
+     * Memory-maps a schedule snapshot file
+     *
+     * @param file the snapshot file
+     * @return a view of the snapshot
+     * @throws IOException if there is a problem reading the file, or it is not a valid schedule snapshot
+     */
+    public static ScheduleSnapshot open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Schedule snapshot is too large to map");
+            return new ScheduleSnapshot(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes the snapshot to a file, so that a snapshot held in memory can be reloaded
+     * with {@link #open(Path)}
+     *
+     * @param file the snapshot file to write
+     * @throws IOException if there is a problem writing the file
+     */
+    public void writeTo(final Path file) throws IOException {
+        ByteBuffer data = buffer.duplicate();
+        data.rewind();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining())
+                channel.write(data);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Gets the size of the snapshot
+     *
+     * @return the number of bytes the snapshot occupies in memory or on disk
+     */
+    public int getSizeInBytes() {
+        return buffer.limit();
+    }
+
+    public int getNoOfTracks() {
+        return noOfTracks;
+    }
+
+    public int getNoOfEvents() {
+        return noOfEvents;
+    }
+
+    /**
+     * Gets the number of sessions in a track
+     *
+     * @param trackIndex the index of the track, starting from 0
+     * @return the number of sessions in the track
+     */
+    public int getNoOfSessions(final int trackIndex) {
+        return getFirstSession(trackIndex + 1) - getFirstSession(trackIndex);
+    }
+
+    /**
+     * Gets the index of the first event of a session, which along with the index of the
+     * first event of the session after it gives the range of events in the session
+     *
+     * @param trackIndex the index of the track, starting from 0
+     * @param sessionNo the session number within the track
+     * @return the index of the first event of the session
+     */
+    public int getFirstEvent(final int trackIndex, final int sessionNo) {
+        return getFirstEvent(getFirstSession(trackIndex) + sessionNo);
+    }
+
+    public int getEventId(final int event) {
+        return buffer.getInt(eventsOffset + event * EVENT_RECORD_SIZE);
+    }
+
+    public int getStartMinuteOfDay(final int event) {
+        return buffer.getShort(eventsOffset + event * EVENT_RECORD_SIZE + 2 * Integer.BYTES);
+    }
+
+    public int getDurationInMinutes(final int event) {
+        return buffer.getShort(eventsOffset + event * EVENT_RECORD_SIZE + 2 * Integer.BYTES + Short.BYTES);
+    }
+
+    /**
+     * Returns true if an event is a lunch or networking break rather than a talk
+     *
+     * @param event the index of the event in the snapshot
+     * @return true if the event is a break
+     */
+    public boolean isBreak(final int event) {
+        return buffer.get(eventsOffset + event * EVENT_RECORD_SIZE + 2 * Integer.BYTES + 2 * Short.BYTES) == BREAK;
+    }
+
+    /**
+     * Decodes the title of an event
+     *
+     * @param event the index of the event in the snapshot
+     * @return the title of the event
+     */
+    public String getTitle(final int event) {
+        int offset = titleTableOffset + buffer.getInt(eventsOffset + event * EVENT_RECORD_SIZE + Integer.BYTES);
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = buffer.get(offset + Integer.BYTES + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Visits every event of the snapshot in program order, reading each event straight from
+     * the snapshot rather than creating the tracks of the conference
+     *
+     * @param visitor the visitor to pass the events to
+     * @throws IOException if the visitor fails to write an event
+     */
+    public void accept(final IScheduleVisitor visitor) throws IOException {
+        visitor.startConference();
+        for (int trackIndex = 0; trackIndex < noOfTracks; trackIndex++) {
+            visitor.startTrack(trackIndex + 1);
+            for (int sessionNo = 0; sessionNo < getNoOfSessions(trackIndex); sessionNo++) {
+                visitor.startSession(sessionNo);
+                int session = getFirstSession(trackIndex) + sessionNo;
+                for (int event = getFirstEvent(session); event < getFirstEvent(session + 1); event++) {
+                    if (isBreak(event))
+                        visitor.visitBreak(getEventId(event), getTitle(event), getDurationInMinutes(event), 
+                                getStartMinuteOfDay(event));
+                    else
+                        visitor.visitTalk(getEventId(event), getTitle(event), getDurationInMinutes(event), 
+                                getStartMinuteOfDay(event));
+                }
+            }
+            visitor.endTrack(trackIndex + 1);
+        }
+        visitor.endConference();
+    }
+
+    /**
+     * Creates a conference holding the talks of the snapshot, for callers that work with
+     * the {@link Conference} model. The breaks of each track are placed again from its talks.
+     *
+     * @param trackFactory creates each empty track of the conference
+     * @return a conference with the same schedule
+     * @throws ScheduleException if a talk does not fit into the sessions created by the factory
+     */
+    public Conference toConference(final Supplier<Track> trackFactory) throws ScheduleException {
+        Conference conference = new Conference();
+        for (int trackIndex = 0; trackIndex < noOfTracks; trackIndex++) {
+            Track track = trackFactory.get();
+            for (int sessionNo = 0; sessionNo < getNoOfSessions(trackIndex); sessionNo++) {
+                int session = getFirstSession(trackIndex) + sessionNo;
+                for (int event = getFirstEvent(session); event < getFirstEvent(session + 1); event++) {
+                    if (!isBreak(event))
+                        track.getSession(sessionNo).scheduleEventInSession(
+                                new Event(getEventId(event), getTitle(event), getDurationInMinutes(event)), false);
+                }
+            }
+            track.updateBreaks();
+            conference.addTrack(track);
+        }
+        return conference;
+    }
+
+    private int getFirstSession(final int trackIndex) {
+        return buffer.getInt(HEADER_SIZE + trackIndex * Integer.BYTES);
+    }
+
+    private int getFirstEvent(final int session) {
+        return buffer.getInt(sessionIndexOffset + session * Integer.BYTES);
+    }
+}
@@ -0,0 +1,193 @@
+package info.gregbiegel.service.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import info.gregbiegel.model.*;
+
+/**
+ * Writes a scheduled conference to the binary snapshot format read by {@link ScheduleSnapshot}.
+ * The writer visits the conference to collect its tracks, sessions and events, and then
+ * writes the snapshot through a {@link FileChannel} in a single gathering write.
+ *
+ */
+public class ScheduleSnapshotWriter implements IScheduleVisitor {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] trackFirstSession = new int[INITIAL_CAPACITY];
+    private int noOfTracks;
+    private int[] sessionFirstEvent = new int[INITIAL_CAPACITY];
+    private int noOfSessions;
+    private ByteBuffer events = ByteBuffer.allocate(INITIAL_CAPACITY * ScheduleSnapshot.EVENT_RECORD_SIZE);
+    private int noOfEvents;
+    private ByteBuffer titles = ByteBuffer.allocate(INITIAL_CAPACITY * 32);
+
+    /**
+     * The position in the title table of each title that has been written
+     */
+    private final Map<String, Integer> titleOffsets = new HashMap<>();
+
+    /**
+     * Writes a snapshot of a conference
+     *
+     * @param file the snapshot file to write
+     * @param conference the scheduled conference
+     * @throws IOException if there is a problem writing the file
+     */
+    public static void write(final Path file, final Conference conference) throws IOException {
+        ScheduleSnapshotWriter writer = new ScheduleSnapshotWriter();
+        conference.accept(writer);
+        writer.writeTo(file);
+    }
+
+    /**
+     * Writes a snapshot of a compact conference
+     *
+     * @param file the snapshot file to write
+     * @param conference the scheduled conference
+     * @throws IOException if there is a problem writing the file
+     */
+    public static void write(final Path file, final CompactConference conference) throws IOException {
+        ScheduleSnapshotWriter writer = new ScheduleSnapshotWriter();
+        conference.accept(writer);
+        writer.writeTo(file);
+    }
+
+    @Override
+    public void startConference() {
+    }
+
+    @Override
+    public void startTrack(final int trackNo) {
+        if (noOfTracks + 1 == trackFirstSession.length)
+            trackFirstSession = Arrays.copyOf(trackFirstSession, trackFirstSession.length * 2);
+        trackFirstSession[noOfTracks++] = noOfSessions;
+    }
+
+    @Override
+    public void startSession(final int sessionNo) {
+        if (noOfSessions + 1 == sessionFirstEvent.length)
+            sessionFirstEvent = Arrays.copyOf(sessionFirstEvent, sessionFirstEvent.length * 2);
+        sessionFirstEvent[noOfSessions++] = noOfEvents;
+    }
+
+    @Override
+    public void visitTalk(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) {
+        addEvent(eventId, title, durationInMinutes, startMinuteOfDay, ScheduleSnapshot.TALK);
+    }
+
+    @Override
+    public void visitBreak(final int eventId, final String title, final int durationInMinutes, 
+            final int startMinuteOfDay) {
+        addEvent(eventId, title, durationInMinutes, startMinuteOfDay, ScheduleSnapshot.BREAK);
+    }
+
+    @Override
+    public void endTrack(final int trackNo) {
+    }
+
+    @Override
+    public void endConference() {
+        trackFirstSession[noOfTracks] = noOfSessions;
+        sessionFirstEvent[noOfSessions] = noOfEvents;
+    }
+
+    private void addEvent(final int eventId, final String title, final int durationInMinutes,
+            final int startMinuteOfDay, final byte kind) {
+        Integer titleOffset = titleOffsets.get(title);
+        if (titleOffset == null) {
+            byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+            titles = ensureRemaining(titles, Integer.BYTES + bytes.length);
+            titleOffset = titles.position();
+            titles.putInt(bytes.length).put(bytes);
+            titleOffsets.put(title, titleOffset);
+        }
+        events = ensureRemaining(events, ScheduleSnapshot.EVENT_RECORD_SIZE);
+        events.putInt(eventId)
+                .putInt(titleOffset)
+                .putShort((short) startMinuteOfDay)
+                .putShort((short) durationInMinutes)
+                .put(kind)
+                .put(new byte[ScheduleSnapshot.EVENT_RECORD_SIZE - 13]);
+        noOfEvents++;
+    }
+
+    /**
+     * Creates a snapshot of a conference held in memory rather than in a file
+     *
+     * @param conference the scheduled conference
+     * @return the snapshot
+     */
+    public static ScheduleSnapshot snapshot(final Conference conference) {
+        ScheduleSnapshotWriter writer = new ScheduleSnapshotWriter();
+        try {
+            conference.accept(writer);
+            ByteBuffer[] buffers = writer.toBuffers();
+            ByteBuffer snapshot = ByteBuffer.allocate(buffers[0].remaining() + buffers[1].remaining() 
+                    + buffers[2].remaining());
+            for (ByteBuffer buffer : buffers)
+                snapshot.put(buffer);
+            snapshot.flip();
+            return new ScheduleSnapshot(snapshot);
+        } catch (IOException e) {
+            // The writer does no I/O while visiting, and always writes a valid snapshot
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the snapshot that has been collected
+     */
+    private void writeTo(final Path file) throws IOException {
+        ByteBuffer[] buffers = toBuffers();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffers[2].hasRemaining())
+                channel.write(buffers);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Gets the header and indexes, the event records and the title table of the snapshot
+     * that has been collected, ready to be written in that order
+     */
+    private ByteBuffer[] toBuffers() {
+        ByteBuffer index = ByteBuffer.allocate(ScheduleSnapshot.HEADER_SIZE 
+                + (noOfTracks + 1 + noOfSessions + 1) * Integer.BYTES);
+        int titleTableOffset = index.capacity() + events.position();
+        index.putInt(ScheduleSnapshot.MAGIC)
+                .putInt(ScheduleSnapshot.VERSION)
+                .putInt(noOfTracks)
+                .putInt(noOfSessions)
+                .putInt(noOfEvents)
+                .putInt(titleTableOffset)
+                .putInt(0)
+                .putInt(0);
+        for (int track = 0; track <= noOfTracks; track++)
+            index.putInt(trackFirstSession[track]);
+        for (int session = 0; session <= noOfSessions; session++)
+            index.putInt(sessionFirstEvent[session]);
+        index.flip();
+        ByteBuffer eventsView = events.duplicate();
+        eventsView.flip();
+        ByteBuffer titlesView = titles.duplicate();
+        titlesView.flip();
+        return new ByteBuffer[] { index, eventsView, titlesView };
+    }
+
+    private static ByteBuffer ensureRemaining(final ByteBuffer buffer, final int required) {
+        if (buffer.remaining() >= required)
+            return buffer;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + required));
+        buffer.flip();
+        return grown.put(buffer);
+    }
+}
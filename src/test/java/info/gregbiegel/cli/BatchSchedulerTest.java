@@ -0,0 +1,87 @@
+package info.gregbiegel.cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.TrackTemplate;
+import info.gregbiegel.service.binpack.BinPackType;
+import info.gregbiegel.service.render.ScheduleFormat;
+
+public class BatchSchedulerTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void init() throws Exception {
+        directory = Files.createTempDirectory("batch");
+        Path input = Paths.get("src/test/resources/conference_data.txt");
+        Files.createDirectories(directory.resolve("events/day"));
+        Files.copy(input, directory.resolve("events/first.txt"));
+        Files.copy(input, directory.resolve("events/second.txt"));
+        Files.copy(input, directory.resolve("events/day/third.txt"));
+        Files.copy(Paths.get("src/test/resources/conference_data_bad.txt"), directory.resolve("events/bad.txt"));
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    void parse_allOptions_optionsSet() throws Exception {
+        BatchOptions options = BatchOptions.parse(new String[] { "--algorithm", "first-fit-decreasing", 
+                "--threads", "3", "--format", "json", "--output", directory.resolve("out").toString(), 
+                directory.resolve("events/*.txt").toString() });
+        assertEquals(BinPackType.FIRST_FIT_DECREASING, options.getBinPackType());
+        assertEquals(3, options.getNoOfThreads());
+        assertEquals(ScheduleFormat.JSON, options.getFormat());
+        assertEquals(3, options.getInputs().size());
+        assertEquals(directory.resolve("out/first-program.json"), 
+                options.getOutputFile(directory.resolve("events/first.txt")));
+    }
+
+    @Test
+    void parse_recursiveGlob_nestedInputsFound() throws Exception {
+        BatchOptions options = BatchOptions.parse(new String[] { "--algorithm", "4", 
+                directory.resolve("events/**.txt").toString() });
+        assertEquals(BinPackType.FIRST_FIT_DECREASING, options.getBinPackType());
+        assertEquals(4, options.getInputs().size());
+    }
+
+    @Test
+    void parse_invalidOptions_exception() {
+        assertThrows(IllegalArgumentException.class, () -> BatchOptions.parse(new String[] { "--threads", "0", "x" }));
+        assertThrows(IllegalArgumentException.class, () -> BatchOptions.parse(new String[] { "--algorithm", "best" }));
+        assertThrows(IllegalArgumentException.class, 
+                () -> BatchOptions.parse(new String[] { directory.resolve("events/*.csv").toString() }));
+    }
+
+    @Test
+    void run_manyInputs_programWrittenPerInput() throws Exception {
+        Path output = directory.resolve("out");
+        BatchOptions options = BatchOptions.parse(new String[] { "--threads", "2", "--output", output.toString(), 
+                directory.resolve("events/**.txt").toString() });
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        BatchSummary summary = new BatchScheduler(options, TrackTemplate.getDefault())
+                .run(new PrintStream(errors, true, "UTF-8"));
+
+        assertEquals(3, summary.getNoOfScheduledInputs());
+        assertEquals(1, summary.getNoOfFailedInputs());
+        assertEquals(57, summary.getNoOfTalks());
+        assertTrue(new String(errors.toByteArray(), StandardCharsets.UTF_8).contains("bad.txt"));
+        assertTrue(summary.toString().startsWith("Scheduled 3 of 4 inputs (57 talks"));
+        String program = new String(Files.readAllBytes(output.resolve("third-program.txt")), StandardCharsets.UTF_8);
+        assertTrue(program.startsWith("Conference"));
+        assertFalse(Files.exists(output.resolve("bad-program.txt")));
+    }
+}
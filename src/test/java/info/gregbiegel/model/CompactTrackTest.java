@@ -0,0 +1,53 @@
+package info.gregbiegel.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CompactTrackTest {
+
+    private EventCatalog catalog;
+    private CompactTrack track;
+
+    @BeforeEach
+    void init() {
+        catalog = new EventCatalog();
+        catalog.add("Event1", 120);
+        catalog.add("Event2", 60);
+        catalog.add("Event3", 150);
+        catalog.add("Event4", 60);
+        track = new CompactConference(catalog, Arrays.asList(new MorningSession(), new AfternoonSession())).addTrack();
+    }
+
+    @Test
+    void append_talksInSessionOrder_startMinutesAssigned() {
+        assertTrue(track.append(0, 2));
+        assertTrue(track.append(0, 3));
+        assertFalse(track.append(0, 5));
+        assertTrue(track.append(1, 4));
+        assertEquals(3, track.getNoOfEvents());
+        assertEquals(0, track.getRemainingMinutes(0));
+        assertEquals(11 * 60, track.getStartMinuteOfDay(1));
+        assertEquals(13 * 60, track.getStartMinuteOfDay(2));
+        assertTrue(track.hasBreaks());
+
+        Iterator<ScheduledEvent> afternoon = track.getScheduledEvents(1);
+        assertTrue(afternoon.next() instanceof LunchBreak);
+        assertEquals("Event3", afternoon.next().getTitle());
+        ScheduledEvent networking = afternoon.next();
+        assertEquals(LocalTime.of(16, 0), networking.getStartTime());
+        assertFalse(afternoon.hasNext());
+    }
+
+    @Test
+    void append_earlierSession_exceptionThrown() {
+        assertTrue(track.append(1, 4));
+        assertThrows(IllegalStateException.class, () -> {
+            track.append(0, 2);
+        });
+    }
+}
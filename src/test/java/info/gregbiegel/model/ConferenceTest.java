@@ -0,0 +1,51 @@
+package info.gregbiegel.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConferenceTest {
+
+    private Conference conference;
+
+    /**
+     * Creates a conference of five tracks, the first three of which are full, with the
+     * morning talk of track n having id 2n + 2 and its afternoon talk id 2n + 3
+     */
+    @BeforeEach
+    void init() throws Exception {
+        conference = new Conference();
+        for (int trackNo = 0; trackNo < 5; trackNo++) {
+            Track track = TrackTemplate.getDefault().createTrack();
+            if (trackNo < 3) {
+                track.getSession(0).scheduleEventInSession(new Event(2 * trackNo + 2, "Morning", 180), false);
+                track.getSession(1).scheduleEventInSession(new Event(2 * trackNo + 3, "Afternoon", 240), false);
+                track.updateBreaks();
+            }
+            conference.addTrack(track);
+        }
+    }
+
+    @Test
+    void addEvent_fullTracks_firstTrackWithRoom() {
+        Track track = conference.addEvent(new Event(20, "Keynote", 60));
+        assertSame(conference.getTracks().get(3), track);
+        assertEquals(1, track.getSession(0).getNoOfScheduledEvents());
+        assertNull(conference.addEvent(new Event(21, "Marathon", 300)));
+    }
+
+    @Test
+    void removeEvent_thenAddEvent_freedSessionReused() {
+        assertSame(conference.getTracks().get(1), conference.removeEvent(4));
+        assertNull(conference.removeEvent(4));
+        Track track = conference.addEvent(new Event(20, "Keynote", 60));
+        assertSame(conference.getTracks().get(1), track);
+        assertSame(track, conference.removeEvent(20));
+
+        conference.addTrack(new Track(TrackTemplate.getDefault().createSessions()));
+        assertSame(conference.getTracks().get(1), conference.addEvent(new Event(21, "Workshop", 180)));
+        assertSame(conference.getTracks().get(3), conference.addEvent(new Event(22, "Workshop", 240)));
+        assertSame(conference.getTracks().get(3), conference.addEvent(new Event(23, "Workshop", 180)));
+    }
+}
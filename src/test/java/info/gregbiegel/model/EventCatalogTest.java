@@ -0,0 +1,51 @@
+package info.gregbiegel.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EventCatalogTest {
+
+    private EventCatalog catalog;
+
+    @BeforeEach
+    void init() {
+        catalog = new EventCatalog();
+        for (int i = 0; i < 100; i++)
+            catalog.add("Event" + i, i % 60 + 5);
+    }
+
+    @Test
+    void add_distinctTitles_denseIdsAssigned() {
+        assertEquals(100, catalog.getNoOfTalks());
+        assertEquals(100, catalog.getNoOfTitles());
+        assertFalse(catalog.contains(1));
+        assertTrue(catalog.contains(EventCatalog.FIRST_TALK_ID));
+        assertEquals("Event42", catalog.getTitle(44));
+        assertEquals(47, catalog.getDurationInMinutes(44));
+        assertEquals(44, catalog.findId("Event42"));
+        assertEquals(-1, catalog.findId("Event100"));
+        assertEquals(0, catalog.getDuplicateIds().length);
+    }
+
+    @Test
+    void add_duplicateTitle_keptAndReported() {
+        int id = catalog.add("Event7", 30);
+        assertEquals(102, id);
+        assertEquals(101, catalog.getNoOfTalks());
+        assertEquals(100, catalog.getNoOfTitles());
+        assertSame(catalog.getTitle(9), catalog.getTitle(id));
+        assertEquals(30, catalog.getDurationInMinutes(id));
+        assertEquals(9, catalog.findId("Event7"));
+        assertArrayEquals(new int[] { id }, catalog.getDuplicateIds());
+    }
+
+    @Test
+    void getEvent_reservedId_exceptionThrown() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            catalog.getEvent(0);
+        });
+        assertEquals("There is no event with id 0", exception.getMessage());
+    }
+}
@@ -0,0 +1,129 @@
+package info.gregbiegel.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+public class TrackTemplateTest {
+
+    @Test
+    void getDefault_morningAndAfternoon() {
+        TrackTemplate template = TrackTemplate.getDefault();
+        assertArrayEquals(new int[] { 180, 240 }, template.getBinPattern());
+        assertArrayEquals(new int[] { 9 * 60, 13 * 60 }, template.getSessionStartMinutes());
+        assertEquals(240, template.getMaximumDurationInMinutes());
+        assertEquals(1, template.getBreakSessionNo());
+        assertEquals(1, template.getLunchSessionNo());
+        assertEquals(LocalTime.of(12, 0), template.getLunchBreak().getStartTime());
+    }
+
+    private static List<ScheduledEvent> getEvents(final Session session) {
+        List<ScheduledEvent> events = new ArrayList<>();
+        for (Iterator<ScheduledEvent> eventIter = session.getScheduledEvents(); eventIter.hasNext(); )
+            events.add(eventIter.next());
+        return events;
+    }
+
+    @Test
+    void updateBreaks_oneSession_noLunchOverTalks() throws Exception {
+        TrackTemplate template = new TrackTemplate(Arrays.asList(new ConfiguredSession(LocalTime.of(9, 0), 480, 480)));
+        assertFalse(template.hasLunchBreak());
+        Track track = template.createTrack();
+        for (int i = 0; i < 8; i++)
+            track.getSession(0).scheduleEventInSession(new Event(i + 2, "Event" + i, 60), false);
+        track.updateBreaks();
+
+        List<ScheduledEvent> events = getEvents(track.getSession(0));
+        assertEquals(9, events.size());
+        assertEquals(LocalTime.of(12, 0), events.get(3).getStartTime());
+        assertFalse(events.get(3) instanceof ScheduledBreak);
+        assertTrue(events.get(8) instanceof NetworkingBreak);
+        assertEquals(LocalTime.of(17, 0), events.get(8).getStartTime());
+
+        Properties properties = new Properties();
+        properties.setProperty("sessions", "day");
+        properties.setProperty("day.start", "09:00");
+        properties.setProperty("day.maximumDuration", "480");
+        properties.setProperty("lunch.start", "12:00");
+        assertThrows(IllegalArgumentException.class, () -> TrackTemplate.fromProperties(properties));
+    }
+
+    @Test
+    void updateBreaks_threeSessions_breaksInTheirSlots() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("sessions", "morning,afternoon,evening");
+        properties.setProperty("morning.start", "09:00");
+        properties.setProperty("morning.maximumDuration", "150");
+        properties.setProperty("afternoon.start", "12:30");
+        properties.setProperty("afternoon.maximumDuration", "120");
+        properties.setProperty("evening.start", "15:00");
+        properties.setProperty("evening.maximumDuration", "150");
+        properties.setProperty("lunch.start", "11:30");
+        properties.setProperty("networking.earliestStart", "17:00");
+        TrackTemplate template = TrackTemplate.fromProperties(properties);
+        assertEquals(1, template.getLunchSessionNo());
+        // The evening ends at 17:30, so the networking event cannot start before then
+        assertEquals(LocalTime.of(17, 30), template.getNetworkingBreak(17 * 60).getStartTime());
+
+        assertSame(template, TrackTemplate.of(template.createSessions()));
+        Track track = template.createTrack();
+        for (int sessionNo = 0; sessionNo < 3; sessionNo++)
+            track.getSession(sessionNo).scheduleEventInSession(new Event(sessionNo + 2, "Event" + sessionNo, 60), false);
+        track.updateBreaks();
+
+        assertEquals(1, getEvents(track.getSession(0)).size());
+        List<ScheduledEvent> afternoon = getEvents(track.getSession(1));
+        assertTrue(afternoon.get(0) instanceof LunchBreak);
+        assertEquals(LocalTime.of(11, 30), afternoon.get(0).getStartTime());
+        assertEquals(LocalTime.of(12, 30), afternoon.get(1).getStartTime());
+        List<ScheduledEvent> evening = getEvents(track.getSession(2));
+        assertEquals(2, evening.size());
+        assertEquals(LocalTime.of(17, 0), evening.get(1).getStartTime());
+
+        EventCatalog catalog = new EventCatalog();
+        for (int sessionNo = 0; sessionNo < 3; sessionNo++)
+            catalog.add("Event" + sessionNo, 60);
+        CompactTrack compactTrack = new CompactConference(catalog, template.createSessions()).addTrack();
+        for (int sessionNo = 0; sessionNo < 3; sessionNo++)
+            assertTrue(compactTrack.append(sessionNo, sessionNo + EventCatalog.FIRST_TALK_ID));
+        assertEquals(compactTrack.toString(), track.toString());
+    }
+
+    @Test
+    void fromProperties_threeSessions_tracksHaveThreeSessions() {
+        Properties properties = new Properties();
+        properties.setProperty("sessions", "morning, afternoon, evening");
+        properties.setProperty("morning.start", "09:00");
+        properties.setProperty("morning.maximumDuration", "180");
+        properties.setProperty("afternoon.start", "13:00");
+        properties.setProperty("afternoon.maximumDuration", "120");
+        properties.setProperty("evening.start", "15:00");
+        properties.setProperty("evening.minimumDuration", "60");
+        properties.setProperty("evening.maximumDuration", "120");
+        TrackTemplate template = TrackTemplate.fromProperties(properties);
+
+        assertArrayEquals(new int[] { 180, 120, 120 }, template.getBinPattern());
+        assertEquals(60, template.getMinimumDurationInMinutes(2));
+        assertEquals(120, template.getMinimumDurationInMinutes(1));
+        Track track = template.createTrack();
+        assertEquals(3, track.getNoOfSessions());
+        assertEquals(LocalTime.of(15, 0), track.getSession(2).getStartTime());
+        assertNotSame(track.getSession(0), template.createTrack().getSession(0));
+    }
+
+    @Test
+    void fromProperties_missingSession_exception() {
+        Properties properties = new Properties();
+        properties.setProperty("sessions", "morning");
+        assertThrows(IllegalArgumentException.class, () -> TrackTemplate.fromProperties(properties));
+    }
+
+    @Test
+    void trackTemplate_sessionPastMidnight_exception() {
+        assertThrows(IllegalArgumentException.class, 
+                () -> new TrackTemplate(Arrays.asList(new ConfiguredSession(LocalTime.of(23, 0), 60, 120))));
+    }
+}
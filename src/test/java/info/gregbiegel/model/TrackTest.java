@@ -0,0 +1,70 @@
+package info.gregbiegel.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TrackTest {
+
+    private Track track;
+
+    @BeforeEach
+    void init() throws Exception {
+        track = new Track(Arrays.asList(new MorningSession(), new AfternoonSession()));
+        track.getSession(0).scheduleEventInSession(new Event(2, "Event1", 60), false);
+        track.getSession(0).scheduleEventInSession(new Event(3, "Event2", 60), false);
+        track.getSession(0).scheduleEventInSession(new Event(4, "Event3", 60), false);
+        track.getSession(1).scheduleEventInSession(new Event(5, "Event4", 150), false);
+        track.getSession(1).scheduleEventInSession(new Event(6, "Event5", 30), true);
+    }
+
+    @Test
+    void addEvent_roomInAfternoon_breaksMoved() {
+        assertTrue(track.addEvent(new Event(7, "Event6", 30)));
+        Session afternoon = track.getSession(1);
+        assertEquals(5, afternoon.getNoOfScheduledEvents());
+        assertEquals(LocalTime.of(16, 30), afternoon.getScheduledTalksEndTime());
+        assertEquals(NetworkingBreak.LATEST_START_TIME, getNetworkingStartTime(afternoon));
+    }
+
+    @Test
+    void addEvent_noRoom_returnFalse() {
+        assertFalse(track.addEvent(new Event(7, "Event6", 61)));
+        assertEquals(3, track.getSession(0).getNoOfScheduledEvents());
+    }
+
+    @Test
+    void removeEvent_morningTalk_sessionCompacted() {
+        assertTrue(track.removeEvent(3));
+        Session morning = track.getSession(0);
+        assertEquals(2, morning.getNoOfScheduledEvents());
+        Iterator<ScheduledEvent> events = morning.getScheduledEvents();
+        assertEquals(LocalTime.of(9, 0), events.next().getStartTime());
+        ScheduledEvent moved = events.next();
+        assertEquals(4, moved.getId());
+        assertEquals(LocalTime.of(10, 0), moved.getStartTime());
+        assertEquals(60, morning.getRemainingMinutes());
+    }
+
+    @Test
+    void removeEvent_lastAfternoonTalks_breaksRemoved() {
+        assertTrue(track.removeEvent(5));
+        assertEquals(NetworkingBreak.EARLIEST_START_TIME, getNetworkingStartTime(track.getSession(1)));
+        assertTrue(track.removeEvent(6));
+        assertEquals(0, track.getSession(1).getNoOfScheduledEvents());
+        assertFalse(track.removeEvent(6));
+    }
+
+    private LocalTime getNetworkingStartTime(final Session session) {
+        for (Iterator<ScheduledEvent> events = session.getScheduledEvents(); events.hasNext(); ) {
+            ScheduledEvent event = events.next();
+            if (event instanceof NetworkingBreak)
+                return event.getStartTime();
+        }
+        return null;
+    }
+}
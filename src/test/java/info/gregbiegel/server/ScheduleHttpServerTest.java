@@ -0,0 +1,95 @@
+package info.gregbiegel.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.TrackTemplate;
+
+public class ScheduleHttpServerTest {
+
+    private ScheduleHttpServer server;
+
+    @BeforeEach
+    void init() throws Exception {
+        server = new ScheduleHttpServer(new InetSocketAddress("localhost", 0), TrackTemplate.getDefault(), 4, 10000);
+        server.start();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        server.stop(0);
+    }
+
+    @Test
+    void schedule_validTalks_programReturned() throws Exception {
+        HttpURLConnection connection = post("?algorithm=first-fit-decreasing&format=json", 
+                Files.readAllBytes(Paths.get("src/test/resources/conference_data.txt")));
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("application/json"));
+        String program = read(connection.getInputStream());
+        assertTrue(program.startsWith("{\"tracks\":[{\"track\":1,"));
+        assertTrue(program.contains("\"title\":\"Writing Fast Tests Against Enterprise Rails\""));
+    }
+
+    @Test
+    void schedule_invalidTalks_badRequest() throws Exception {
+        HttpURLConnection connection = post("", "No duration here\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(400, connection.getResponseCode());
+    }
+
+    @Test
+    void schedule_unknownAlgorithm_badRequest() throws Exception {
+        HttpURLConnection connection = post("?algorithm=worst-fit", "Talk 30min\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(400, connection.getResponseCode());
+        assertTrue(read(connection.getErrorStream()).contains("Unknown algorithm worst-fit"));
+    }
+
+    @Test
+    void schedule_unknownFormat_badRequest() throws Exception {
+        HttpURLConnection connection = post("?format=pdf", "Talk 30min\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(400, connection.getResponseCode());
+        assertTrue(read(connection.getErrorStream()).contains("Unknown format pdf"));
+    }
+
+    @Test
+    void schedule_talkLongerThanSessions_unprocessable() throws Exception {
+        HttpURLConnection connection = post("", "Marathon 300min\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(422, connection.getResponseCode());
+    }
+
+    @Test
+    void schedule_get_methodNotAllowed() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() 
+                + ScheduleHttpServer.SCHEDULE_PATH).openConnection();
+        assertEquals(405, connection.getResponseCode());
+    }
+
+    private HttpURLConnection post(final String query, final byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() 
+                + ScheduleHttpServer.SCHEDULE_PATH + query).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+        return connection;
+    }
+
+    private static String read(final InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n; (n = input.read(buffer)) > 0; )
+            output.write(buffer, 0, n);
+        input.close();
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,168 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.binpack.*;
+import info.gregbiegel.service.concurrent.CancellationToken;
+import info.gregbiegel.service.exception.ConferenceSchedulerException;
+import info.gregbiegel.service.parser.MappedTalkFileParser;
+
+public class AsyncConferenceServiceTest {
+
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private static Set<Event> createEvents(final int noOfEvents) {
+        Set<Event> events = new HashSet<>();
+        Random random = new Random(42);
+        for (int id = 2; id < noOfEvents + 2; id++)
+            events.add(new Event(id, "Talk " + id, 5 + random.nextInt(56)));
+        return events;
+    }
+
+    @Test
+    void scheduleConferenceAsync_completes_sameAsBlocking() throws Exception {
+        IConferenceService service = new ConferenceServiceImpl(BinPackType.FIRST_FIT_DECREASING);
+        Set<Event> events = createEvents(200);
+        List<Session> sessions = TrackTemplate.getDefault().createSessions();
+        Conference conference = service.scheduleConferenceAsync(events, sessions, System.nanoTime() + ONE_MINUTE,
+                new CancellationToken()).get();
+        assertEquals(conference.toString(), service.scheduleConference(events, sessions).toString());
+    }
+
+    @Test
+    void scheduleConferenceAsync_unschedulable_failsWithSchedulerException() throws Exception {
+        IConferenceService service = new ConferenceServiceImpl();
+        Set<Event> events = new HashSet<>(Arrays.asList(new Event(2, "Marathon", 500)));
+        CompletableFuture<Conference> result = service.scheduleConferenceAsync(events,
+                TrackTemplate.getDefault().createSessions(), System.nanoTime() + ONE_MINUTE, new CancellationToken());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get());
+        assertTrue(e.getCause() instanceof ConferenceSchedulerException);
+    }
+
+    @Test
+    void scheduleConferenceAsync_tokenCancelled_futureCancelled() {
+        IConferenceService service = new ConferenceServiceImpl();
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        CompletableFuture<Conference> result = service.scheduleConferenceAsync(createEvents(10),
+                TrackTemplate.getDefault().createSessions(), System.nanoTime() + ONE_MINUTE, token);
+        assertThrows(CancellationException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertTrue(result.isCancelled());
+    }
+
+    @Test
+    void scheduleConferenceAsync_deadlineExpires_timesOutPromptly() throws Exception {
+        // First fit over this many talks takes far longer than the deadline
+        IConferenceService service = new ConferenceServiceImpl(BinPackType.FIRST_FIT);
+        Set<Event> events = createEvents(300000);
+        long start = System.nanoTime();
+        CompletableFuture<Conference> result = service.scheduleConferenceAsync(events,
+                TrackTemplate.getDefault().createSessions(), start + TimeUnit.MILLISECONDS.toNanos(50),
+                new CancellationToken());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void scheduleConferenceAsync_callerCancelsFuture_cancelled() throws Exception {
+        IConferenceService service = new ConferenceServiceImpl(BinPackType.FIRST_FIT);
+        CompletableFuture<Conference> result = service.scheduleConferenceAsync(createEvents(300000),
+                TrackTemplate.getDefault().createSessions(), System.nanoTime() + ONE_MINUTE, new CancellationToken());
+        assertTrue(result.cancel(false));
+        assertThrows(CancellationException.class, () -> result.get());
+    }
+
+    @Test
+    void scheduleConferenceAsync_fromFileWithCancelledToken_cancelled() throws Exception {
+        Path file = Files.createTempFile("talks", ".txt");
+        try {
+            Files.write(file, Collections.nCopies(10000, "Networking lightning"), StandardCharsets.UTF_8);
+            IConferenceService service = new ConferenceServiceImpl();
+            CancellationToken token = new CancellationToken();
+            token.cancel();
+            CompletableFuture<Conference> result = service.scheduleConferenceAsync(file.toString(),
+                    TrackTemplate.getDefault().createSessions(), System.nanoTime() + ONE_MINUTE, token);
+            assertThrows(CancellationException.class, () -> result.get(10, TimeUnit.SECONDS));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void scheduleConferenceAsync_fromStalledStream_timesOut() throws Exception {
+        // The talks are never written, so only a deadline that covers reading them ends the request
+        PipedOutputStream talks = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(talks);
+        try {
+            IConferenceService service = new ConferenceServiceImpl();
+            CompletableFuture<Conference> result = service.scheduleConferenceAsync(input,
+                    TrackTemplate.getDefault().createSessions(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50),
+                    new CancellationToken());
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof TimeoutException);
+        } finally {
+            talks.close();
+        }
+    }
+
+    @Test
+    void pack_cancelledToken_stopsPacking() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        Event[] events = createEvents(10000).toArray(new Event[0]);
+        int[] binPattern = TrackTemplate.getDefault().getBinPattern();
+        assertThrows(CancellationException.class, () -> new FirstFitBinPacker().pack(events, binPattern, token));
+        assertThrows(CancellationException.class, () -> new BestFitDecreasingBinPacker().pack(events, binPattern, token));
+        assertThrows(CancellationException.class, () -> new BranchAndBoundBinPacker().pack(events, binPattern, token));
+        assertThrows(CancellationException.class, () -> new HistogramBinPacker().pack(events, binPattern, token));
+        assertThrows(CancellationException.class,
+                () -> new PortfolioBinPackerFactory().createBinPacker().pack(events, binPattern, token));
+    }
+
+    @Test
+    void parse_cancelledToken_stopsParsing() {
+        StringBuilder talks = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            talks.append("Networking lightning\n");
+        ByteBuffer buffer = ByteBuffer.wrap(talks.toString().getBytes(StandardCharsets.UTF_8));
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        List<String> titles = new ArrayList<>();
+        assertThrows(CancellationException.class, () -> new MappedTalkFileParser(MappedTalkFileParser.DEFAULT_WINDOW_SIZE,
+                token).parse(buffer, 0, buffer.limit(), 2, (id, title, durationInMinutes) -> titles.add(title)));
+        assertTrue(titles.size() < 5000);
+    }
+
+    @Test
+    void withDeadline_cancelledByParentOrDeadline() throws Exception {
+        CancellationToken parent = new CancellationToken();
+        CancellationToken child = parent.withDeadline(System.nanoTime() + ONE_MINUTE);
+        assertFalse(child.isCancelled());
+        child.cancel();
+        assertTrue(child.isCancelled());
+        assertFalse(parent.isCancelled());
+
+        CancellationToken other = parent.withDeadline(System.nanoTime() + ONE_MINUTE);
+        parent.cancel();
+        assertTrue(other.isCancelled());
+        assertFalse(other.isDeadlineExpired());
+
+        CancellationToken expired = new CancellationToken().withDeadline(System.nanoTime());
+        assertTrue(expired.isDeadlineExpired());
+        CancellationException e = assertThrows(CancellationException.class, expired::throwIfCancelled);
+        assertEquals(e.getMessage(), "Deadline expired");
+    }
+}
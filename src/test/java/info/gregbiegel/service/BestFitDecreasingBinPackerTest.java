@@ -0,0 +1,95 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.binpack.*;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+public class BestFitDecreasingBinPackerTest {
+
+    private IBinPackerFactory binPackerFactory = new BestFitDecreasingBinPackerFactory();
+    private IBinPacker binPacker;
+
+    @BeforeEach
+    void init() {
+        binPacker = binPackerFactory.createBinPacker();
+    }
+
+    @Test
+    public void pack_validInput_success() throws Exception {
+        //[2,5,4,7,1,3,8] with a bin size of 10
+        //Will be sorted to [8,7,5,4,3,2,1] and packed into the following bins
+        //[8,2], [7,3], [5,4,1]
+        Event event1 = new Event(1, "Event1", 2);
+        Event event2 = new Event(2, "Event2", 5);
+        Event event3 = new Event(3, "Event3", 4);
+        Event event4 = new Event(4, "Event4", 7);
+        Event event5 = new Event(5, "Event5", 1);
+        Event event6 = new Event(6, "Event6", 3); 
+        Event event7 = new Event(7, "Event7", 8);
+        Event[] items = new Event[] {event1, event2, event3, event4, event5, event6, event7};
+        int[] binPattern = new int[]{10};
+        List<List<Event>> packedEvents = binPacker.pack(items, binPattern);
+        assertEquals(3, packedEvents.size());
+        assertEquals(packedEvents.get(0), Arrays.asList(event7, event1));
+        assertEquals(packedEvents.get(1), Arrays.asList(event4, event6));
+        assertEquals(packedEvents.get(2), Arrays.asList(event2, event3, event5));
+    }
+
+    @Test
+    public void pack_tighterBinAvailable_bestFitChosen() throws Exception {
+        //[6,5,3] with a bin pattern of [10,8]
+        //First fit would place 3 in the first bin alongside 6, best fit places it
+        //in the second bin alongside 5 as that leaves the least remaining space
+        //[6], [5,3]
+        Event event1 = new Event(1, "Event1", 6);
+        Event event2 = new Event(2, "Event2", 5);
+        Event event3 = new Event(3, "Event3", 3);
+        Event[] items = new Event[] {event3, event1, event2};
+        List<List<Event>> packedEvents = binPacker.pack(items, new int[]{10,8});
+        assertEquals(2, packedEvents.size());
+        assertEquals(packedEvents.get(0), Arrays.asList(event1));
+        assertEquals(packedEvents.get(1), Arrays.asList(event2, event3));
+    }
+
+    @Test
+    public void pack_emptyInput_success() throws Exception {
+        Event[] items = new Event[0];
+        int[] binPattern = new int[]{100,50};
+        List<List<Event>> packedEvents = binPacker.pack(items, binPattern);
+        assertEquals(0, packedEvents.size());
+    }
+
+    @Test
+    public void pack_noBinPattern_exceptionThrown() {
+        Event[] items = new Event[1];
+        items[0] = new Event(1, "Event1", 2);
+        int[] binPattern = new int[0];
+
+        InvalidBinPatternException exception = assertThrows(InvalidBinPatternException.class, () -> {
+            binPacker.pack(items, binPattern);
+        });
+        assertEquals("Invalid bin pattern provided", exception.getMessage());
+    }
+
+    @Test
+    public void pack_afterLargerPacking_sameAsFreshPacker() throws Exception {
+        // The second packing reuses the scratch arrays of the first, which hold its stale results
+        Event[] largeItems = new Event[5000];
+        for (int i = 0; i < largeItems.length; i++)
+            largeItems[i] = new Event(i + 2, "Talk " + i, i % 60 + 1);
+        binPacker.pack(largeItems, new int[] { 180, 240 });
+        Event[] items = new Event[] { new Event(1, "Event1", 2), new Event(2, "Event2", 5), new Event(3, "Event3", 4),
+                new Event(4, "Event4", 7), new Event(5, "Event5", 1) };
+        assertEquals(binPacker.pack(items, new int[] { 10 }), 
+                binPackerFactory.createBinPacker().pack(items, new int[] { 10 }));
+    }
+}
@@ -0,0 +1,76 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.binpack.*;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+public class BranchAndBoundBinPackerTest {
+
+    private IBinPackerFactory binPackerFactory = new BranchAndBoundBinPackerFactory();
+    private IBinPacker binPacker;
+
+    @BeforeEach
+    void init() {
+        binPacker = binPackerFactory.createBinPacker();
+    }
+
+    @Test
+    public void pack_heuristicSuboptimal_optimalFound() throws Exception {
+        //[4,4,4,3,3,3,2,2,2] with a bin size of 9
+        //Best fit decreasing needs 4 bins, the optimal packing is [4,3,2] x 3
+        Event[] items = new Event[9];
+        int[] durations = new int[]{4,4,4,3,3,3,2,2,2};
+        for (int i = 0; i < durations.length; i++)
+            items[i] = new Event(i + 2, "Event" + i, durations[i]);
+        int[] binPattern = new int[]{9};
+        assertEquals(4, new BestFitDecreasingBinPacker().pack(items, binPattern).size());
+        PackingResult result = new BranchAndBoundBinPacker().pack(items, binPattern, 
+                System.nanoTime() + 1_000_000_000L);
+        assertEquals(3, result.getNoOfBins());
+        assertTrue(result.isProvenOptimal());
+        for (List<Event> bin : result.getBins())
+            assertEquals(9, bin.stream().mapToInt(Event::getDurationInMinutes).sum());
+    }
+
+    @Test
+    public void pack_largeInput_returnsWithinBudget() throws Exception {
+        Random random = new Random(7);
+        Event[] items = new Event[3000];
+        for (int i = 0; i < items.length; i++)
+            items[i] = new Event(i + 2, "Event" + i, 5 + random.nextInt(116));
+        long start = System.nanoTime();
+        PackingResult result = new BranchAndBoundBinPacker().pack(items, new int[]{180,240}, 
+                start + 200_000_000L);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        assertTrue(elapsedMillis < 2000, "Search took " + elapsedMillis + "ms");
+        assertEquals(items.length, result.getBins().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void pack_emptyInput_success() throws Exception {
+        Event[] items = new Event[0];
+        int[] binPattern = new int[]{100,50};
+        List<List<Event>> packedEvents = binPacker.pack(items, binPattern);
+        assertEquals(0, packedEvents.size());
+    }
+
+    @Test
+    public void pack_noBinPattern_exceptionThrown() {
+        Event[] items = new Event[1];
+        items[0] = new Event(1, "Event1", 2);
+        int[] binPattern = new int[0];
+
+        InvalidBinPatternException exception = assertThrows(InvalidBinPatternException.class, () -> {
+            binPacker.pack(items, binPattern);
+        });
+        assertEquals("Invalid bin pattern provided", exception.getMessage());
+    }
+}
@@ -0,0 +1,129 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.binpack.BinPackType;
+import info.gregbiegel.service.exception.ConferenceSchedulerException;
+
+public class CachingConferenceServiceTest {
+
+    private Path cacheDirectory;
+    private List<Session> sessions;
+    private Set<Event> talks;
+    private AtomicInteger noOfSchedules;
+    private ConferenceServiceImpl delegate;
+
+    @BeforeEach
+    void init() throws Exception {
+        cacheDirectory = Files.createTempDirectory("schedules");
+        sessions = Arrays.asList(new MorningSession(), new AfternoonSession());
+        noOfSchedules = new AtomicInteger();
+        delegate = new ConferenceServiceImpl() {
+            @Override
+            public Conference scheduleConference(final Set<Event> events, final List<Session> sessions)
+                    throws ConferenceSchedulerException {
+                noOfSchedules.incrementAndGet();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.scheduleConference(events, sessions);
+            }
+        };
+        talks = delegate.readTalkDataFromFile("src/test/resources/conference_data.txt");
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory)) {
+            for (Path file : files)
+                Files.delete(file);
+        }
+        Files.delete(cacheDirectory);
+    }
+
+    @Test
+    void scheduleConference_sameTalksInAnyOrder_scheduledOnce() throws Exception {
+        CachingConferenceService cachingService = new CachingConferenceService(delegate, 1 << 20);
+        Conference conference = cachingService.scheduleConference(talks, sessions);
+        List<Event> reversedTalks = new ArrayList<>(talks);
+        Collections.reverse(reversedTalks);
+        Conference cachedConference = cachingService.scheduleConference(new LinkedHashSet<>(reversedTalks), sessions);
+        assertEquals(cachedConference.toString(), conference.toString());
+        assertNotSame(cachedConference, conference);
+        assertEquals(1, noOfSchedules.get());
+        assertEquals(1, cachingService.getMissCount());
+        assertEquals(1, cachingService.getHitCount());
+    }
+
+    @Test
+    void scheduleConference_differentTalks_scheduledAgain() throws Exception {
+        CachingConferenceService cachingService = new CachingConferenceService(delegate, 1 << 20);
+        cachingService.scheduleConference(talks, sessions);
+        Set<Event> moreTalks = new HashSet<>(talks);
+        moreTalks.add(new Event(100, "Caching for Fun and Profit", 30));
+        cachingService.scheduleConference(moreTalks, sessions);
+        assertEquals(2, noOfSchedules.get());
+        assertEquals(2, cachingService.getMissCount());
+    }
+
+    @Test
+    void scheduleConference_sizeBoundExceeded_leastRecentlyUsedEvicted() throws Exception {
+        CachingConferenceService cachingService = new CachingConferenceService(delegate, 1);
+        cachingService.scheduleConference(talks, sessions);
+        assertEquals(0, cachingService.getSizeInBytes());
+        cachingService.scheduleConference(talks, sessions);
+        assertEquals(2, noOfSchedules.get());
+    }
+
+    @Test
+    void scheduleConference_resultOnDisk_readWithoutScheduling() throws Exception {
+        Conference conference = new CachingConferenceService(delegate, 1 << 20, cacheDirectory)
+                .scheduleConference(talks, sessions);
+        CachingConferenceService restartedService = new CachingConferenceService(delegate, 1 << 20, cacheDirectory);
+        Conference cachedConference = restartedService.scheduleConference(talks, sessions);
+        assertEquals(cachedConference.toString(), conference.toString());
+        assertEquals(1, noOfSchedules.get());
+        assertEquals(1, restartedService.getDiskHitCount());
+    }
+
+    @Test
+    void scheduleConference_otherAlgorithm_notReadFromDisk() throws Exception {
+        new CachingConferenceService(delegate, 1 << 20, cacheDirectory).scheduleConference(talks, sessions);
+        CachingConferenceService otherService = new CachingConferenceService(
+                new ConferenceServiceImpl(BinPackType.FIRST_FIT_DECREASING), 1 << 20, cacheDirectory);
+        otherService.scheduleConference(talks, sessions);
+        assertEquals(0, otherService.getDiskHitCount());
+        assertEquals(1, otherService.getMissCount());
+    }
+
+    @Test
+    void scheduleConference_concurrentIdenticalRequests_scheduledOnce() throws Exception {
+        CachingConferenceService cachingService = new CachingConferenceService(delegate, 1 << 20);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Conference>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                results.add(executor.submit(() -> cachingService.scheduleConference(talks, sessions)));
+            String program = results.get(0).get().toString();
+            for (Future<Conference> result : results)
+                assertEquals(result.get().toString(), program);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, noOfSchedules.get());
+        assertEquals(8, cachingService.getHitCount() + cachingService.getMissCount() 
+                + cachingService.getCoalescedCount());
+    }
+}
@@ -0,0 +1,100 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.concurrent.ConcurrentConferenceScheduler;
+import info.gregbiegel.service.concurrent.ConcurrentConferenceScheduler.Placement;
+import info.gregbiegel.service.exception.ConferenceSchedulerException;
+
+public class ConcurrentConferenceSchedulerTest {
+
+    @Test
+    void submit_singleThread_sameAsFirstFit() throws Exception {
+        ConcurrentConferenceScheduler scheduler = new ConcurrentConferenceScheduler(TrackTemplate.getDefault(), 2);
+        Placement first = scheduler.submit(new Event(2, "Opening", 150));
+        Placement second = scheduler.submit(new Event(3, "Keynote", 60));
+        Placement third = scheduler.submit(new Event(4, "Closing", 30));
+        assertEquals(0, first.getSessionNo());
+        assertEquals(9 * 60, first.getStartMinuteOfDay());
+        assertEquals(1, second.getSessionNo());
+        assertEquals(13 * 60, second.getStartMinuteOfDay());
+        assertEquals(0, third.getSessionNo());
+        assertEquals(11 * 60 + 30, third.getStartMinuteOfDay());
+        assertEquals(0, third.getTrackIndex());
+
+        Conference conference = scheduler.snapshot();
+        assertEquals(1, conference.getTracks().size());
+        assertTrue(conference.toString().contains("11:30AM Closing 30m"));
+        assertTrue(conference.toString().contains("04:00PM Networking Event"));
+    }
+
+    @Test
+    void submit_fullSegmentsSkipped_shorterTalkStillFirstFit() throws Exception {
+        ConcurrentConferenceScheduler scheduler = new ConcurrentConferenceScheduler(TrackTemplate.getDefault(), 1);
+        scheduler.submit(new Event(2, "Opening", 175));
+        scheduler.submit(new Event(3, "Keynote", 240));
+        assertEquals(1, scheduler.submit(new Event(4, "Workshop", 180)).getTrackIndex());
+        assertEquals(1, scheduler.submit(new Event(5, "Workshop", 180)).getTrackIndex());
+        // Shorter than every talk so far, so the first track still has room for it
+        Placement lightning = scheduler.submit(new Event(6, "Lightning", 5));
+        assertEquals(0, lightning.getTrackIndex());
+        assertEquals(11 * 60 + 55, lightning.getStartMinuteOfDay());
+        assertEquals(2, scheduler.submit(new Event(7, "Closing", 240)).getTrackIndex());
+        assertEquals(6, scheduler.getNoOfTalks());
+    }
+
+    @Test
+    void submit_manyProducers_everyTalkPlacedOnce() throws Exception {
+        ConcurrentConferenceScheduler scheduler = new ConcurrentConferenceScheduler(TrackTemplate.getDefault(), 4);
+        int noOfProducers = 8;
+        int talksPerProducer = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(noOfProducers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> producers = new ArrayList<>();
+        try {
+            for (int producer = 0; producer < noOfProducers; producer++) {
+                int firstId = 2 + producer * talksPerProducer;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (int id = firstId; id < firstId + talksPerProducer; id++)
+                        scheduler.submit(new Event(id, "Talk " + id, id % 7 == 0 ? 5 : id % 60 + 1));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> producer : producers)
+                producer.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(noOfProducers * talksPerProducer, scheduler.getNoOfTalks());
+        Conference conference = scheduler.snapshot();
+        assertEquals(scheduler.getNoOfTracks(), conference.getTracks().size());
+        Set<Integer> ids = new HashSet<>();
+        for (Track track : conference.getTracks()) {
+            for (Iterator<Session> sessionIter = track.getSessions(); sessionIter.hasNext(); ) {
+                Session session = sessionIter.next();
+                assertTrue(session.getRemainingMinutes() >= 0);
+                for (Iterator<ScheduledEvent> eventIter = session.getScheduledEvents(); eventIter.hasNext(); ) {
+                    ScheduledEvent event = eventIter.next();
+                    if (!(event instanceof ScheduledBreak))
+                        assertTrue(ids.add(event.getId()));
+                }
+            }
+        }
+        assertEquals(noOfProducers * talksPerProducer, ids.size());
+    }
+
+    @Test
+    void submit_talkLongerThanSessions_exception() {
+        ConcurrentConferenceScheduler scheduler = new ConcurrentConferenceScheduler(TrackTemplate.getDefault());
+        assertThrows(ConferenceSchedulerException.class, () -> scheduler.submit(new Event(2, "Marathon", 241)));
+    }
+}
@@ -2,12 +2,17 @@ package info.gregbiegel.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
 import java.util.*;
 
 import org.junit.jupiter.api.*;
 
 import info.gregbiegel.model.*;
+import info.gregbiegel.service.binpack.BinPackType;
 import info.gregbiegel.service.exception.*;
+import info.gregbiegel.service.render.ScheduleFormat;
 
 public class ConferenceServiceTest {
 
@@ -36,6 +41,50 @@ public class ConferenceServiceTest {
         assertEquals("Error reading event data from file", exception.getMessage());
     }
 
+    @Test
+    void readEventCatalogFromFile_validFile_catalogScheduled() throws Exception {
+        EventCatalog catalog = conferenceService.readEventCatalogFromFile("src/test/resources/conference_data.txt");
+        assertEquals(19, catalog.getNoOfTalks());
+        assertEquals(2, catalog.findId("Writing Fast Tests Against Enterprise Rails"));
+        assertEquals(60, catalog.getDurationInMinutes(2));
+        Conference conference = conferenceService.scheduleConference(catalog, 
+                Arrays.asList(new MorningSession(), new AfternoonSession()));
+        assertEquals(2, conference.getTracks().size());
+    }
+
+    @Test
+    void scheduleCompactConference_validCatalog_sameScheduleAsConference() throws Exception {
+        List<Session> sessions = Arrays.asList(new MorningSession(), new AfternoonSession());
+        for (BinPackType binPackType : new BinPackType[] { BinPackType.NEXT_FIT, BinPackType.FIRST_FIT_DECREASING,
+                BinPackType.HISTOGRAM }) {
+            conferenceService = new ConferenceServiceImpl(binPackType);
+            EventCatalog catalog = conferenceService.readEventCatalogFromFile("src/test/resources/conference_data.txt");
+            CompactConference compactConference = conferenceService.scheduleCompactConference(catalog, sessions);
+            Conference conference = conferenceService.scheduleConference(catalog, sessions);
+            assertEquals(compactConference.getNoOfTracks(), conference.getTracks().size());
+            assertEquals(compactConference.toString(), conference.toString());
+            assertEquals(compactConference.toConference().toString(), 
+                    conference.toString());
+        }
+    }
+
+    @Test
+    void scheduleConference_threeSessionLayout_tracksFollowLayout() throws Exception {
+        List<Session> sessions = Arrays.asList(new ConfiguredSession(LocalTime.of(9, 0), 120, 120),
+                new ConfiguredSession(LocalTime.of(11, 0), 60, 60), new ConfiguredSession(LocalTime.of(13, 0), 180, 240));
+        Set<Event> talks = conferenceService.readTalkDataFromFile("src/test/resources/conference_data.txt");
+        Conference conference = conferenceService.scheduleConference(talks, sessions);
+        int noOfTalks = 0;
+        for (Track track : conference.getTracks()) {
+            assertEquals(3, track.getNoOfSessions());
+            assertEquals(LocalTime.of(11, 0), track.getSession(1).getStartTime());
+            for (int sessionNo = 0; sessionNo < 2; sessionNo++)
+                noOfTalks += track.getSession(sessionNo).getNoOfScheduledEvents();
+            noOfTalks += track.getSession(2).getNoOfScheduledEvents() - (track.getSession(2).hasScheduledTalks() ? 2 : 0);
+        }
+        assertEquals(talks.size(), noOfTalks);
+    }
+
     @Test
     void parseTalkString_validString_parseSuccessfully() throws Exception {
         String validTalkString = "Communicating Over Distance 60min";
@@ -125,6 +174,97 @@ public class ConferenceServiceTest {
         assertEquals("No events or no sessions provided to scheduler", exception.getMessage());
     }
 
+    @Test
+    void scheduleConference_configuredTemplate_breaksInConfiguredSlots() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("sessions", "morning,afternoon,evening");
+        properties.setProperty("morning.start", "09:00");
+        properties.setProperty("morning.maximumDuration", "150");
+        properties.setProperty("afternoon.start", "12:30");
+        properties.setProperty("afternoon.maximumDuration", "120");
+        properties.setProperty("evening.start", "15:00");
+        properties.setProperty("evening.maximumDuration", "150");
+        properties.setProperty("lunch.start", "11:30");
+        properties.setProperty("networking.earliestStart", "17:00");
+        TrackTemplate template = TrackTemplate.fromProperties(properties);
+        Set<Event> events = new HashSet<Event>(Arrays.asList(new Event(2, "Opening", 120), 
+                new Event(3, "Workshop", 100), new Event(4, "Closing", 120)));
+        conferenceService = new ConferenceServiceImpl(BinPackType.FIRST_FIT_DECREASING);
+        Conference conference = conferenceService.scheduleConference(events, template.createSessions());
+
+        assertEquals(1, conference.getTracks().size());
+        Track track = conference.getTracks().get(0);
+        List<ScheduledBreak> breaks = new ArrayList<>();
+        for (int sessionNo = 0; sessionNo < track.getNoOfSessions(); sessionNo++) {
+            Iterator<ScheduledEvent> eventIter = track.getSession(sessionNo).getScheduledEvents();
+            while (eventIter.hasNext()) {
+                ScheduledEvent event = eventIter.next();
+                if (event instanceof ScheduledBreak)
+                    breaks.add((ScheduledBreak) event);
+            }
+        }
+        assertEquals(2, breaks.size());
+        assertTrue(breaks.get(0) instanceof LunchBreak);
+        assertEquals(LocalTime.of(11, 30), breaks.get(0).getStartTime());
+        // The evening talk finishes at 16:40, so the networking event starts at its earliest start
+        assertTrue(breaks.get(1) instanceof NetworkingBreak);
+        assertEquals(LocalTime.of(17, 0), breaks.get(1).getStartTime());
+    }
+
+    @Test
+    void scheduleConference_streamedInput_tracksWrittenInOrder() throws Exception {
+        //Next fit over [60,120,60,200] with session pattern [180,240] closes the first track
+        //when the 200 minute talk does not fit into the afternoon session
+        String talks = "Talk A 60min\nTalk B 120min\n\nTalk C 60min\nTalk D 200min\n";
+        StringWriter output = new StringWriter();
+        conferenceService = new ConferenceServiceImpl(BinPackType.NEXT_FIT);
+        int noOfTracks = conferenceService.scheduleConference(
+                new ByteArrayInputStream(talks.getBytes(StandardCharsets.UTF_8)), output,
+                Arrays.asList(new MorningSession(), new AfternoonSession()));
+        String program = output.toString();
+        assertEquals(2, noOfTracks);
+        assertTrue(program.startsWith(Conference.HEADER + "Track 1:"));
+        assertTrue(program.indexOf("Talk C") < program.indexOf("Track 2:"));
+        assertTrue(program.indexOf("Talk D") > program.indexOf("Track 2:"));
+    }
+
+    @Test
+    void scheduleConference_streamedInvalidInput_exceptionThrown() {
+        FileParserException exception = assertThrows(FileParserException.class, () -> {
+            conferenceService.scheduleConference(new ByteArrayInputStream("foo".getBytes(StandardCharsets.UTF_8)),
+                    new StringWriter(), Arrays.asList(new MorningSession(), new AfternoonSession()));
+        });
+        assertEquals("Error reading event data from stream", exception.getMessage());
+    }
+
+    @Test
+    void scheduleConference_streamedEmptyInput_nothingWritten() {
+        StringWriter output = new StringWriter();
+        ConferenceSchedulerException exception = assertThrows(ConferenceSchedulerException.class, () -> {
+            conferenceService.scheduleConference(new ByteArrayInputStream("\n \n".getBytes(StandardCharsets.UTF_8)),
+                    output, Arrays.asList(new MorningSession(), new AfternoonSession()), ScheduleFormat.JSON);
+        });
+        assertEquals("No events or no sessions provided to scheduler", exception.getMessage());
+        assertEquals("", output.toString());
+    }
+
+    @Test
+    void addTalkAndRemoveTalk_scheduledConference_onlyAffectedTrackChanged() throws Exception {
+        Set<Event> events = new HashSet<Event>();
+        events.add(new Event(2, "Event1", 180));
+        events.add(new Event(3, "Event2", 200));
+        events.add(new Event(4, "Event3", 170));
+        Conference conference = conferenceService.scheduleConference(events, 
+                Arrays.asList(new MorningSession(), new AfternoonSession()));
+        Track track = conferenceService.addTalk(conference, new Event(5, "Late talk", 40));
+        assertSame(conference.getTracks().get(0), track);
+        assertSame(track, conferenceService.removeTalk(conference, 5));
+        ConferenceSchedulerException exception = assertThrows(ConferenceSchedulerException.class, () -> {
+            conferenceService.removeTalk(conference, 5);
+        });
+        assertEquals("The event is not scheduled in the conference", exception.getMessage());
+    }
+
     @Test
     void isFinalTrackEvent_finalTrackEvent_returnTrue() {
         int sessionNo = 2;
@@ -198,4 +338,4 @@ public class ConferenceServiceTest {
         assertFalse(conferenceService.areEventsSchedulable(events, Arrays.asList(new MorningSession(), 
                 new AfternoonSession())));
     }
-}
\ No newline at end of file
+}
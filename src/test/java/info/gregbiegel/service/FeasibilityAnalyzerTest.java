@@ -0,0 +1,48 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.binpack.FeasibilityAnalyzer;
+import info.gregbiegel.service.binpack.FeasibilityReport;
+
+public class FeasibilityAnalyzerTest {
+
+    @Test
+    public void analyze_largeEvents_l2TighterThanL1() {
+        //[6,6,6] with a bin size of 10
+        //L1 is ceil(18/10) = 2, but no two events fit into one bin so L2 is 3
+        Event[] items = new Event[] {new Event(2, "Event1", 6), new Event(3, "Event2", 6), 
+                new Event(4, "Event3", 6)};
+        FeasibilityReport report = FeasibilityAnalyzer.analyze(items, new int[]{10});
+        assertTrue(report.isFeasible());
+        assertEquals(18, report.getTotalDurationInMinutes());
+        assertEquals(6, report.getLongestDurationInMinutes());
+        assertEquals(2, report.getL1LowerBound());
+        assertEquals(3, report.getL2LowerBound());
+        assertEquals(3, report.getBinLowerBound());
+    }
+
+    @Test
+    public void analyze_sessionPattern_trackBound() {
+        //Total of 500 minutes needs sessions of [180,240,180], so at least 2 tracks
+        Event[] items = new Event[] {new Event(2, "Event1", 200), new Event(3, "Event2", 150), 
+                new Event(4, "Event3", 150)};
+        FeasibilityReport report = FeasibilityAnalyzer.analyze(Arrays.asList(items), new int[]{180,240});
+        assertEquals(3, report.getL1LowerBound());
+        assertEquals(3, report.getBinLowerBound());
+        assertEquals(2, report.getPatternLowerBound());
+    }
+
+    @Test
+    public void analyze_eventTooLong_notFeasible() {
+        Event[] items = new Event[] {new Event(2, "Event1", 60), new Event(3, "Event2", 241)};
+        FeasibilityReport report = FeasibilityAnalyzer.analyze(items, new int[]{180,240});
+        assertFalse(report.isFeasible());
+        assertEquals(241, report.getLongestDurationInMinutes());
+    }
+}
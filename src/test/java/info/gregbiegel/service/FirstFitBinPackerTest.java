@@ -1,5 +1,6 @@
 package info.gregbiegel.service;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -45,6 +46,22 @@ public class FirstFitBinPackerTest {
         assertEquals(packedEvents.get(3), Arrays.asList(event7));
     }
 
+    @Test
+    public void pack_primitiveInputReusedWorkspace_success() throws Exception {
+        //[2,5,4,7,1,3,8] with a bin size of 10
+        //Will be packed into the following bins
+        //[2,5,1], [4,3], [7], [8]
+        IPrimitiveBinPacker primitiveBinPacker = new FirstFitBinPacker();
+        PackingWorkspace workspace = new PackingWorkspace();
+        int[] durations = new int[]{2,5,4,7,1,3,8};
+        primitiveBinPacker.pack(new int[]{9,9,9,9,9,9,9,9,9,9}, 10, new int[]{10}, workspace);
+        int noOfBins = primitiveBinPacker.pack(durations, durations.length, new int[]{10}, workspace);
+        assertEquals(4, noOfBins);
+        assertArrayEquals(new int[]{0,0,1,2,0,1,3}, 
+                Arrays.copyOf(workspace.getBinIndexPerItem(), durations.length));
+        assertArrayEquals(new int[]{2,3,3,2}, Arrays.copyOf(workspace.getBinResidual(), noOfBins));
+    }
+
     @Test
     public void pack_emptyInput_success() throws Exception {
         Event[] items = new Event[0];
@@ -0,0 +1,86 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.binpack.*;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+
+public class HistogramBinPackerTest {
+
+    private IBinPackerFactory binPackerFactory = new HistogramBinPackerFactory();
+    private IBinPacker binPacker;
+
+    @BeforeEach
+    void init() {
+        binPacker = binPackerFactory.createBinPacker();
+    }
+
+    @Test
+    public void pack_validInput_success() throws Exception {
+        //[2,5,4,7,1,3,8] with a bin size of 10
+        //Will be grouped into classes [8,7,5,4,3,2,1] and packed into the following bins
+        //[8,2], [7,3], [5,4,1]
+        Event event1 = new Event(1, "Event1", 2);
+        Event event2 = new Event(2, "Event2", 5);
+        Event event3 = new Event(3, "Event3", 4);
+        Event event4 = new Event(4, "Event4", 7);
+        Event event5 = new Event(5, "Event5", 1);
+        Event event6 = new Event(6, "Event6", 3); 
+        Event event7 = new Event(7, "Event7", 8);
+        Event[] items = new Event[] {event1, event2, event3, event4, event5, event6, event7};
+        int[] binPattern = new int[]{10};
+        List<List<Event>> packedEvents = binPacker.pack(items, binPattern);
+        assertEquals(3, packedEvents.size());
+        assertEquals(packedEvents.get(0), Arrays.asList(event7, event1));
+        assertEquals(packedEvents.get(1), Arrays.asList(event4, event6));
+        assertEquals(packedEvents.get(2), Arrays.asList(event2, event3, event5));
+    }
+
+    @Test
+    public void pack_manyEventsFewDurations_allPackedWithinCapacity() throws Exception {
+        Random random = new Random(3);
+        int[] durations = new int[]{60,45,30,5};
+        Event[] items = new Event[100000];
+        for (int i = 0; i < items.length; i++)
+            items[i] = new Event(i + 2, "Event" + i, durations[random.nextInt(durations.length)]);
+        int[] binPattern = new int[]{180,240};
+        List<List<Event>> packedEvents = binPacker.pack(items, binPattern);
+        int noOfEvents = 0;
+        for (int binNo = 0; binNo < packedEvents.size(); binNo++) {
+            List<Event> bin = packedEvents.get(binNo);
+            noOfEvents += bin.size();
+            assertTrue(bin.stream().mapToInt(Event::getDurationInMinutes).sum() <= binPattern[binNo % 2]);
+        }
+        assertEquals(items.length, noOfEvents);
+    }
+
+    @Test
+    public void pack_emptyInput_success() throws Exception {
+        Event[] items = new Event[0];
+        int[] binPattern = new int[]{100,50};
+        List<List<Event>> packedEvents = binPacker.pack(items, binPattern);
+        assertEquals(0, packedEvents.size());
+    }
+
+    @Test
+    public void pack_noBinPattern_exceptionThrown() {
+        Event[] items = new Event[1];
+        items[0] = new Event(1, "Event1", 2);
+        int[] binPattern = new int[0];
+
+        InvalidBinPatternException exception = assertThrows(InvalidBinPatternException.class, () -> {
+            binPacker.pack(items, binPattern);
+        });
+        assertEquals("Invalid bin pattern provided", exception.getMessage());
+    }
+}
@@ -0,0 +1,77 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.exception.EventParserException;
+import info.gregbiegel.service.parser.MappedTalkFileParser;
+
+public class MappedTalkFileParserTest {
+
+    private static final String[] TALKS = { 
+            "Writing Fast Tests Against Enterprise Rails 60min",
+            "Rails for Python Developers lightning",
+            "Lightning Talks About LIGHTNING",
+            "Café Über Unicodeé 45min",
+            "Lua for the Masses 30min" };
+
+    private Path file;
+
+    @BeforeEach
+    void init() throws Exception {
+        file = Files.createTempFile("talks", ".txt");
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void parse_mixedLineEndings_sameEventsAsStringParser() throws Exception {
+        String data = TALKS[0] + "\r\n" + TALKS[1] + "\n\n   \r" + TALKS[2] + "\r" + TALKS[3] + "\r\n" + TALKS[4];
+        Files.write(file, data.getBytes(StandardCharsets.UTF_8));
+        List<Event> expected = new ArrayList<>();
+        for (int i = 0; i < TALKS.length; i++)
+            expected.add(new ConferenceServiceImpl().parseTalkString(i + 2, TALKS[i]));
+
+        for (int windowSize : new int[] { MappedTalkFileParser.DEFAULT_WINDOW_SIZE, 64, 53 }) {
+            List<Event> parsed = new ArrayList<>();
+            int nextId = new MappedTalkFileParser(windowSize).parse(file, 2, 
+                    (id, title, durationInMinutes) -> parsed.add(new Event(id, title, durationInMinutes)));
+            assertEquals(TALKS.length + 2, nextId);
+            for (int i = 0; i < TALKS.length; i++) {
+                assertEquals(parsed.get(i).getId(), expected.get(i).getId());
+                assertEquals(parsed.get(i).getTitle(), expected.get(i).getTitle());
+                assertEquals(parsed.get(i).getDurationInMinutes(), expected.get(i).getDurationInMinutes());
+            }
+        }
+    }
+
+    @Test
+    void parse_shortDescription_exceptionThrown() throws Exception {
+        Files.write(file, (TALKS[0] + "\nfoo\n").getBytes(StandardCharsets.UTF_8));
+        EventParserException exception = assertThrows(EventParserException.class, () -> {
+            new MappedTalkFileParser().parse(file, 2, (id, title, durationInMinutes) -> { });
+        });
+        assertEquals("Event description could not be parsed", exception.getMessage());
+    }
+
+    @Test
+    void parse_invalidDuration_exceptionThrown() throws Exception {
+        for (String talk : new String[] { "No Duration Given", "Bad Duration 6o0min", "Huge 99999999999min" }) {
+            Files.write(file, talk.getBytes(StandardCharsets.UTF_8));
+            EventParserException exception = assertThrows(EventParserException.class, () -> {
+                new MappedTalkFileParser().parse(file, 2, (id, title, durationInMinutes) -> { });
+            });
+            assertEquals("Could not parse length of event", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.exception.EventParserException;
+import info.gregbiegel.service.parser.*;
+
+public class ParallelTalkFileReaderTest {
+
+    private Path file;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void init() throws Exception {
+        file = Files.createTempFile("talks", ".txt");
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void read_smallChunks_sameEventsAsSequentialParser() throws Exception {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            data.append(i % 7 == 0 ? "Lightning Talk " + name(i) + " lightning" 
+                    : "Talk " + name(i) + " " + (i % 60 + 1) + "min");
+            data.append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 11 == 0)
+                data.append("  \n");
+        }
+        Files.write(file, data.toString().getBytes(StandardCharsets.UTF_8));
+        List<Event> expected = new ArrayList<>();
+        new MappedTalkFileParser().parse(file, 2, 
+                (id, title, durationInMinutes) -> expected.add(new Event(id, title, durationInMinutes)));
+
+        for (int chunkSize : new int[] { 1, 37, 4096, ParallelTalkFileReader.DEFAULT_CHUNK_SIZE }) {
+            List<Event> events = new ParallelTalkFileReader(pool, chunkSize).read(file, 2);
+            assertEquals(events.size(), expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(events.get(i).getId(), expected.get(i).getId());
+                assertEquals(events.get(i).getTitle(), expected.get(i).getTitle());
+                assertEquals(events.get(i).getDurationInMinutes(), expected.get(i).getDurationInMinutes());
+            }
+        }
+    }
+
+    @Test
+    void read_badLines_firstBadLineReported() throws Exception {
+        StringBuilder data = new StringBuilder();
+        for (int i = 1; i <= 200; i++)
+            data.append(i == 57 || i == 150 ? "foo" : "Talk " + name(i) + " 30min").append("\r\n");
+        Files.write(file, data.toString().getBytes(StandardCharsets.UTF_8));
+        EventParserException exception = assertThrows(EventParserException.class, () -> {
+            new ParallelTalkFileReader(pool, 64).read(file, 2);
+        });
+        assertEquals(57, exception.getLineNumber());
+        assertEquals("Event description could not be parsed", exception.getMessage());
+    }
+
+    @Test
+    void read_talks_listCanBeAddedTo() throws Exception {
+        Files.write(file, "Talk aa 30min\nTalk bb lightning\n".getBytes(StandardCharsets.UTF_8));
+        List<Event> events = new ParallelTalkFileReader(pool, 8).read(file, 2);
+        events.add(new Event(4, "Talk cc", 45));
+        assertEquals(events.size(), 3);
+    }
+
+    @Test
+    void read_idsPastMaxInt_throwsIOException() throws Exception {
+        Files.write(file, "Talk aa 30min\nTalk bb 30min\nTalk cc 30min\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> {
+            new ParallelTalkFileReader(pool, 8).read(file, Integer.MAX_VALUE - 2);
+        });
+        assertEquals(new ParallelTalkFileReader(pool, 8).read(file, Integer.MAX_VALUE - 3).get(2).getId(),
+                Integer.MAX_VALUE - 1);
+    }
+
+    private static String name(final int i) {
+        return new String(new char[] { (char) ('a' + i % 26), (char) ('a' + i / 26 % 26) });
+    }
+}
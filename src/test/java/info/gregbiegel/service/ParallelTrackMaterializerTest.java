@@ -0,0 +1,93 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.binpack.*;
+import info.gregbiegel.service.exception.ScheduleException;
+
+public class ParallelTrackMaterializerTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void init() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        pool.shutdown();
+    }
+
+    @Test
+    void materialize_manyTracks_sameAsSingleThread() throws Exception {
+        Event[] events = new Event[5000];
+        for (int i = 0; i < events.length; i++)
+            events[i] = new Event(i + 2, "Talk " + i, i % 7 == 0 ? 5 : i % 60 + 1);
+        TrackTemplate template = TrackTemplate.getDefault();
+        List<List<Event>> bins = new FirstFitDecreasingBinPackerFactory().createBinPacker()
+                .pack(events, template.getBinPattern());
+
+        Conference sequential = new ParallelTrackMaterializer(pool, Integer.MAX_VALUE).materialize(bins, template);
+        Conference parallel = new ParallelTrackMaterializer(pool, 1).materialize(bins, template);
+        assertEquals(parallel.getTracks().size(), (bins.size() + 1) / 2);
+        assertEquals(parallel.toString(), sequential.toString());
+    }
+
+    @Test
+    void materialize_configuredTemplate_sameAsTracksBuiltOneByOne() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("sessions", "morning,afternoon,evening");
+        properties.setProperty("morning.start", "09:00");
+        properties.setProperty("morning.maximumDuration", "150");
+        properties.setProperty("afternoon.start", "12:30");
+        properties.setProperty("afternoon.maximumDuration", "120");
+        properties.setProperty("evening.start", "15:00");
+        properties.setProperty("evening.maximumDuration", "150");
+        properties.setProperty("lunch.start", "11:30");
+        properties.setProperty("networking.earliestStart", "17:00");
+        TrackTemplate template = TrackTemplate.fromProperties(properties);
+        Event[] events = new Event[3000];
+        for (int i = 0; i < events.length; i++)
+            events[i] = new Event(i + 2, "Talk " + i, i % 7 == 0 ? 5 : i % 60 + 1);
+        List<List<Event>> bins = new FirstFitDecreasingBinPackerFactory().createBinPacker()
+                .pack(events, template.getBinPattern());
+
+        // Each track is built on its own, with its breaks placed by the track
+        Conference expected = new Conference();
+        for (int firstBin = 0; firstBin < bins.size(); firstBin += template.getNoOfSessions()) {
+            Track track = template.createTrack();
+            for (int sessionNo = 0; sessionNo < template.getNoOfSessions() && firstBin + sessionNo < bins.size(); 
+                    sessionNo++)
+                for (Event event : bins.get(firstBin + sessionNo))
+                    track.getSession(sessionNo).scheduleEventInSession(event, false);
+            track.updateBreaks();
+            expected.addTrack(track);
+        }
+
+        Conference sequential = new ParallelTrackMaterializer(pool, Integer.MAX_VALUE).materialize(bins, template);
+        Conference parallel = new ParallelTrackMaterializer(pool, 1).materialize(bins, template);
+        assertEquals(parallel.getTracks().size(), (bins.size() + 2) / 3);
+        assertEquals(sequential.toString(), expected.toString());
+        assertEquals(parallel.toString(), expected.toString());
+        String program = parallel.toString();
+        assertTrue(program.contains("11:30AM Lunch"));
+        assertFalse(program.contains("12:00PM Lunch"));
+    }
+
+    @Test
+    void materialize_talkDoesNotFit_exception() {
+        List<List<Event>> bins = new ArrayList<>();
+        for (int i = 0; i < 40; i++)
+            bins.add(Arrays.asList(new Event(2 * i + 2, "Talk " + i, 60)));
+        bins.set(21, Arrays.asList(new Event(1000, "Too Long", 200), new Event(1001, "Much Too Long", 200)));
+        assertThrows(ScheduleException.class, 
+                () -> new ParallelTrackMaterializer(pool, 1).materialize(bins, TrackTemplate.getDefault()));
+    }
+}
@@ -0,0 +1,158 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.binpack.*;
+import info.gregbiegel.service.binpack.exception.InvalidBinPatternException;
+import info.gregbiegel.service.concurrent.CancellationToken;
+
+public class PortfolioBinPackerTest {
+
+    private IBinPackerFactory binPackerFactory = new PortfolioBinPackerFactory();
+    private IBinPacker binPacker;
+
+    @BeforeEach
+    void init() {
+        binPacker = binPackerFactory.createBinPacker();
+    }
+
+    @Test
+    public void pack_validInput_noWorseThanAnyAlgorithm() throws Exception {
+        Random random = new Random(11);
+        Event[] items = new Event[500];
+        for (int i = 0; i < items.length; i++)
+            items[i] = new Event(i + 2, "Event" + i, 5 + random.nextInt(116));
+        int[] binPattern = new int[]{180,240};
+        List<List<Event>> packedEvents = binPacker.pack(items, binPattern);
+        assertEquals(items.length, packedEvents.stream().mapToInt(List::size).sum());
+        assertTrue(packedEvents.size() <= new NextFitBinPacker().pack(items, binPattern).size());
+        assertTrue(packedEvents.size() <= new BestFitDecreasingBinPacker().pack(items, binPattern).size());
+    }
+
+    @Test
+    public void pack_emptyInput_success() throws Exception {
+        Event[] items = new Event[0];
+        int[] binPattern = new int[]{100,50};
+        List<List<Event>> packedEvents = binPacker.pack(items, binPattern);
+        assertEquals(0, packedEvents.size());
+    }
+
+    @Test
+    public void pack_noBinPattern_exceptionThrown() {
+        Event[] items = new Event[1];
+        items[0] = new Event(1, "Event1", 2);
+        int[] binPattern = new int[0];
+
+        InvalidBinPatternException exception = assertThrows(InvalidBinPatternException.class, () -> {
+            binPacker.pack(items, binPattern);
+        });
+        assertEquals("Invalid bin pattern provided", exception.getMessage());
+    }
+
+    @Test
+    public void pack_lowerBoundReached_slowPackerStopped() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch slowStopped = new CountDownLatch(1);
+        // Runs until it is cancelled, or gives up long after the test should have finished
+        IBinPacker slowPacker = new IBinPacker() {
+            @Override
+            public List<List<Event>> pack(Event[] items, int[] binPattern) {
+                return pack(items, binPattern, new CancellationToken());
+            }
+
+            @Override
+            public List<List<Event>> pack(Event[] items, int[] binPattern, CancellationToken cancellationToken) {
+                slowStarted.countDown();
+                long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+                while (System.nanoTime() - giveUp < 0) {
+                    if (cancellationToken.isCancelled()) {
+                        slowStopped.countDown();
+                        throw new CancellationException();
+                    }
+                    Thread.yield();
+                }
+                return Arrays.asList(Arrays.asList(items));
+            }
+        };
+        // Waits for the slow packer to be running before reaching the lower bound
+        IBinPacker winningPacker = new IBinPacker() {
+            @Override
+            public List<List<Event>> pack(Event[] items, int[] binPattern) throws InvalidBinPatternException {
+                return pack(items, binPattern, new CancellationToken());
+            }
+
+            @Override
+            public List<List<Event>> pack(Event[] items, int[] binPattern, CancellationToken cancellationToken)
+                    throws InvalidBinPatternException {
+                try {
+                    slowStarted.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new NextFitBinPacker().pack(items, binPattern, cancellationToken);
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            PortfolioBinPacker portfolio = new PortfolioBinPacker(
+                    Arrays.<IBinPackerFactory>asList(() -> slowPacker, () -> winningPacker), pool, 60000);
+            Event[] items = { new Event(2, "Opening", 60), new Event(3, "Keynote", 60), new Event(4, "Closing", 60) };
+            PackingResult result = portfolio.pack(items, new int[] { 180 },
+                    System.nanoTime() + TimeUnit.SECONDS.toNanos(60), new CancellationToken());
+            assertEquals(result.getNoOfBins(), 1);
+            assertTrue(result.isProvenOptimal());
+            assertTrue(slowStopped.await(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void pack_sameNoOfBins_mostTimeLeftInFinalBinWins() throws Exception {
+        Event opening = new Event(2, "Opening", 100);
+        Event keynote = new Event(3, "Keynote", 80);
+        Event workshop = new Event(4, "Workshop", 60);
+        Event closing = new Event(5, "Closing", 40);
+        // Both packings use three bins, which is one more than the lower bound, so neither stops the other
+        List<List<Event>> closingLast = Arrays.asList(Arrays.asList(opening), Arrays.asList(keynote),
+                Arrays.asList(workshop, closing));
+        List<List<Event>> closingAlone = Arrays.asList(Arrays.asList(opening), Arrays.asList(keynote, workshop),
+                Arrays.asList(closing));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            PortfolioBinPacker portfolio = new PortfolioBinPacker(Arrays.<IBinPackerFactory>asList(
+                    () -> fixedPacker(closingLast), () -> fixedPacker(closingAlone)), pool, 60000);
+            PackingResult result = portfolio.pack(new Event[] { opening, keynote, workshop, closing }, 
+                    new int[] { 180 }, System.nanoTime() + TimeUnit.SECONDS.toNanos(60), new CancellationToken());
+            assertEquals(result.getBins(), closingAlone);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static IBinPacker fixedPacker(final List<List<Event>> bins) {
+        return new IBinPacker() {
+            @Override
+            public List<List<Event>> pack(Event[] items, int[] binPattern) {
+                return bins;
+            }
+
+            @Override
+            public List<List<Event>> pack(Event[] items, int[] binPattern, CancellationToken cancellationToken) {
+                return bins;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.render.*;
+
+public class ScheduleRendererTest {
+
+    private Conference conference;
+
+    @BeforeEach
+    void init() throws Exception {
+        Track track = new Track(Arrays.asList(new MorningSession(), new AfternoonSession()));
+        track.getSession(0).scheduleEventInSession(new Event(2, "Say \"Hello\", World", 60), false);
+        track.getSession(1).scheduleEventInSession(new Event(3, "Rails; Backslash \\ Talk", 45), true);
+        conference = new Conference();
+        conference.addTrack(track);
+    }
+
+    @Test
+    void render_text_sameAsToString() throws Exception {
+        StringWriter output = new StringWriter();
+        new TextScheduleRenderer(output).render(conference);
+        assertEquals(output.toString(), conference.toString());
+    }
+
+    @Test
+    void render_compactConferenceText_sameAsToString() throws Exception {
+        ConferenceServiceImpl conferenceService = new ConferenceServiceImpl();
+        EventCatalog catalog = conferenceService.readEventCatalogFromFile("src/test/resources/conference_data.txt");
+        CompactConference compactConference = conferenceService.scheduleCompactConference(catalog, 
+                Arrays.asList(new MorningSession(), new AfternoonSession()));
+        StringWriter output = new StringWriter();
+        ScheduleFormat.TEXT.createRenderer(output).render(compactConference);
+        assertEquals(output.toString(), compactConference.toString());
+    }
+
+    @Test
+    void render_json_eventsEscaped() throws Exception {
+        StringWriter output = new StringWriter();
+        new JsonScheduleRenderer(output).render(conference);
+        assertEquals(output.toString(), "{\"tracks\":[{\"track\":1,\"events\":["
+                + "{\"id\":2,\"type\":\"talk\",\"title\":\"Say \\\"Hello\\\", World\",\"start\":\"09:00\",\"durationInMinutes\":60},"
+                + "{\"id\":0,\"type\":\"break\",\"title\":\"Lunch\",\"start\":\"12:00\",\"durationInMinutes\":60},"
+                + "{\"id\":3,\"type\":\"talk\",\"title\":\"Rails; Backslash \\\\ Talk\",\"start\":\"13:00\",\"durationInMinutes\":45},"
+                + "{\"id\":1,\"type\":\"break\",\"title\":\"Networking Event\",\"start\":\"16:00\",\"durationInMinutes\":60}]}]}\n");
+    }
+
+    @Test
+    void render_csv_titlesQuoted() throws Exception {
+        StringWriter output = new StringWriter();
+        new CsvScheduleRenderer(output).render(conference);
+        String[] rows = output.toString().split("\r\n");
+        assertEquals(5, rows.length);
+        assertEquals(rows[0], "track,start,id,type,title,durationInMinutes");
+        assertEquals(rows[1], "1,09:00,2,talk,\"Say \"\"Hello\"\", World\",60");
+        assertEquals(rows[3], "1,13:00,3,talk,Rails; Backslash \\ Talk,45");
+    }
+
+    @Test
+    void render_iCalendar_eventsOnConferenceDate() throws Exception {
+        conference.getTracks().get(0).getSession(1).scheduleEventInSession(new Event(4, String.join("", 
+                Collections.nCopies(20, "Überlong ")), 30), false);
+        StringWriter output = new StringWriter();
+        new ICalendarScheduleRenderer(output, LocalDate.of(2026, 10, 18)).render(conference);
+        String calendar = output.toString();
+        assertTrue(calendar.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(calendar.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(calendar.contains("DTSTART:20261018T090000\r\nDURATION:PT60M\r\nSUMMARY:Say \"Hello\"\\, World\r\n"));
+        assertTrue(calendar.contains("SUMMARY:Rails\\; Backslash \\\\ Talk\r\n"));
+        for (String line : calendar.split("\r\n"))
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+    }
+}
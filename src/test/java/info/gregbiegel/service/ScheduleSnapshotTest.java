@@ -0,0 +1,97 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.exception.FileParserException;
+import info.gregbiegel.service.render.*;
+import info.gregbiegel.service.snapshot.*;
+
+public class ScheduleSnapshotTest {
+
+    private Path snapshotFile;
+    private ConferenceServiceImpl conferenceService;
+    private List<Session> sessions;
+
+    @BeforeEach
+    void init() throws Exception {
+        snapshotFile = Files.createTempFile("schedule", ".snp");
+        conferenceService = new ConferenceServiceImpl();
+        sessions = Arrays.asList(new MorningSession(), new AfternoonSession());
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Test
+    void readSnapshot_writtenConference_rendersSameProgram() throws Exception {
+        Set<Event> talks = conferenceService.readTalkDataFromFile("src/test/resources/conference_data.txt");
+        Conference conference = conferenceService.scheduleConference(talks, sessions);
+        conferenceService.writeSnapshot(conference, snapshotFile.toString());
+
+        ScheduleSnapshot snapshot = conferenceService.readSnapshot(snapshotFile.toString());
+        assertEquals(snapshot.getNoOfTracks(), conference.getTracks().size());
+        StringWriter output = new StringWriter();
+        new TextScheduleRenderer(output).render(snapshot);
+        assertEquals(output.toString(), conference.toString());
+    }
+
+    @Test
+    void readSnapshot_writtenConference_sameConference() throws Exception {
+        Set<Event> talks = conferenceService.readTalkDataFromFile("src/test/resources/conference_data.txt");
+        Conference conference = conferenceService.scheduleConference(talks, sessions);
+        conferenceService.writeSnapshot(conference, snapshotFile.toString());
+
+        Conference reloaded = conferenceService.readSnapshot(snapshotFile.toString())
+                .toConference(() -> new Track(Arrays.asList(new MorningSession(), new AfternoonSession())));
+        assertEquals(reloaded.toString(), conference.toString());
+    }
+
+    @Test
+    void readSnapshot_compactConference_sessionsAndBreaksPreserved() throws Exception {
+        EventCatalog catalog = conferenceService.readEventCatalogFromFile("src/test/resources/conference_data.txt");
+        CompactConference conference = conferenceService.scheduleCompactConference(catalog, sessions);
+        ScheduleSnapshotWriter.write(snapshotFile, conference);
+
+        ScheduleSnapshot snapshot = ScheduleSnapshot.open(snapshotFile);
+        CompactTrack track = conference.getTrack(0);
+        assertEquals(snapshot.getNoOfSessions(0), track.getNoOfSessions());
+        int event = snapshot.getFirstEvent(0, 0);
+        assertEquals(snapshot.getEventId(event), track.getEventId(0));
+        assertEquals(snapshot.getStartMinuteOfDay(event), 9 * 60);
+        assertFalse(snapshot.isBreak(event));
+        int lunch = snapshot.getFirstEvent(0, 1);
+        assertTrue(snapshot.isBreak(lunch));
+        assertEquals(snapshot.getTitle(lunch), "Lunch");
+        assertEquals(snapshot.getStartMinuteOfDay(lunch), 12 * 60);
+    }
+
+    @Test
+    void readSnapshot_notASnapshot_exception() {
+        assertThrows(FileParserException.class, 
+                () -> conferenceService.readSnapshot("src/test/resources/conference_data.txt"));
+    }
+
+    @Test
+    void readSnapshot_trackCountOverflowsOffsets_exception() throws Exception {
+        // With 2^30 tracks the track index would wrap to no bytes at all in int arithmetic,
+        // which leaves a title table offset that only fits an empty snapshot looking valid
+        ByteBuffer header = ByteBuffer.allocate(64);
+        header.putInt(ScheduleSnapshot.MAGIC).putInt(ScheduleSnapshot.VERSION).putInt((1 << 30) - 1).putInt(0)
+                .putInt(0).putInt(9 * Integer.BYTES);
+        Files.write(snapshotFile, header.array());
+        FileParserException exception = assertThrows(FileParserException.class, 
+                () -> conferenceService.readSnapshot(snapshotFile.toString()));
+        assertEquals(exception.getCause().getMessage(), "Schedule snapshot is truncated");
+    }
+}
@@ -0,0 +1,83 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.binpack.BinPackType;
+import info.gregbiegel.service.jfr.FlightRecorderSupport;
+import info.gregbiegel.service.render.TextScheduleRenderer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class SchedulingEventsTest {
+
+    private static List<RecordedEvent> record(final String eventName, final Path recordingFile) throws Exception {
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile))
+            if (event.getEventType().getName().equals(eventName))
+                result.add(event);
+        return result;
+    }
+
+    /**
+     * Creates lines holding lightning talks with distinct titles, which contain no digits
+     */
+    private static List<String> lightningTalks(final int noOfTalks) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < noOfTalks; i++)
+            lines.add("Networking " + (char) ('a' + i / 26) + (char) ('a' + i % 26) + " lightning");
+        return lines;
+    }
+
+    @Test
+    void scheduleAndRender_recordsEveryPhase() throws Exception {
+        assertTrue(FlightRecorderSupport.AVAILABLE);
+        Path talks = Files.createTempFile("talks", ".txt");
+        Path recordingFile = Files.createTempFile("scheduling", ".jfr");
+        try {
+            Files.write(talks, lightningTalks(200), StandardCharsets.UTF_8);
+            Conference conference;
+            try (Recording recording = new Recording()) {
+                for (String name : new String[] { "TalkFileRead", "Parse", "FeasibilityCheck", "Pack",
+                        "Materialize", "Render", "BinOpen" })
+                    recording.enable("info.gregbiegel." + name).withThreshold(Duration.ZERO);
+                recording.start();
+                IConferenceService service = new ConferenceServiceImpl(BinPackType.FIRST_FIT);
+                Set<Event> events = service.readTalkDataFromFile(talks.toString());
+                conference = service.scheduleConference(events, TrackTemplate.getDefault().createSessions());
+                new TextScheduleRenderer(new StringWriter()).render(conference);
+                recording.stop();
+                recording.dump(recordingFile);
+            }
+
+            List<RecordedEvent> reads = record("info.gregbiegel.TalkFileRead", recordingFile);
+            assertEquals(reads.size(), 1);
+            assertEquals(reads.get(0).getInt("noOfTalks"), 200);
+            assertEquals(reads.get(0).getString("reader"), "mapped");
+            assertEquals(record("info.gregbiegel.Parse", recordingFile).get(0).getInt("noOfTalks"), 200);
+            assertTrue(record("info.gregbiegel.FeasibilityCheck", recordingFile).get(0).getBoolean("feasible"));
+            RecordedEvent pack = record("info.gregbiegel.Pack", recordingFile).get(0);
+            assertEquals(pack.getString("algorithm"), "FIRST_FIT");
+            assertEquals(pack.getInt("noOfTalks"), 200);
+            assertEquals(record("info.gregbiegel.Materialize", recordingFile).get(0).getInt("noOfTracks"),
+                    conference.getTracks().size());
+            assertEquals(record("info.gregbiegel.Render", recordingFile).get(0).getString("renderer"),
+                    "TextScheduleRenderer");
+            // 200 lightning talks fill 6 sessions, so only the first bin is sampled
+            assertEquals(record("info.gregbiegel.BinOpen", recordingFile).size(), 1);
+        } finally {
+            Files.deleteIfExists(talks);
+            Files.deleteIfExists(recordingFile);
+        }
+    }
+}
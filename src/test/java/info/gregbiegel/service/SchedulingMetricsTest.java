@@ -0,0 +1,121 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.*;
+import info.gregbiegel.service.binpack.BinPackType;
+import info.gregbiegel.service.metrics.*;
+
+public class SchedulingMetricsTest {
+
+    @Test
+    void recordPacking_fillRatiosAndWaste() throws Exception {
+        SchedulingMetrics metrics = new SchedulingMetrics(BinPackType.FIRST_FIT);
+        Track track = TrackTemplate.getDefault().createTrack();
+        track.getSession(0).scheduleEventInSession(new Event(2, "Opening", 120), false);
+        track.getSession(0).scheduleEventInSession(new Event(3, "Keynote", 60), false);
+        track.getSession(1).scheduleEventInSession(new Event(4, "Closing", 60), true);
+        Conference conference = new Conference();
+        conference.addTrack(track);
+        metrics.recordPacking(1000, 2, conference, new int[] { 180, 240 });
+
+        SchedulingMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(snapshot.getBinsOpened(), 2);
+        assertEquals(snapshot.getWastedMinutes(), 180);
+        assertEquals(snapshot.getAverageSessionFillRatio(), 240.0 / 420, 1e-9);
+        assertEquals(snapshot.getWorstSessionFillRatio(), 0.25, 1e-9);
+        assertEquals(snapshot.getPackLatency().getCount(), 1);
+
+        metrics.recordPacking(1000, new int[] { 120 }, new int[] { 240 });
+        assertEquals(metrics.getWorstSessionFillRatio(), 0.25, 1e-9);
+        assertEquals(metrics.getBinsOpened(), 3);
+        metrics.reset();
+        assertEquals(metrics.getBinsOpened(), 0);
+        assertEquals(metrics.getWorstSessionFillRatio(), 1.0, 1e-9);
+    }
+
+    @Test
+    void recordMaterialize_retainedSizeSampled() throws Exception {
+        SchedulingMetrics metrics = new SchedulingMetrics(BinPackType.FIRST_FIT);
+        Conference conference = new Conference();
+        conference.addTrack(TrackTemplate.getDefault().createTrack());
+        metrics.recordMaterialize(1000, conference);
+        long retainedBytes = metrics.getLastConferenceRetainedBytes();
+        assertEquals(retainedBytes, ConferenceSizeEstimator.estimate(conference));
+
+        conference.addTrack(TrackTemplate.getDefault().createTrack());
+        for (int i = 1; i < SchedulingMetrics.RETAINED_SIZE_SAMPLE_INTERVAL; i++)
+            metrics.recordMaterialize(1000, conference);
+        assertEquals(metrics.getLastConferenceRetainedBytes(), retainedBytes);
+        metrics.recordMaterialize(1000, conference);
+        assertEquals(metrics.getLastConferenceRetainedBytes(), ConferenceSizeEstimator.estimate(conference));
+        assertEquals(metrics.getConferencesScheduled(), SchedulingMetrics.RETAINED_SIZE_SAMPLE_INTERVAL + 1);
+    }
+
+    @Test
+    void latencySnapshot_percentilesBoundedByBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++)
+            histogram.record(1000);
+        histogram.record(1_000_000);
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(snapshot.getCount(), 100);
+        assertEquals(snapshot.getMaxNanos(), 1_000_000);
+        // 1000ns falls into the bucket from 512 to 1023ns
+        assertEquals(snapshot.getP50Nanos(), 1023);
+        assertEquals(snapshot.getP99Nanos(), 1023);
+        assertEquals(snapshot.getPercentileNanos(1.0), 1_000_000);
+        assertEquals(snapshot.getMeanNanos(), (99 * 1000 + 1_000_000) / 100);
+    }
+
+    @Test
+    void scheduleConference_recordsPhasesForItsAlgorithm() throws Exception {
+        SchedulingMetrics metrics = SchedulingMetricsRegistry.getDefault().getMetrics(BinPackType.BEST_FIT_DECREASING);
+        // Resetting the metrics makes the next conference the first of a size sample
+        metrics.reset();
+        SchedulingMetricsSnapshot before = metrics.snapshot();
+        Set<Event> events = new HashSet<>();
+        for (int id = 2; id < 40; id++)
+            events.add(new Event(id, "Talk " + id, 30 + id % 4 * 10));
+        Conference conference = new ConferenceServiceImpl(BinPackType.BEST_FIT_DECREASING)
+                .scheduleConference(events, TrackTemplate.getDefault().createSessions());
+
+        SchedulingMetricsSnapshot after = metrics.snapshot();
+        assertEquals(after.getPackLatency().getCount() - before.getPackLatency().getCount(), 1);
+        assertEquals(after.getConferencesScheduled() - before.getConferencesScheduled(), 1);
+        assertEquals(after.getLastTracksPerConference(), conference.getTracks().size());
+        assertTrue(after.getBinsOpened() - before.getBinsOpened() >= 2 * conference.getTracks().size() - 1);
+        assertTrue(after.getLastConferenceRetainedBytes() > 38 * 96);
+        assertEquals(after.getLastConferenceRetainedBytes(), ConferenceSizeEstimator.estimate(conference));
+    }
+
+    @Test
+    void register_exposesEachAlgorithm() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        SchedulingMetricsRegistry registry = new SchedulingMetricsRegistry();
+        registry.register(server);
+        registry.register(server);
+        registry.getMetrics(BinPackType.HISTOGRAM).recordParse(500, 1_000_000);
+
+        ObjectName name = SchedulingMetricsRegistry.getObjectName(BinPackType.HISTOGRAM);
+        assertEquals(server.getAttribute(name, "Algorithm"), "HISTOGRAM");
+        assertEquals(server.getAttribute(name, "EventsParsed"), 500L);
+        assertEquals((Double) server.getAttribute(name, "EventsParsedPerSecond"), 500_000.0, 1e-6);
+        CompositeData parseLatency = (CompositeData) server.getAttribute(name, "ParseLatency");
+        assertEquals(parseLatency.get("count"), 1L);
+        assertEquals(server.getAttribute(SchedulingMetricsRegistry.getObjectName(BinPackType.NEXT_FIT),
+                "EventsParsed"), 0L);
+
+        registry.unregister(server);
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,71 @@
+package info.gregbiegel.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+import info.gregbiegel.model.Event;
+import info.gregbiegel.service.catalog.*;
+
+public class TalkCatalogTest {
+
+    private Path catalogFile;
+
+    @BeforeEach
+    void init() throws Exception {
+        catalogFile = Files.createTempFile("talks", ".cat");
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        Files.deleteIfExists(catalogFile);
+    }
+
+    @Test
+    void convertTalkDataFile_validFile_sameEventsAsTextFile() throws Exception {
+        ConferenceServiceImpl conferenceService = new ConferenceServiceImpl();
+        Set<Event> talks = conferenceService.readTalkDataFromFile("src/test/resources/conference_data.txt");
+        int noOfTalks = conferenceService.convertTalkDataFile("src/test/resources/conference_data.txt", 
+                catalogFile.toString());
+        assertEquals(19, noOfTalks);
+        assertTrue(TalkCatalog.isTalkCatalog(catalogFile));
+
+        Set<Event> catalogTalks = conferenceService.readTalkDataFromFile(catalogFile.toString());
+        assertEquals(catalogTalks, talks);
+        Set<String> expected = new HashSet<>();
+        Set<String> actual = new HashSet<>();
+        for (Event talk : talks)
+            expected.add(talk.toString());
+        for (Event talk : catalogTalks)
+            actual.add(talk.toString());
+        assertEquals(actual, expected);
+    }
+
+    @Test
+    void open_writtenEvents_columnsReadBack() throws Exception {
+        List<Event> events = Arrays.asList(new Event(2, "Über Talk", 60), new Event(3, "", 5), 
+                new Event(4, "Another Talk", 45));
+        TalkCatalogWriter.write(catalogFile, events);
+        TalkCatalog catalog = TalkCatalog.open(catalogFile);
+        assertEquals(3, catalog.getNoOfTalks());
+        assertArrayEquals(new int[] { 60, 5, 45 }, catalog.getDurations());
+        assertArrayEquals(new int[] { 2, 3, 4 }, catalog.getIds());
+        assertEquals("Über Talk", catalog.getTitle(0));
+        assertEquals("", catalog.getTitle(1));
+        assertEquals(catalog.toEvents().get(2).getTitle(), "Another Talk");
+    }
+
+    @Test
+    void open_textFile_exceptionThrown() {
+        IOException exception = assertThrows(IOException.class, () -> {
+            TalkCatalog.open(Paths.get("src/test/resources/conference_data.txt"));
+        });
+        assertEquals("Not a talk catalog", exception.getMessage());
+    }
+}